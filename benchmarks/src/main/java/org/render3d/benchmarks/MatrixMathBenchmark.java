@@ -0,0 +1,107 @@
+package org.render3d.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.render3d.matrix.Mat4x4;
+import org.render3d.matrix.MatrixMath;
+import org.render3d.mesh.Triangle;
+import org.render3d.vectors.vec3d.Vec3df;
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the MatrixMath hot paths: the vector and matrix products
+ * and the triangle clipping, in its allocating and in its allocation free versions
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatrixMathBenchmark {
+
+    /**
+     * How many points of the triangle are in front of the clipping plane
+     */
+    @Param({ "0", "1", "2", "3" })
+    public int pointsInside;
+
+    private Mat4x4 m1;
+
+    private Mat4x4 m2;
+
+    private Vec4df vector;
+
+    private Vec4df vectorOut;
+
+    private final Vec4df planePoint = new Vec4df(0.0f, 0.0f, 0.1f);
+
+    private final Vec4df planeNormal = new Vec4df(0.0f, 0.0f, 1.0f);
+
+    private Triangle triangle;
+
+    private final Triangle output1 = new Triangle();
+
+    private final Triangle output2 = new Triangle();
+
+    @Setup
+    public void setup() {
+        m1 = MatrixMath.matrixMultiplyMatrix(
+                MatrixMath.matrixMakeRotationX(0.4f),
+                MatrixMath.matrixMakeTranslation(1.0f, 2.0f, 3.0f));
+        m2 = MatrixMath.matrixMakeProjection(90.0f, 0.75f, 0.1f, 1000.0f);
+        vector = new Vec4df(0.3f, -1.2f, 4.5f);
+        vectorOut = new Vec4df();
+
+        Vec4df[] p = new Vec4df[3];
+        for ( int i = 0; i < 3; i++ ) {
+            float z = i < pointsInside ? 1.0f + i : -1.0f - i;
+            p[i] = new Vec4df(i * 0.5f, 1.0f - i, z);
+        }
+        Vec3df[] t = {
+                new Vec3df(0.0f, 0.0f),
+                new Vec3df(1.0f, 0.0f),
+                new Vec3df(0.0f, 1.0f)
+        };
+        triangle = new Triangle(p, t);
+    }
+
+    @Benchmark
+    public Vec4df matrixMultiplyVector() {
+        return MatrixMath.matrixMultiplyVector(m1, vector);
+    }
+
+    @Benchmark
+    public Vec4df matrixMultiplyVectorInPlace() {
+        MatrixMath.matrixMultiplyVector(m1, vector, vectorOut);
+        return vectorOut;
+    }
+
+    @Benchmark
+    public Mat4x4 matrixMultiplyMatrix() {
+        return MatrixMath.matrixMultiplyMatrix(m1, m2);
+    }
+
+    @Benchmark
+    public ArrayList<Triangle> triangleClipAgainstPlane() {
+        return MatrixMath.triangleClipAgainstPlane(planePoint, planeNormal, triangle);
+    }
+
+    @Benchmark
+    public int triangleClipAgainstPlaneInPlace() {
+        return MatrixMath.triangleClipAgainstPlane(planePoint, planeNormal, triangle, output1, output2);
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.render3d.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.render3d.PipeLine;
+import org.render3d.RenderFlags;
+import org.render3d.material.Texture;
+import org.render3d.mesh.Mesh;
+import org.render3d.mesh.MeshFactory;
+import org.render3d.mesh.Triangle;
+import org.render3d.transforms.Rotation;
+import org.render3d.transforms.Translation;
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a whole frame: PipeLine.renderMesh on the unit cube and on a
+ * big generated mesh, in every render mode. Each operation renders one frame
+ * and clears the screen and the depth buffer.
+ *
+ * Run it with the gc profiler to get the allocation rate:
+ *   java -jar target/benchmarks.jar PipeLineBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PipeLineBenchmark {
+
+    /**
+     * The meshes to render
+     */
+    public enum MeshKind {
+        UNIT_CUBE,
+        LARGE
+    }
+
+    /**
+     * The number of cubes of the side of the large mesh, 12 triangles each
+     */
+    private static final int LARGE_SIDE = 24;
+
+    @Param
+    public MeshKind meshKind;
+
+    @Param
+    public RenderFlags renderFlag;
+
+    @Param({ "640" })
+    public int width;
+
+    @Param({ "480" })
+    public int height;
+
+    private PipeLine pipeLine;
+
+    private Mesh mesh;
+
+    private Texture texture;
+
+    @Setup
+    public void setup() {
+        pipeLine = new PipeLine(width, height);
+        pipeLine.setRenderFlag(renderFlag);
+
+        float distance;
+        if ( meshKind == MeshKind.UNIT_CUBE ) {
+            mesh = MeshFactory.getUnitCube();
+            distance = 3.0f;
+        } else {
+            mesh = makeLargeMesh(LARGE_SIDE);
+            distance = LARGE_SIDE * 1.5f;
+        }
+
+        Rotation rotation = new Rotation(0.4f, 0.7f, 0.1f);
+        rotation.update();
+        Translation translation = new Translation(0.0f, 0.0f, distance);
+        translation.update();
+        pipeLine.setTransform(rotation.combine(translation));
+
+        texture = makeCheckerTexture(256, 256);
+    }
+
+    @Benchmark
+    public int renderMesh() {
+        pipeLine.getRenderer3D().clear();
+        pipeLine.renderMesh(mesh, texture);
+        pipeLine.clearDepthBuffer();
+        return pipeLine.getNumTrianglesDrawn();
+    }
+
+    /**
+     * This method builds a cube of side x side x side unit cubes,
+     * centered in the origin
+     * @param side the number of cubes of each side
+     * @return the mesh
+     */
+    static Mesh makeLargeMesh(int side) {
+        Mesh mesh = new Mesh();
+        float offset = -side * 0.75f;
+        for ( int i = 0; i < side * side * side; i++ ) {
+            float dx = offset + (i % side) * 1.5f;
+            float dy = offset + (i / side % side) * 1.5f;
+            float dz = offset + (i / (side * side)) * 1.5f;
+            for ( Triangle triangle : MeshFactory.getUnitCube().getTris() ) {
+                for ( Vec4df p : triangle.getP() ) {
+                    p.setX(p.getX() + dx);
+                    p.setY(p.getY() + dy);
+                    p.setZ(p.getZ() + dz);
+                }
+                mesh.getTris().add(triangle);
+            }
+        }
+        return mesh;
+    }
+
+    /**
+     * This method builds a checkerboard texture
+     * @param w the width of the texture
+     * @param h the height of the texture
+     * @return the texture
+     */
+    static Texture makeCheckerTexture(int w, int h) {
+        int[] p = new int[w * h];
+        for ( int y = 0; y < h; y++ ) {
+            for ( int x = 0; x < w; x++ ) {
+                p[x + y * w] = ((x / 16 + y / 16) % 2 == 0) ? 0xffe0e0e0 : 0xff3050a0;
+            }
+        }
+        return new Texture(p, w, h);
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.render3d.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.render3d.PipeLine;
+import org.render3d.RenderFlags;
+import org.render3d.material.Texture;
+import org.render3d.material.TextureAddressMode;
+import org.render3d.material.TextureFilter;
+import org.render3d.mesh.Mesh;
+import org.render3d.mesh.MeshFactory;
+import org.render3d.transforms.Rotation;
+import org.render3d.transforms.Translation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the texture filters and address modes: the samples of a grid of texture
+ * coordinates, which covers the texture three times from -1 to 2, and a frame of the
+ * unit cube close to the camera, with a small texture which is magnified on the screen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TextureFilterBenchmark {
+
+    /**
+     * The number of samples of each side of the grid
+     */
+    private static final int GRID_SIDE = 256;
+
+    @Param
+    public TextureFilter filter;
+
+    @Param
+    public TextureAddressMode addressMode;
+
+    private final float[] coordinates = new float[GRID_SIDE];
+
+    private Texture texture;
+
+    private PipeLine pipeLine;
+
+    private Mesh mesh;
+
+    private Texture smallTexture;
+
+    @Setup
+    public void setup() {
+        for ( int i = 0; i < GRID_SIDE; i++ ) {
+            coordinates[i] = 3.0f * (i + 0.37f) / GRID_SIDE - 1.0f;
+        }
+        texture = PipeLineBenchmark.makeCheckerTexture(256, 256);
+
+        pipeLine = new PipeLine(640, 480);
+        pipeLine.setRenderFlag(RenderFlags.RENDER_FULL_TEXTURED);
+        mesh = MeshFactory.getUnitCube();
+        Rotation rotation = new Rotation(0.4f, 0.7f, 0.1f);
+        rotation.update();
+        Translation translation = new Translation(0.0f, 0.0f, 1.8f);
+        translation.update();
+        pipeLine.setTransform(rotation.combine(translation));
+        smallTexture = PipeLineBenchmark.makeCheckerTexture(32, 32);
+    }
+
+    @Benchmark
+    public int sample() {
+        int sum = 0;
+        for ( float y : coordinates ) {
+            for ( float x : coordinates ) {
+                if ( filter == TextureFilter.BILINEAR ) {
+                    sum += texture.getBilinearSample(x, y, addressMode);
+                } else {
+                    sum += texture.getSample(x, y, addressMode);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int renderMagnified() {
+        pipeLine.getRenderer3D().clear();
+        pipeLine.renderMesh(mesh, smallTexture, filter, addressMode);
+        pipeLine.clearDepthBuffer();
+        return pipeLine.getNumTrianglesDrawn();
+    }
+
+}
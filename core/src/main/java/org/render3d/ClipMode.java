@@ -0,0 +1,8 @@
+package org.render3d;
+
+public enum ClipMode {
+
+    VIEW_SPACE,
+    HOMOGENEOUS
+
+}
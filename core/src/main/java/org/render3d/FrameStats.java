@@ -0,0 +1,208 @@
+package org.render3d;
+
+/**
+ * This class contains the statistics of one frame: the time spent in each stage
+ * of the pipeline, and how many meshes, triangles and pixels went through them.
+ *
+ * The stages are:
+ * - TRANSFORM: the triangles (or the vertices of the packed meshes) are transformed by the world matrix
+ * - LIGHTING: the back faces are discarded and the brightness of the front faces is calculated
+ * - PROJECTION: the view and projection transforms, with the clipping against the near
+ *   plane (VIEW_SPACE) or against the whole view frustum (HOMOGENEOUS)
+ * - SORT: the projected triangles are ordered from the farthest to the nearest
+ * - CLIP: the triangles are clipped against the screen or the guard band borders
+ * - RASTER: the triangles are drawn, and the visibility buffer is shaded
+ *
+ * With the parallel geometry, the time of the first three stages is the sum of the
+ * time spent by all the threads, so it can be bigger than the time of the frame.
+ */
+public class FrameStats {
+
+    /**
+     * The time in nanoseconds of each stage
+     */
+    private final long[] nanos = new long[PipeLineStage.values().length];
+
+    /**
+     * The meshes discarded by the frustum culling
+     */
+    long numMeshesCulled;
+
+    /**
+     * The triangles of the meshes which were not discarded
+     */
+    long numTrianglesSubmitted;
+
+    /**
+     * The triangles discarded without being clipped: the back faces, and the
+     * ones completely outside the view frustum or the screen
+     */
+    long numTrianglesCulled;
+
+    /**
+     * The triangles cut by a clipping plane
+     */
+    long numTrianglesClipped;
+
+    /**
+     * The triangles created by the clipping from the clipped ones
+     */
+    long numTrianglesGenerated;
+
+    /**
+     * The triangles sent to the renderer
+     */
+    long numTrianglesDrawn;
+
+    /**
+     * The pixels which reached the depth test
+     */
+    long numPixelsTested;
+
+    /**
+     * The pixels which failed the depth test
+     */
+    long numPixelsRejected;
+
+    /**
+     * The pixels which passed the depth test and were written
+     */
+    long numPixelsWritten;
+
+    public FrameStats() {
+    }
+
+    /**
+     * Copy constructor
+     * @param stats the statistics to copy
+     */
+    public FrameStats(FrameStats stats) {
+        set(stats);
+    }
+
+    /**
+     * This method adds time to a stage
+     * @param stage the stage
+     * @param time the time in nanoseconds
+     */
+    void addNanos(PipeLineStage stage, long time) {
+        nanos[stage.ordinal()] += time;
+    }
+
+    /**
+     * This method adds all the values of other statistics to these ones
+     * @param stats the statistics to add
+     */
+    void add(FrameStats stats) {
+        for ( int i = 0; i < nanos.length; i++ ) {
+            nanos[i] += stats.nanos[i];
+        }
+        numMeshesCulled += stats.numMeshesCulled;
+        numTrianglesSubmitted += stats.numTrianglesSubmitted;
+        numTrianglesCulled += stats.numTrianglesCulled;
+        numTrianglesClipped += stats.numTrianglesClipped;
+        numTrianglesGenerated += stats.numTrianglesGenerated;
+        numTrianglesDrawn += stats.numTrianglesDrawn;
+        numPixelsTested += stats.numPixelsTested;
+        numPixelsRejected += stats.numPixelsRejected;
+        numPixelsWritten += stats.numPixelsWritten;
+    }
+
+    /**
+     * This method copies all the values of other statistics
+     * @param stats the statistics to copy
+     */
+    void set(FrameStats stats) {
+        reset();
+        add(stats);
+    }
+
+    /**
+     * This method sets all the values to 0
+     */
+    void reset() {
+        for ( int i = 0; i < nanos.length; i++ ) {
+            nanos[i] = 0;
+        }
+        numMeshesCulled = 0;
+        numTrianglesSubmitted = 0;
+        numTrianglesCulled = 0;
+        numTrianglesClipped = 0;
+        numTrianglesGenerated = 0;
+        numTrianglesDrawn = 0;
+        numPixelsTested = 0;
+        numPixelsRejected = 0;
+        numPixelsWritten = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("FrameStats[");
+        for ( PipeLineStage stage : PipeLineStage.values() ) {
+            builder.append(stage.name().toLowerCase()).append('=').append(getNanos(stage) / 1000).append("us ");
+        }
+        return builder
+                .append("meshesCulled=").append(numMeshesCulled)
+                .append(" trianglesSubmitted=").append(numTrianglesSubmitted)
+                .append(" trianglesCulled=").append(numTrianglesCulled)
+                .append(" trianglesClipped=").append(numTrianglesClipped)
+                .append(" trianglesGenerated=").append(numTrianglesGenerated)
+                .append(" trianglesDrawn=").append(numTrianglesDrawn)
+                .append(" pixelsTested=").append(numPixelsTested)
+                .append(" pixelsRejected=").append(numPixelsRejected)
+                .append(" pixelsWritten=").append(numPixelsWritten)
+                .append(']')
+                .toString();
+    }
+
+    // --------------
+
+    public long getNanos(PipeLineStage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for ( long time : nanos ) {
+            total += time;
+        }
+        return total;
+    }
+
+    public long getNumMeshesCulled() {
+        return numMeshesCulled;
+    }
+
+    public long getNumTrianglesSubmitted() {
+        return numTrianglesSubmitted;
+    }
+
+    public long getNumTrianglesCulled() {
+        return numTrianglesCulled;
+    }
+
+    public long getNumTrianglesClipped() {
+        return numTrianglesClipped;
+    }
+
+    public long getNumTrianglesGenerated() {
+        return numTrianglesGenerated;
+    }
+
+    public long getNumTrianglesDrawn() {
+        return numTrianglesDrawn;
+    }
+
+    public long getNumPixelsTested() {
+        return numPixelsTested;
+    }
+
+    public long getNumPixelsRejected() {
+        return numPixelsRejected;
+    }
+
+    public long getNumPixelsWritten() {
+        return numPixelsWritten;
+    }
+
+}
@@ -0,0 +1,1579 @@
+package org.render3d;
+
+import org.render3d.light.LightSource;
+import org.render3d.material.Texture;
+import org.render3d.material.TextureAddressMode;
+import org.render3d.material.TextureFilter;
+import org.render3d.matrix.Frustum;
+import org.render3d.matrix.FrustumClipper;
+import org.render3d.matrix.Mat4x4;
+import org.render3d.matrix.MatrixMath;
+import org.render3d.mesh.BoundingVolume;
+import org.render3d.mesh.Mesh;
+import org.render3d.mesh.MeshObject;
+import org.render3d.mesh.Model;
+import org.render3d.mesh.PackedMesh;
+import org.render3d.mesh.Triangle;
+import org.render3d.mesh.TriangleArena;
+import org.render3d.mesh.TriangleSorter;
+import org.render3d.render.PixelRenderer3D;
+import org.render3d.scene.Scene;
+import org.render3d.scene.SceneObject;
+import org.render3d.transforms.Transform;
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+public class PipeLine {
+
+    /**
+     * We need this for the offsetScaleTriangle method.
+     * How is a susceptible point to increase the computational
+     * cost, we define this constant here
+     */
+    private final Vec4df OFFSET_VIEW = new Vec4df(1.0f, 1.0f, 0.0f, 0.0f);
+
+    /**
+     * We need this for the triangleClipAgainstPlane
+     */
+    private final Vec4df PLANE_POINT = new Vec4df(0.0f, 0.0f, 0.1f);
+
+    /**
+     * Same as the planePoint
+     */
+    private final Vec4df PLANE_NORMAL = new Vec4df(0.0f, 0.0f, 1.0f);
+
+    /**
+     * The 3D renderer with all needed methods for drawing
+     */
+    private final PixelRenderer3D renderer;
+
+    /**
+     * The camera object
+     */
+    private Camera cameraObj;
+
+    /**
+     * The view matrix
+     */
+    private Mat4x4 matView;
+
+    /**
+     * The projection matrix
+     */
+    private Mat4x4 matProjection;
+
+    /**
+     * The view and projection matrices combined, for the HOMOGENEOUS clip mode
+     */
+    private final Mat4x4 matViewProjection = new Mat4x4();
+
+    /**
+     * The world matrix transformation
+     */
+    private Mat4x4 worldMatrix;
+
+    /**
+     * The light source
+     */
+    private LightSource lightSource;
+
+    /**
+     * The kind of perspective
+     */
+    private Perspective perspective;
+
+    /**
+     * The screen width
+     */
+    private final int screenWidth;
+
+    /**
+     * The screen height
+     */
+    private final int screenHeight;
+
+    /**
+     * Scratch buffer for the vertices of a packed mesh transformed by the
+     * world matrix. It is reused frame after frame, it only grows
+     */
+    private float[] transformedVertices = new float[0];
+
+    /**
+     * The pool of the intermediate triangles. It is reset
+     * at the start of each render call
+     */
+    private final TriangleArena arena = new TriangleArena();
+
+    /**
+     * The triangles transformed by the world matrix.
+     * The lists of each stage are cleared and reused in every frame
+     */
+    private final ArrayList<Triangle> transformedTriangles = new ArrayList<>();
+
+    /**
+     * The transformed triangles which face the camera, with their brightness
+     */
+    private final ArrayList<Triangle> litTriangles = new ArrayList<>();
+
+    /**
+     * The triangles projected to 2D space
+     */
+    private final ArrayList<Triangle> projectedTriangles = new ArrayList<>();
+
+    /**
+     * The projected triangles ordered from the farthest to the nearest
+     */
+    private final ArrayList<Triangle> sortedTriangles = new ArrayList<>();
+
+    /**
+     * The sorter of the projected triangles
+     */
+    private final TriangleSorter sorter = new TriangleSorter();
+
+    /**
+     * The triangles clipped against the screen borders, ready to draw
+     */
+    private final ArrayList<Triangle> finalTriangles = new ArrayList<>();
+
+    /**
+     * The queue of the triangles which are being clipped against the screen borders
+     */
+    private final ArrayDeque<Triangle> trianglesOutsideScreenQueue = new ArrayDeque<>();
+
+    /**
+     * A point of each screen border plane: top, bottom, left and right
+     */
+    private final Vec4df[] borderPoints = new Vec4df[4];
+
+    /**
+     * The normal of each screen border plane: top, bottom, left and right
+     */
+    private final Vec4df[] borderNormals = new Vec4df[4];
+
+    /**
+     * Where the triangles are clipped against the view frustum: only against the
+     * near plane in view space, or against the six planes in clip space
+     */
+    private ClipMode clipMode = ClipMode.VIEW_SPACE;
+
+    /**
+     * The clipper of the HOMOGENEOUS clip mode
+     */
+    private final FrustumClipper clipper = new FrustumClipper();
+
+    /**
+     * If true, the meshes whose bounding volume is outside the view frustum
+     * are discarded before transforming any triangle. The packed meshes are
+     * never modified, so their bounding volumes are always right, but the
+     * bounding volumes of the meshes of triangles are cached: the meshes whose
+     * points are modified in place need a call to invalidateBounds
+     */
+    private boolean frustumCulling = true;
+
+    /**
+     * If true, the mesh being rendered belongs to an object of a scene which is
+     * already inside the view frustum, so it isn't tested again
+     */
+    private boolean meshInsideFrustum = false;
+
+    /**
+     * The view frustum, in the space of the mesh being rendered
+     */
+    private final Frustum frustum = new Frustum();
+
+    /**
+     * The world and view matrices combined, for the frustum culling
+     */
+    private final Mat4x4 matWorldView = new Mat4x4();
+
+    /**
+     * The world, view and projection matrices combined, for the frustum culling
+     */
+    private final Mat4x4 matWorldViewProjection = new Mat4x4();
+
+    /**
+     * The number of meshes discarded by the frustum culling since the counter was reset
+     */
+    private int numMeshesCulled = 0;
+
+    /**
+     * The objects of the scene inside the view frustum. The list is reused
+     */
+    private final ArrayList<SceneObject> visibleObjects = new ArrayList<>();
+
+    /**
+     * The default size of the guard band, as a fraction of the screen size
+     */
+    public static final float DEFAULT_GUARD_BAND = 1.0f;
+
+    /**
+     * If true, the triangles inside the guard band are not clipped,
+     * the rasterizer discards the pixels outside the screen
+     */
+    private boolean guardBandClipping = true;
+
+    /**
+     * The size of the guard band beyond each border of the screen,
+     * as a fraction of the screen width and height
+     */
+    private float guardBand = DEFAULT_GUARD_BAND;
+
+    /**
+     * A point of each guard band border plane: top, bottom, left and right
+     */
+    private final Vec4df[] guardBandPoints = new Vec4df[4];
+
+    /**
+     * The normal of each guard band border plane: top, bottom, left and right
+     */
+    private final Vec4df[] guardBandNormals = new Vec4df[4];
+
+    /**
+     * The default number of triangles of each chunk of the parallel geometry stage
+     */
+    public static final int DEFAULT_GEOMETRY_CHUNK_SIZE = 4096;
+
+    /**
+     * If true, the transform and projection stages split the mesh
+     * in chunks which are processed in parallel
+     */
+    private boolean parallelGeometry = false;
+
+    /**
+     * The number of triangles (and vertices of the packed meshes) of each chunk
+     */
+    private int geometryChunkSize = DEFAULT_GEOMETRY_CHUNK_SIZE;
+
+    /**
+     * The pool where the chunks are processed
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * The chunks of the parallel geometry stage. They are reused frame after frame
+     */
+    private final ArrayList<GeometryChunk> chunks = new ArrayList<>();
+
+    /**
+     * This are the num of triangles drawn
+     */
+    private int numTrianglesDrawn = 0;
+
+    /**
+     * If true, the time and the counters of each stage are collected
+     */
+    private boolean frameStatsEnabled = false;
+
+    /**
+     * The statistics of the frame which is being rendered
+     */
+    private final FrameStats currentFrameStats = new FrameStats();
+
+    /**
+     * The statistics of the last finished frame
+     */
+    private final FrameStats frameStats = new FrameStats();
+
+    /**
+     * A chunk of the parallel geometry stage. Each chunk has its own arena
+     * and lists, so the chunks can be processed at the same time
+     */
+    private static final class GeometryChunk {
+
+        private final TriangleArena arena = new TriangleArena();
+
+        private final FrustumClipper clipper = new FrustumClipper();
+
+        private final ArrayList<Triangle> transformedTriangles = new ArrayList<>();
+
+        private final ArrayList<Triangle> litTriangles = new ArrayList<>();
+
+        private final ArrayList<Triangle> projectedTriangles = new ArrayList<>();
+
+        private final FrameStats stats = new FrameStats();
+
+        private void reset() {
+            arena.reset();
+            transformedTriangles.clear();
+            litTriangles.clear();
+            projectedTriangles.clear();
+            stats.reset();
+        }
+
+    }
+
+    /**
+     * The constructor
+     */
+    public PipeLine(int[] p, int pW, int pH) {
+        screenWidth = pW;
+        screenHeight = pH;
+
+        perspective = Perspective.NORMAL;
+
+        cameraObj = new Camera(0.0f, 0.0f, -1.0f);
+        matView = cameraObj.getMatView();
+
+        matProjection = buildProjectionMatrix(screenWidth, screenHeight);
+
+        worldMatrix = MatrixMath.matrixMakeIdentity();
+
+        lightSource = new LightSource();
+
+        renderer = new PixelRenderer3D(p, screenWidth, screenHeight);
+
+        buildBorderPlanes();
+    }
+
+    public PipeLine(int pW, int pH) {
+        screenWidth = pW;
+        screenHeight = pH;
+
+        perspective = Perspective.NORMAL;
+
+        cameraObj = new Camera(0.0f, 0.0f, -1.0f);
+        matView = cameraObj.getMatView();
+
+        matProjection = buildProjectionMatrix(screenWidth, screenHeight);
+
+        worldMatrix = MatrixMath.matrixMakeIdentity();
+
+        lightSource = new LightSource();
+
+        renderer = new PixelRenderer3D(screenWidth, screenHeight);
+
+        buildBorderPlanes();
+    }
+
+    /**
+     * This method builds the normal projection matrix.
+     * @param width the screen width
+     * @param height the screen height
+     * @return the normal projection matrix
+     */
+    private Mat4x4 buildNormalProjectionMatrix(int width, int height) {
+        float near = 0.1f;
+        float far = 1000.0f;
+        float fovDegrees = 90.0f;
+        float aspectRatio = (float)height / (float)width;
+        return MatrixMath.matrixMakeProjection(fovDegrees, aspectRatio, near, far);
+    }
+
+    /**
+     * This method builds the projection matrix.
+     * @param width the screen width
+     * @param height the screen height
+     * @return returns the projection matrix
+     */
+    private Mat4x4 buildProjectionMatrix(int width, int height) {
+        switch ( perspective ) {
+            case NORMAL: default:
+                return buildNormalProjectionMatrix(width, height);
+            case ORTHOGONAL:
+                return MatrixMath.matrixMakeOrthogonalProjection();
+        }
+    }
+
+    /**
+     * This method gives the largest guard band for a screen size. The edge functions
+     * of the rasterizer are products of the integer coordinates of the vertices, and
+     * they fit in an int only while the screen with its guard band, plus two pixels
+     * on each side for the rounding, covers at most Integer.MAX_VALUE pixels. At 1920x1080
+     * it is a bit more than 15 times the screen size beyond each border
+     * @param width the screen width
+     * @param height the screen height
+     * @return the maximum size of the guard band, as a fraction of the screen size
+     */
+    public static float getMaxGuardBand(int width, int height) {
+        // The sides of the band are s * width + 4 and s * height + 4, with s = 1 + 2 * band,
+        // and s is the positive root of (s * width + 4) * (s * height + 4) = Integer.MAX_VALUE
+        double area = (double) width * height;
+        double halfPerimeter = (double) width + height;
+        double s = (Math.sqrt(4.0 * halfPerimeter * halfPerimeter + area * (Integer.MAX_VALUE - 16.0)) - 2.0 * halfPerimeter) / area;
+        double band = (s - 1.0) / 2.0;
+        if ( band <= 0.0 ) {
+            return 0.0f;
+        }
+        float maxBand = (float) band;
+        return maxBand > band ? Math.nextDown(maxBand) : maxBand;
+    }
+
+    /**
+     * This method builds the four planes of the screen borders and the four
+     * planes of the guard band borders, used to clip the projected triangles.
+     * The guard band is limited to getMaxGuardBand for the screen size
+     */
+    private void buildBorderPlanes() {
+        float band = Math.min(guardBand, getMaxGuardBand(screenWidth, screenHeight));
+        float bandX = band * screenWidth;
+        float bandY = band * screenHeight;
+        guardBandPoints[0] = new Vec4df(0.0f, -bandY, 0.0f);
+        guardBandNormals[0] = new Vec4df(0.0f, 1.0f, 0.0f);
+        guardBandPoints[1] = new Vec4df(0.0f, screenHeight + bandY, 0.0f);
+        guardBandNormals[1] = new Vec4df(0.0f, -1.0f, 0.0f);
+        guardBandPoints[2] = new Vec4df(-bandX, 0.0f, 0.0f);
+        guardBandNormals[2] = new Vec4df(1.0f, 0.0f, 0.0f);
+        guardBandPoints[3] = new Vec4df(screenWidth + bandX, 0.0f, 0.0f);
+        guardBandNormals[3] = new Vec4df(-1.0f, 0.0f, 0.0f);
+
+        borderPoints[0] = new Vec4df(0.0f, 0.0f, 0.0f);
+        borderNormals[0] = new Vec4df(0.0f, 1.0f, 0.0f);
+        borderPoints[1] = new Vec4df(0.0f, (float) screenHeight - 1, 0.0f);
+        borderNormals[1] = new Vec4df(0.0f, -1.0f, 0.0f);
+        borderPoints[2] = new Vec4df(0.0f, 0.0f, 0.0f);
+        borderNormals[2] = new Vec4df(1.0f, 0.0f, 0.0f);
+        borderPoints[3] = new Vec4df((float) screenWidth - 1, 0.0f, 0.0f);
+        borderNormals[3] = new Vec4df(-1.0f, 0.0f, 0.0f);
+    }
+
+    /**
+     * This method transform the triangles of the mesh from the number from (included)
+     * to the number to (excluded) by the worldMatrix
+     * @param tris the triangles of the mesh to transform
+     * @param from the first triangle
+     * @param to the triangle after the last one
+     * @param arena the arena where the transformed triangles are taken from
+     * @param output the list where the transformed triangles are added
+     */
+    private void transformTriangles(ArrayList<Triangle> tris, int from, int to,
+                                    TriangleArena arena, ArrayList<Triangle> output) {
+        for ( int i = from; i < to; i++ ) {
+            Triangle triangle = tris.get(i);
+            Triangle triangleTransformed = arena.obtain();
+            MatrixMath.matrixMultiplyVectors(worldMatrix, triangle.getP(), triangleTransformed.getP());
+            triangleTransformed.setT(triangle.getT());
+            output.add(triangleTransformed);
+        }
+    }
+
+    /**
+     * This method transforms the vertices of the packed mesh from the number from (included)
+     * to the number to (excluded) by the worldMatrix, only once, and stores the result in the
+     * transformedVertices scratch buffer. Four floats per vertex: x, y, z, w
+     * @param mesh the packed mesh to transform
+     * @param from the first vertex
+     * @param to the vertex after the last one
+     */
+    private void transformVertices(PackedMesh mesh, int from, int to) {
+        float[][] m = worldMatrix.getM();
+        float[] positions = mesh.getPositions();
+        float[] out = transformedVertices;
+
+        for ( int i = from; i < to; i++ ) {
+            float x = positions[i * PackedMesh.POSITION_STRIDE];
+            float y = positions[i * PackedMesh.POSITION_STRIDE + 1];
+            float z = positions[i * PackedMesh.POSITION_STRIDE + 2];
+            out[i * 4]     = x * m[0][0] + y * m[1][0] + z * m[2][0] + m[3][0];
+            out[i * 4 + 1] = x * m[0][1] + y * m[1][1] + z * m[2][1] + m[3][1];
+            out[i * 4 + 2] = x * m[0][2] + y * m[1][2] + z * m[2][2] + m[3][2];
+            out[i * 4 + 3] = x * m[0][3] + y * m[1][3] + z * m[2][3] + m[3][3];
+        }
+    }
+
+    /**
+     * This method makes sure the transformedVertices scratch buffer
+     * is big enough for the vertices of the packed mesh
+     * @param mesh the packed mesh to transform
+     */
+    private void ensureTransformedVerticesCapacity(PackedMesh mesh) {
+        if ( transformedVertices.length < mesh.getNumVertices() * 4 ) {
+            transformedVertices = new float[mesh.getNumVertices() * 4];
+        }
+    }
+
+    /**
+     * This method assembles the triangles of the packed mesh from the number from (included)
+     * to the number to (excluded), reading the index buffer and the vertices already
+     * transformed by the transformVertices method
+     * @param mesh the packed mesh to transform
+     * @param from the first triangle
+     * @param to the triangle after the last one
+     * @param arena the arena where the transformed triangles are taken from
+     * @param output the list where the transformed triangles are added
+     */
+    private void assembleTriangles(PackedMesh mesh, int from, int to,
+                                   TriangleArena arena, ArrayList<Triangle> output) {
+        float[] vertices = transformedVertices;
+        float[] uvs = mesh.getUvs();
+        int[] indices = mesh.getIndices();
+
+        for ( int i = from * 3; i < to * 3; i += 3 ) {
+            Triangle triangleTransformed = arena.obtain();
+            for ( int k = 0; k < 3; k++ ) {
+                int vertex = indices[i + k];
+                Vec4df p = triangleTransformed.getP()[k];
+                p.setX(vertices[vertex * 4]);
+                p.setY(vertices[vertex * 4 + 1]);
+                p.setZ(vertices[vertex * 4 + 2]);
+                p.setW(vertices[vertex * 4 + 3]);
+                triangleTransformed.getT()[k].setX(uvs[vertex * PackedMesh.UV_STRIDE]);
+                triangleTransformed.getT()[k].setY(uvs[vertex * PackedMesh.UV_STRIDE + 1]);
+                triangleTransformed.getT()[k].setZ(1.0f);
+            }
+            output.add(triangleTransformed);
+        }
+    }
+
+    /**
+     * This method calculate the brightness of the color pass as a parameter
+     * @param light illumination. 0 for nothing and 1 for max
+     * @return return color grey scale illumination based
+     */
+    private int calculateColor(float light) {
+        light = Math.max(0.1f, light);
+        light *= 255;
+        return (0xff << 24 | (int)light << 16 | (int)light << 8 | (int)light);
+    }
+
+    /**
+     * The normal vector of a plane is a perpendicular vector for the two directions
+     * which form the plane. Do 90 degrees with the two lines
+     * @param triangle the triangle
+     * @param normal the vector where the normal vector for the plane where is the triangle is written
+     */
+    private void calculateNormalToPlane(Triangle triangle, Vec4df normal) {
+        Vec4df[] p = triangle.getP();
+
+        float line1X = p[1].getX() - p[0].getX();
+        float line1Y = p[1].getY() - p[0].getY();
+        float line1Z = p[1].getZ() - p[0].getZ();
+
+        float line2X = p[2].getX() - p[0].getX();
+        float line2Y = p[2].getY() - p[0].getY();
+        float line2Z = p[2].getZ() - p[0].getZ();
+
+        normal.setX( line1Y * line2Z - line1Z * line2Y );
+        normal.setY( line1Z * line2X - line1X * line2Z );
+        normal.setZ( line1X * line2Y - line1Y * line2X );
+        normal.setW(1.0f);
+
+        normal.normalize();
+    }
+
+    /**
+     * This method corrects the texture
+     * @param triangle the triangle to correct
+     */
+    private void textureCorrection(Triangle triangle) {
+        for ( int i = 0; i < triangle.getT().length; i++ ) {
+            triangle.getT()[i].setX(triangle.getT()[i].getX() / triangle.getP()[i].getW());
+            triangle.getT()[i].setY(triangle.getT()[i].getY() / triangle.getP()[i].getW());
+            triangle.getT()[i].setZ(1.0f / triangle.getP()[i].getW());
+        }
+    }
+
+    /**
+     * This function scales and translate the projected points into something visible.
+     * @param triangle the 2D triangle projected.
+     * @param width the screen width.
+     * @param height the screen height.
+     */
+    private void offSetProjectedTriangle(Triangle triangle, int width, int height) {
+        for ( Vec4df p : triangle.getP() ) {
+            float w = p.getW();
+            p.setX(p.getX() / w);
+            p.setY(p.getY() / w);
+            p.setZ(p.getZ() / w);
+            p.mulXBy(-1.0f);
+            p.mulYBy(-1.0f);
+            p.setX(p.getX() + OFFSET_VIEW.getX());
+            p.setY(p.getY() + OFFSET_VIEW.getY());
+            p.setZ(p.getZ() + OFFSET_VIEW.getZ());
+            p.setW(1.0f);
+            p.mulXBy(0.5f * width);
+            p.mulYBy(0.5f * height);
+        }
+    }
+
+    /**
+     * This method discards the triangles which don't face the camera and calculates
+     * the brightness and the color of the other ones, by the light source
+     * @param triangles the triangles transformed by the world matrix
+     * @param arena the arena where the normal vector is taken from
+     * @param output the list where the triangles which face the camera are added
+     * @param stats the statistics where the discarded triangles are counted, or null
+     */
+    private void lightTriangles(ArrayList<Triangle> triangles, TriangleArena arena,
+                                ArrayList<Triangle> output, FrameStats stats) {
+        Vec4df normal = arena.obtainVector();
+        Vec4df origin = cameraObj.getOrigin();
+        int first = output.size();
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            Triangle triangle = triangles.get(i);
+
+            calculateNormalToPlane(triangle, normal);
+
+            float diffX = triangle.getP()[0].getX() - origin.getX();
+            float diffY = triangle.getP()[0].getY() - origin.getY();
+            float diffZ = triangle.getP()[0].getZ() - origin.getZ();
+
+            if ( normal.getX() * diffX + normal.getY() * diffY + normal.getZ() * diffZ < 0.0f ) {
+                float light = lightSource.calLight(normal);
+                triangle.setColor(calculateColor(light));
+                triangle.setBrightness(light);
+                output.add(triangle);
+            }
+        }
+        if ( stats != null ) {
+            stats.numTrianglesCulled += triangles.size() - (output.size() - first);
+        }
+    }
+
+    /**
+     * This method is used for calculate the tre projected triangles from 3D space
+     * to 2D space. It needs the screen width and the screen height for translate
+     * the result into something visible in the screen
+     * With the HOMOGENEOUS clip mode the triangles are transformed by the view and
+     * projection matrices at once, and clipped against the whole view frustum in clip space.
+     * @param triangles the 3D triangles to 2D project, which face the camera.
+     * @param arena the arena where the projected triangles are taken from
+     * @param clipper the clipper for the HOMOGENEOUS clip mode
+     * @param output the list where the 2D triangles projected are added
+     * @param width screen width.
+     * @param height screen height.
+     * @param stats the statistics where the clipped triangles are counted, or null
+     */
+    private void projectTriangles(ArrayList<Triangle> triangles, TriangleArena arena, FrustumClipper clipper,
+                                  ArrayList<Triangle> output, int width, int height, FrameStats stats) {
+        Triangle triangleViewed = arena.obtain();
+        Triangle triangleClipped1 = arena.obtain();
+        Triangle triangleClipped2 = arena.obtain();
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            Triangle triangle = triangles.get(i);
+
+            if ( clipMode == ClipMode.HOMOGENEOUS ) {
+                Triangle triangleProjected = arena.obtain();
+                MatrixMath.matrixMultiplyVectors(matViewProjection, triangle.getP(), triangleProjected.getP());
+                triangleProjected.setT(triangle.getT());
+                triangleProjected.setColor(triangle.getColor());
+                triangleProjected.setBrightness(triangle.getBrightness());
+
+                int first = output.size();
+                int numClippedTriangles = clipper.clip(triangleProjected, arena, output);
+                if ( numClippedTriangles == 0 ) {
+                    arena.release(1);
+                }
+                if ( stats != null ) {
+                    countClippedTriangles(stats, numClippedTriangles, numClippedTriangles != 1 || output.get(first) != triangleProjected);
+                }
+
+                for ( int k = first; k < output.size(); k++ ) {
+                    textureCorrection(output.get(k));
+                    offSetProjectedTriangle(output.get(k), width, height);
+                }
+                continue;
+            }
+
+            MatrixMath.matrixMultiplyVectors(matView, triangle.getP(), triangleViewed.getP());
+            triangleViewed.setT(triangle.getT());
+            triangleViewed.setColor(triangle.getColor());
+            triangleViewed.setBrightness(triangle.getBrightness());
+
+            int numClippedTriangles = MatrixMath.triangleClipAgainstPlane(
+                    PLANE_POINT,
+                    PLANE_NORMAL,
+                    triangleViewed,
+                    triangleClipped1,
+                    triangleClipped2
+            );
+            if ( stats != null ) {
+                countClippedTriangles(stats, numClippedTriangles, numClippedTriangles != 1 || isBehindNearPlane(triangleViewed));
+            }
+
+            for ( int k = 0; k < numClippedTriangles; k++ ) {
+                Triangle triangleClipped = k == 0 ? triangleClipped1 : triangleClipped2;
+                Triangle triangleProjected = arena.obtain();
+                MatrixMath.matrixMultiplyVectors(matProjection, triangleClipped.getP(), triangleProjected.getP());
+                triangleProjected.setT(triangleClipped.getT());
+                triangleProjected.setColor(triangleClipped.getColor());
+                triangleProjected.setBrightness(triangleClipped.getBrightness());
+
+                textureCorrection(triangleProjected);
+
+                offSetProjectedTriangle(triangleProjected, width, height);
+
+                output.add(triangleProjected);
+            }
+        }
+    }
+
+    /**
+     * This method says if any point of a triangle in view space is behind the near plane
+     * @param triangle the triangle in view space
+     * @return true if the triangle is cut by the near plane
+     */
+    private boolean isBehindNearPlane(Triangle triangle) {
+        for ( Vec4df point : triangle.getP() ) {
+            if ( point.getZ() < PLANE_POINT.getZ() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method counts the result of clipping a triangle
+     * @param stats the statistics
+     * @param numTriangles the number of triangles the clipping has given
+     * @param clipped false if the triangle was completely inside
+     */
+    private static void countClippedTriangles(FrameStats stats, int numTriangles, boolean clipped) {
+        if ( numTriangles == 0 ) {
+            stats.numTrianglesCulled++;
+        } else if ( clipped ) {
+            stats.numTrianglesClipped++;
+            stats.numTrianglesGenerated += numTriangles;
+        }
+    }
+
+    /**
+     * This method calculates if one triangle is inside a rectangle or it isn't.
+     * To do it, it goes over all the points which conform the triangle and if one
+     * of them is outside the rectangle, returns false. Else, it returns true.
+     * @param triangle the triangle to know if is inside the rectangle
+     * @param minX left side of the rectangle
+     * @param minY top side of the rectangle
+     * @param maxX right side of the rectangle
+     * @param maxY bottom side of the rectangle
+     * @return return true if the triangle is inside the rectangle or false if one of its points is outside
+     */
+    private boolean isInsideRectangle(Triangle triangle, float minX, float minY, float maxX, float maxY) {
+        for ( Vec4df point : triangle.getP() ) {
+            if ( point.getX() > maxX || point.getX() < minX || point.getY() > maxY || point.getY() < minY ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method calculates if one triangle is completely outside the screen, so
+     * none of its pixels would be drawn. The points are drawn at their integer
+     * coordinates, so a point between -1 and 0 is still drawn in the first column or row
+     * @param triangle the triangle to test
+     * @param width width screen
+     * @param height height screen
+     * @return true if all the points of the triangle are beyond the same border of the screen
+     */
+    private boolean isOutsideScreen(Triangle triangle, int width, int height) {
+        Vec4df[] p = triangle.getP();
+        return (p[0].getX() <= -1.0f && p[1].getX() <= -1.0f && p[2].getX() <= -1.0f) ||
+                (p[0].getY() <= -1.0f && p[1].getY() <= -1.0f && p[2].getY() <= -1.0f) ||
+                (p[0].getX() >= width && p[1].getX() >= width && p[2].getX() >= width) ||
+                (p[0].getY() >= height && p[1].getY() >= height && p[2].getY() >= height);
+    }
+
+    /**
+     * This method clips one triangle against a border plane.
+     * The clipped triangles are taken from the arena and added to the queue
+     * @param triangle the triangle to clip
+     * @param planePoint a point of the border plane
+     * @param planeNormal the normal of the border plane, pointing inside
+     * @param queue the queue where the clipped triangles are added
+     */
+    private void clipTriangleAgainstBorder(Triangle triangle, Vec4df planePoint, Vec4df planeNormal,
+                                           ArrayDeque<Triangle> queue) {
+        Triangle triangleClipped1 = arena.obtain();
+        Triangle triangleClipped2 = arena.obtain();
+        int numClippedTriangles = MatrixMath.triangleClipAgainstPlane(
+                planePoint,
+                planeNormal,
+                triangle,
+                triangleClipped1,
+                triangleClipped2
+        );
+        arena.release(2 - numClippedTriangles);
+        if ( numClippedTriangles > 0 ) {
+            queue.add(triangleClipped1);
+        }
+        if ( numClippedTriangles > 1 ) {
+            queue.add(triangleClipped2);
+        }
+    }
+
+    /**
+     * This method clips all the projected and sorted triangles to fit inside the screen.
+     * Really important, reduce the cost of drawing giant triangles, absolutely necessary.
+     *
+     * With the guard band clipping, the triangles completely outside the screen are discarded,
+     * and the triangles inside the guard band are drawn as they are: the rasterizer only
+     * draws the pixels inside the screen. Only the triangles which go beyond the guard band
+     * are clipped, against the guard band borders.
+     * Without it, every triangle which is not inside the screen is clipped against the screen borders.
+     * @param width width screen
+     * @param height height screen
+     * @param triangles the triangles that are going to be chopped
+     * @return return a queue with all triangles clipped
+     */
+    private ArrayList<Triangle> rasterizeTriangles(ArrayList<Triangle> triangles, int width, int height) {
+        FrameStats stats = getCurrentFrameStats();
+        finalTriangles.clear();
+        ArrayDeque<Triangle> queue = trianglesOutsideScreenQueue;
+        queue.clear();
+        Triangle triangleToTest;
+
+        Vec4df[] planePoints = guardBandClipping ? guardBandPoints : borderPoints;
+        Vec4df[] planeNormals = guardBandClipping ? guardBandNormals : borderNormals;
+        float minX = guardBandClipping ? guardBandPoints[2].getX() : 0.0f;
+        float minY = guardBandClipping ? guardBandPoints[0].getY() : 0.0f;
+        float maxX = guardBandClipping ? guardBandPoints[3].getX() : width;
+        float maxY = guardBandClipping ? guardBandPoints[1].getY() : height;
+
+        for ( int t = 0; t < triangles.size(); t++ ) {
+            Triangle triangle = triangles.get(t);
+            if ( guardBandClipping && isOutsideScreen(triangle, width, height) ) {
+                if ( stats != null ) {
+                    stats.numTrianglesCulled++;
+                }
+                continue;
+            }
+            if ( isInsideRectangle(triangle, minX, minY, maxX, maxY) ) {
+                finalTriangles.add(triangle);
+            } else {
+                int first = finalTriangles.size();
+                queue.add(triangle);
+                int numNewTriangles = queue.size();
+
+                for ( int i = 0; i < 4; i++ ) {
+                    while ( numNewTriangles > 0 ) {
+                        triangleToTest = queue.remove();
+                        numNewTriangles--;
+
+                        if ( isInsideRectangle(triangleToTest, minX, minY, maxX, maxY) ) {
+                            finalTriangles.add(triangleToTest);
+                        } else {
+                            clipTriangleAgainstBorder(triangleToTest, planePoints[i], planeNormals[i], queue);
+                        }
+
+                    }
+                    numNewTriangles = queue.size();
+                }
+
+                while ( !queue.isEmpty() ) {
+                    finalTriangles.add(queue.remove());
+                }
+
+                if ( stats != null ) {
+                    countClippedTriangles(stats, finalTriangles.size() - first, true);
+                }
+            }
+        }
+
+        numTrianglesDrawn = finalTriangles.size();
+        if ( stats != null ) {
+            stats.numTrianglesDrawn += numTrianglesDrawn;
+        }
+
+        return finalTriangles;
+    }
+
+    /**
+     * This method combines the view and projection matrices for the HOMOGENEOUS clip mode.
+     * They are combined in every render call, because both can be changed at any moment
+     */
+    private void updateMatViewProjection() {
+        if ( clipMode == ClipMode.HOMOGENEOUS ) {
+            MatrixMath.matrixMultiplyMatrix(matView, matProjection, matViewProjection);
+        }
+    }
+
+    /**
+     * This method says if a bounding volume can be seen. The frustum planes are
+     * extracted from the world, view and projection matrices combined, so they are
+     * in the space of the mesh and its bounding volume is tested as it is.
+     * The far plane is only tested in the HOMOGENEOUS clip mode, because the
+     * VIEW_SPACE mode doesn't clip against it
+     * @param bounds the bounding volume of the mesh
+     * @return false if the mesh is completely outside the view frustum
+     */
+    private boolean isVisible(BoundingVolume bounds) {
+        if ( !frustumCulling || meshInsideFrustum ) {
+            return true;
+        }
+        MatrixMath.matrixMultiplyMatrix(worldMatrix, matView, matWorldView);
+        MatrixMath.matrixMultiplyMatrix(matWorldView, matProjection, matWorldViewProjection);
+        frustum.set(matWorldViewProjection);
+        frustum.setFarPlaneTest(clipMode == ClipMode.HOMOGENEOUS);
+        if ( frustum.isVisible(bounds) ) {
+            return true;
+        }
+        numMeshesCulled++;
+        if ( frameStatsEnabled ) {
+            currentFrameStats.numMeshesCulled++;
+        }
+        return false;
+    }
+
+    /**
+     * This method empties the lists of the previous call, for a mesh which is not drawn
+     * @return the empty list of triangles to render
+     */
+    private ArrayList<Triangle> cullMesh() {
+        arena.reset();
+        transformedTriangles.clear();
+        projectedTriangles.clear();
+        sortedTriangles.clear();
+        finalTriangles.clear();
+        numTrianglesDrawn = 0;
+        return finalTriangles;
+    }
+
+    /**
+     * This method runs the action for every number from 0 to count (excluded)
+     * on the pool, and waits until all of them have finished
+     * @param count the number of times the action is run
+     * @param action the action to run
+     */
+    private void runInParallel(int count, IntConsumer action) {
+        pool.invoke(new RangeTask(0, count, action));
+    }
+
+    /**
+     * This method makes sure there are enough chunks and gives back
+     * all their triangles to their arenas
+     * @param numChunks the number of chunks needed
+     */
+    private void prepareChunks(int numChunks) {
+        while ( chunks.size() < numChunks ) {
+            chunks.add(new GeometryChunk());
+        }
+        for ( int i = 0; i < numChunks; i++ ) {
+            chunks.get(i).reset();
+        }
+    }
+
+    /**
+     * This method concatenates the projected triangles of the chunks
+     * in the order of the chunks, so the result is the same as the serial one
+     * @param numChunks the number of chunks used
+     */
+    private void gatherChunks(int numChunks) {
+        for ( int i = 0; i < numChunks; i++ ) {
+            ArrayList<Triangle> chunkTriangles = chunks.get(i).projectedTriangles;
+            for ( int k = 0; k < chunkTriangles.size(); k++ ) {
+                projectedTriangles.add(chunkTriangles.get(k));
+            }
+            if ( frameStatsEnabled ) {
+                currentFrameStats.add(chunks.get(i).stats);
+            }
+        }
+    }
+
+    /**
+     * This method lights and projects the transformed triangles of a chunk
+     * @param chunk the chunk
+     * @param stats the statistics of the chunk, or null
+     * @param start the time when the stage started
+     */
+    private void projectChunk(GeometryChunk chunk, FrameStats stats, long start) {
+        lightTriangles(chunk.transformedTriangles, chunk.arena, chunk.litTriangles, stats);
+        start = stopTimer(stats, PipeLineStage.LIGHTING, start);
+        projectTriangles(chunk.litTriangles, chunk.arena, chunk.clipper, chunk.projectedTriangles, screenWidth, screenHeight, stats);
+        stopTimer(stats, PipeLineStage.PROJECTION, start);
+    }
+
+    /**
+     * This method generalizes all the calculations needed
+     * to get finally the triangles transformed, projected, sorted and rasterized
+     * (and some other transformations needed... see the videos about 3D engine of Javidx9)
+     * The intermediate triangles of the previous call are given back to the arenas,
+     * so the returned triangles are only valid until the next call
+     * @param mesh the mesh to render
+     * @return the triangles all transformed to get drawn on screen
+     */
+    private ArrayList<Triangle> getTrianglesToRender(Mesh mesh) {
+        if ( !isVisible(mesh.getBounds()) ) {
+            return cullMesh();
+        }
+        arena.reset();
+        transformedTriangles.clear();
+        litTriangles.clear();
+        projectedTriangles.clear();
+        updateMatViewProjection();
+        ArrayList<Triangle> tris = mesh.getTris();
+        int numTriangles = tris.size();
+        FrameStats stats = getCurrentFrameStats();
+        if ( stats != null ) {
+            stats.numTrianglesSubmitted += numTriangles;
+        }
+
+        if ( parallelGeometry && numTriangles > geometryChunkSize ) {
+            int numChunks = (numTriangles + geometryChunkSize - 1) / geometryChunkSize;
+            prepareChunks(numChunks);
+            runInParallel(numChunks, i -> {
+                GeometryChunk chunk = chunks.get(i);
+                FrameStats chunkStats = stats != null ? chunk.stats : null;
+                int from = i * geometryChunkSize;
+                int to = Math.min(numTriangles, from + geometryChunkSize);
+                long start = startTimer(chunkStats);
+                transformTriangles(tris, from, to, chunk.arena, chunk.transformedTriangles);
+                start = stopTimer(chunkStats, PipeLineStage.TRANSFORM, start);
+                projectChunk(chunk, chunkStats, start);
+            });
+            gatherChunks(numChunks);
+        } else {
+            long start = startTimer(stats);
+            transformTriangles(tris, 0, numTriangles, arena, transformedTriangles);
+            start = stopTimer(stats, PipeLineStage.TRANSFORM, start);
+            lightTriangles(transformedTriangles, arena, litTriangles, stats);
+            start = stopTimer(stats, PipeLineStage.LIGHTING, start);
+            projectTriangles(litTriangles, arena, clipper, projectedTriangles, screenWidth, screenHeight, stats);
+            stopTimer(stats, PipeLineStage.PROJECTION, start);
+        }
+
+        return sortAndRasterizeTriangles();
+    }
+
+    /**
+     * Same as the getTrianglesToRender, but the triangles are read
+     * from a packed mesh. Each unique vertex is transformed once, and then
+     * the triangles are assembled from the index buffer
+     * @param mesh the packed mesh to render
+     * @return the triangles all transformed to get drawn on screen
+     */
+    private ArrayList<Triangle> getTrianglesToRender(PackedMesh mesh) {
+        if ( !isVisible(mesh.getBounds()) ) {
+            return cullMesh();
+        }
+        arena.reset();
+        transformedTriangles.clear();
+        litTriangles.clear();
+        projectedTriangles.clear();
+        updateMatViewProjection();
+        ensureTransformedVerticesCapacity(mesh);
+        int numVertices = mesh.getNumVertices();
+        int numTriangles = mesh.getNumTriangles();
+        FrameStats stats = getCurrentFrameStats();
+        if ( stats != null ) {
+            stats.numTrianglesSubmitted += numTriangles;
+        }
+
+        if ( parallelGeometry && numTriangles > geometryChunkSize ) {
+            int numVertexChunks = (numVertices + geometryChunkSize - 1) / geometryChunkSize;
+            int numChunks = (numTriangles + geometryChunkSize - 1) / geometryChunkSize;
+            prepareChunks(Math.max(numVertexChunks, numChunks));
+            runInParallel(numVertexChunks, i -> {
+                FrameStats chunkStats = stats != null ? chunks.get(i).stats : null;
+                int from = i * geometryChunkSize;
+                long start = startTimer(chunkStats);
+                transformVertices(mesh, from, Math.min(numVertices, from + geometryChunkSize));
+                stopTimer(chunkStats, PipeLineStage.TRANSFORM, start);
+            });
+
+            runInParallel(numChunks, i -> {
+                GeometryChunk chunk = chunks.get(i);
+                FrameStats chunkStats = stats != null ? chunk.stats : null;
+                int from = i * geometryChunkSize;
+                int to = Math.min(numTriangles, from + geometryChunkSize);
+                long start = startTimer(chunkStats);
+                assembleTriangles(mesh, from, to, chunk.arena, chunk.transformedTriangles);
+                start = stopTimer(chunkStats, PipeLineStage.TRANSFORM, start);
+                projectChunk(chunk, chunkStats, start);
+            });
+            gatherChunks(Math.max(numVertexChunks, numChunks));
+        } else {
+            long start = startTimer(stats);
+            transformVertices(mesh, 0, numVertices);
+            assembleTriangles(mesh, 0, numTriangles, arena, transformedTriangles);
+            start = stopTimer(stats, PipeLineStage.TRANSFORM, start);
+            lightTriangles(transformedTriangles, arena, litTriangles, stats);
+            start = stopTimer(stats, PipeLineStage.LIGHTING, start);
+            projectTriangles(litTriangles, arena, clipper, projectedTriangles, screenWidth, screenHeight, stats);
+            stopTimer(stats, PipeLineStage.PROJECTION, start);
+        }
+
+        return sortAndRasterizeTriangles();
+    }
+
+    /**
+     * This method sorts and rasterizes the projected triangles
+     * @return the triangles all transformed to get drawn on screen
+     */
+    private ArrayList<Triangle> sortAndRasterizeTriangles() {
+        FrameStats stats = getCurrentFrameStats();
+        long start = startTimer(stats);
+
+        int[] order = sorter.sort(projectedTriangles);
+        sortedTriangles.clear();
+        for ( int i = 0; i < projectedTriangles.size(); i++ ) {
+            sortedTriangles.add(projectedTriangles.get(order[i]));
+        }
+        start = stopTimer(stats, PipeLineStage.SORT, start);
+
+        ArrayList<Triangle> triangles = rasterizeTriangles(sortedTriangles, screenWidth, screenHeight);
+        stopTimer(stats, PipeLineStage.CLIP, start);
+        return triangles;
+    }
+
+    /**
+     * This method gives the statistics of the frame which is being rendered
+     * @return the statistics, or null if they are not collected
+     */
+    private FrameStats getCurrentFrameStats() {
+        return frameStatsEnabled ? currentFrameStats : null;
+    }
+
+    /**
+     * This method gives the time when a stage starts
+     * @param stats the statistics, or null if they are not collected
+     * @return the current time in nanoseconds, or 0 if the statistics are not collected
+     */
+    private static long startTimer(FrameStats stats) {
+        return stats != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * This method adds to a stage the time since it started
+     * @param stats the statistics, or null if they are not collected
+     * @param stage the stage which has finished
+     * @param start the time when the stage started
+     * @return the current time, when the next stage starts
+     */
+    private static long stopTimer(FrameStats stats, PipeLineStage stage, long start) {
+        if ( stats == null ) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        stats.addNanos(stage, now - start);
+        return now;
+    }
+
+    /**
+     * This method renders the mesh
+     * @param mesh the mesh to render
+     * @param texture the texture of the mesh
+     */
+    public void renderMesh(Mesh mesh, Texture texture) {
+        renderMesh(mesh, texture, TextureFilter.NEAREST);
+    }
+
+    /**
+     * This method renders the mesh
+     * @param mesh the mesh to render
+     * @param texture the texture of the mesh
+     * @param filter how the texture is sampled
+     */
+    public void renderMesh(Mesh mesh, Texture texture, TextureFilter filter) {
+        renderMesh(mesh, texture, filter, TextureAddressMode.CLAMP);
+    }
+
+    /**
+     * This method renders the mesh
+     * @param mesh the mesh to render
+     * @param texture the texture of the mesh
+     * @param filter how the texture is sampled
+     * @param addressMode how the positions outside of the texture are sampled
+     */
+    public void renderMesh(Mesh mesh, Texture texture, TextureFilter filter, TextureAddressMode addressMode) {
+        ArrayList<Triangle> triangles = getTrianglesToRender(mesh);
+        long start = startTimer(getCurrentFrameStats());
+        renderer.renderTriangles(triangles, texture, filter, addressMode);
+        stopTimer(getCurrentFrameStats(), PipeLineStage.RASTER, start);
+    }
+
+    public void renderMesh(Mesh mesh, int color) {
+        ArrayList<Triangle> triangles = getTrianglesToRender(mesh);
+        long start = startTimer(getCurrentFrameStats());
+        renderer.renderTriangles(triangles, color);
+        stopTimer(getCurrentFrameStats(), PipeLineStage.RASTER, start);
+    }
+
+    public void renderMesh(Mesh mesh) {
+        ArrayList<Triangle> triangles = getTrianglesToRender(mesh);
+        long start = startTimer(getCurrentFrameStats());
+        renderer.renderTriangles(triangles);
+        stopTimer(getCurrentFrameStats(), PipeLineStage.RASTER, start);
+    }
+
+    /**
+     * This method renders the packed mesh
+     * @param mesh the packed mesh to render
+     * @param texture the texture of the mesh
+     */
+    public void renderMesh(PackedMesh mesh, Texture texture) {
+        renderMesh(mesh, texture, TextureFilter.NEAREST);
+    }
+
+    /**
+     * This method renders the packed mesh
+     * @param mesh the packed mesh to render
+     * @param texture the texture of the mesh
+     * @param filter how the texture is sampled
+     */
+    public void renderMesh(PackedMesh mesh, Texture texture, TextureFilter filter) {
+        renderMesh(mesh, texture, filter, TextureAddressMode.CLAMP);
+    }
+
+    /**
+     * This method renders the packed mesh
+     * @param mesh the packed mesh to render
+     * @param texture the texture of the mesh
+     * @param filter how the texture is sampled
+     * @param addressMode how the positions outside of the texture are sampled
+     */
+    public void renderMesh(PackedMesh mesh, Texture texture, TextureFilter filter, TextureAddressMode addressMode) {
+        ArrayList<Triangle> triangles = getTrianglesToRender(mesh);
+        long start = startTimer(getCurrentFrameStats());
+        renderer.renderTriangles(triangles, texture, filter, addressMode);
+        stopTimer(getCurrentFrameStats(), PipeLineStage.RASTER, start);
+    }
+
+    public void renderMesh(PackedMesh mesh, int color) {
+        ArrayList<Triangle> triangles = getTrianglesToRender(mesh);
+        long start = startTimer(getCurrentFrameStats());
+        renderer.renderTriangles(triangles, color);
+        stopTimer(getCurrentFrameStats(), PipeLineStage.RASTER, start);
+    }
+
+    public void renderMesh(PackedMesh mesh) {
+        ArrayList<Triangle> triangles = getTrianglesToRender(mesh);
+        long start = startTimer(getCurrentFrameStats());
+        renderer.renderTriangles(triangles);
+        stopTimer(getCurrentFrameStats(), PipeLineStage.RASTER, start);
+    }
+
+    /**
+     * This method renders a model, a model
+     * contains a mesh of a 3D object and the texture
+     * of the mesh
+     * @param model the 3D model
+     */
+    public void renderModel(Model model) {
+        for (MeshObject o : model.getObjects()) {
+            if (o.getMaterial() != null) {
+                if (o.getMaterial().getTexture() != null) {
+                    PackedMesh packedMesh = o.getPackedMesh();
+                    if (packedMesh != null) {
+                        renderMesh(packedMesh, o.getMaterial().getTexture(), o.getMaterial().getTextureFilter(),
+                                o.getMaterial().getTextureAddressMode());
+                    } else {
+                        renderMesh(o.getMesh(), o.getMaterial().getTexture(), o.getMaterial().getTextureFilter(),
+                                o.getMaterial().getTextureAddressMode());
+                    }
+                }
+            }
+        }
+    }
+
+    public void renderModel(Model model, int color) {
+        for (MeshObject o : model.getObjects()) {
+            PackedMesh packedMesh = o.getPackedMesh();
+            if (packedMesh != null) {
+                renderMesh(packedMesh, color);
+            } else {
+                renderMesh(o.getMesh(), color);
+            }
+        }
+    }
+
+    /**
+     * This method finds the objects of the scene inside the view frustum.
+     * The frustum planes are extracted from the view and projection matrices,
+     * so they are in world space, as the boxes of the scene
+     * @param scene the scene
+     * @return the visible objects. The list is reused by the next call
+     */
+    private ArrayList<SceneObject> getVisibleObjects(Scene scene) {
+        visibleObjects.clear();
+        if ( frustumCulling ) {
+            MatrixMath.matrixMultiplyMatrix(matView, matProjection, matWorldViewProjection);
+            frustum.set(matWorldViewProjection);
+            frustum.setFarPlaneTest(clipMode == ClipMode.HOMOGENEOUS);
+            scene.cull(frustum, visibleObjects);
+            numMeshesCulled += scene.getNumObjects() - visibleObjects.size();
+            if ( frameStatsEnabled ) {
+                currentFrameStats.numMeshesCulled += scene.getNumObjects() - visibleObjects.size();
+            }
+        } else {
+            visibleObjects.addAll(scene.getObjects());
+        }
+        return visibleObjects;
+    }
+
+    /**
+     * This method renders the objects of a scene which are inside the view frustum,
+     * each one with its own transform. As in renderModel, only the objects with
+     * a textured material are rendered. The transform of the pipeline is kept
+     * @param scene the scene
+     */
+    public void renderScene(Scene scene) {
+        Mat4x4 transform = worldMatrix;
+        // The objects found in the scene aren't tested again one by one
+        meshInsideFrustum = true;
+        try {
+            for ( SceneObject sceneObject : getVisibleObjects(scene) ) {
+                MeshObject o = sceneObject.getObject();
+                if ( o.getMaterial() != null && o.getMaterial().getTexture() != null ) {
+                    setTransform(sceneObject.getTransform());
+                    PackedMesh packedMesh = o.getPackedMesh();
+                    if ( packedMesh != null ) {
+                        renderMesh(packedMesh, o.getMaterial().getTexture(), o.getMaterial().getTextureFilter(),
+                                o.getMaterial().getTextureAddressMode());
+                    } else {
+                        renderMesh(o.getMesh(), o.getMaterial().getTexture(), o.getMaterial().getTextureFilter(),
+                                o.getMaterial().getTextureAddressMode());
+                    }
+                }
+            }
+        } finally {
+            meshInsideFrustum = false;
+            worldMatrix = transform;
+        }
+    }
+
+    public void renderScene(Scene scene, int color) {
+        Mat4x4 transform = worldMatrix;
+        meshInsideFrustum = true;
+        try {
+            for ( SceneObject sceneObject : getVisibleObjects(scene) ) {
+                MeshObject o = sceneObject.getObject();
+                setTransform(sceneObject.getTransform());
+                PackedMesh packedMesh = o.getPackedMesh();
+                if ( packedMesh != null ) {
+                    renderMesh(packedMesh, color);
+                } else {
+                    renderMesh(o.getMesh(), color);
+                }
+            }
+        } finally {
+            meshInsideFrustum = false;
+            worldMatrix = transform;
+        }
+    }
+
+    /**
+     * Call this method if the camera object has been modified
+     */
+    public void updateMatView() {
+        this.matView = cameraObj.getMatView();
+    }
+
+    /**
+     * This method must be call at the end of all rendering process
+     * If not, the colors and textures of the models will not be rendered well.
+     * With the visibility buffer shading mode, it also shades the textured triangles
+     * drawn since the last call
+     */
+    public void clearDepthBuffer() {
+        long start = startTimer(getCurrentFrameStats());
+        renderer.resolveVisibilityBuffer();
+        stopTimer(getCurrentFrameStats(), PipeLineStage.RASTER, start);
+        renderer.clearDepthBuffer();
+        finishFrame();
+    }
+
+    /**
+     * This method keeps the statistics of the frame which has just finished,
+     * and starts the statistics of the next one
+     */
+    private void finishFrame() {
+        if ( !frameStatsEnabled ) {
+            return;
+        }
+        currentFrameStats.numPixelsTested = renderer.getNumPixelsTested();
+        currentFrameStats.numPixelsRejected = renderer.getNumPixelsRejected();
+        currentFrameStats.numPixelsWritten = renderer.getNumPixelsWritten();
+        renderer.resetPixelCounters();
+        frameStats.set(currentFrameStats);
+        currentFrameStats.reset();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public PixelRenderer3D getRenderer3D() {
+        return renderer;
+    }
+
+    public int getNumTrianglesDrawn() {
+        return numTrianglesDrawn;
+    }
+
+    public Camera getCameraObj() {
+        return cameraObj;
+    }
+
+    public Mat4x4 getWorldMatrix() {
+        return worldMatrix;
+    }
+
+    public Perspective getPerspective() {
+        return perspective;
+    }
+
+    public LightSource getLightSource() {
+        return lightSource;
+    }
+
+    public void setCamera(Camera camera) {
+        this.cameraObj = camera;
+    }
+
+    public void setMatView(Mat4x4 matView) {
+        this.matView = matView;
+    }
+
+    public void setTransform(Mat4x4 transform) {
+        worldMatrix = transform;
+    }
+
+    public void setTransform(Transform transform) {
+        worldMatrix = transform.getMat();
+    }
+
+    public void setPerspective(Perspective perspective) {
+        this.perspective = perspective;
+        matProjection = buildProjectionMatrix(screenWidth, screenHeight);
+    }
+
+    public RenderFlags getRenderFlag() {
+        return renderer.getRenderFlag();
+    }
+
+    public void setRenderFlag(RenderFlags flag) {
+        renderer.setRenderFlag(flag);
+    }
+
+    public RasterizerType getRasterizerType() {
+        return renderer.getRasterizerType();
+    }
+
+    public void setRasterizerType(RasterizerType rasterizerType) {
+        renderer.setRasterizerType(rasterizerType);
+    }
+
+    public ShadingMode getShadingMode() {
+        return renderer.getShadingMode();
+    }
+
+    public void setShadingMode(ShadingMode shadingMode) {
+        renderer.setShadingMode(shadingMode);
+    }
+
+    /**
+     * This method sets the camera origin to the new origin pass as
+     * a parameter and reset the matView. This two operations are needed
+     * if is wanted to see a visible change in the final rendering.
+     * In this way, the inner working of the matView is encapsulate
+     * inside the pipeline class. Before, the user had to set
+     * the matView when the camera object is modified
+     * @param origin the new origin for the camera object
+     */
+    public void setCameraOrigin(Vec4df origin) {
+        cameraObj.setOrigin(origin);
+        setMatView(cameraObj.getMatView());
+    }
+
+    public void setLightSource(LightSource lightSource) {
+        this.lightSource = lightSource;
+    }
+
+    public ClipMode getClipMode() {
+        return clipMode;
+    }
+
+    public void setClipMode(ClipMode clipMode) {
+        this.clipMode = clipMode;
+    }
+
+    public boolean isFrustumCulling() {
+        return frustumCulling;
+    }
+
+    public void setFrustumCulling(boolean frustumCulling) {
+        this.frustumCulling = frustumCulling;
+    }
+
+    public int getNumMeshesCulled() {
+        return numMeshesCulled;
+    }
+
+    public boolean isFrameStatsEnabled() {
+        return frameStatsEnabled;
+    }
+
+    public void setFrameStatsEnabled(boolean frameStatsEnabled) {
+        this.frameStatsEnabled = frameStatsEnabled;
+        renderer.setPixelCounting(frameStatsEnabled);
+        renderer.resetPixelCounters();
+        currentFrameStats.reset();
+    }
+
+    /**
+     * The statistics of the last finished frame. A frame finishes when clearDepthBuffer is
+     * called. The object is reused by the next frame, it can be copied with the copy constructor
+     * @return the statistics of the last frame
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    public void resetNumMeshesCulled() {
+        numMeshesCulled = 0;
+    }
+
+    public boolean isGuardBandClipping() {
+        return guardBandClipping;
+    }
+
+    public void setGuardBandClipping(boolean guardBandClipping) {
+        this.guardBandClipping = guardBandClipping;
+    }
+
+    public float getGuardBand() {
+        return guardBand;
+    }
+
+    /**
+     * This method sets the size of the guard band beyond each border of the screen
+     * @param guardBand the size, as a fraction of the screen width and height. It can't be
+     *                  larger than getMaxGuardBand for the screen size, or the edge functions
+     *                  of the rasterizer would overflow. If the screen grows later, the band
+     *                  is limited to the maximum of the new size
+     */
+    public void setGuardBand(float guardBand) {
+        if ( guardBand < 0.0f ) {
+            throw new IllegalArgumentException("The guard band can't be negative");
+        }
+        if ( guardBand > getMaxGuardBand(screenWidth, screenHeight) ) {
+            throw new IllegalArgumentException("The guard band can't be larger than "
+                    + getMaxGuardBand(screenWidth, screenHeight) + " for a screen of "
+                    + screenWidth + "x" + screenHeight);
+        }
+        this.guardBand = guardBand;
+        buildBorderPlanes();
+    }
+
+    public boolean isParallelGeometry() {
+        return parallelGeometry;
+    }
+
+    public void setParallelGeometry(boolean parallelGeometry) {
+        this.parallelGeometry = parallelGeometry;
+    }
+
+    public int getGeometryChunkSize() {
+        return geometryChunkSize;
+    }
+
+    public void setGeometryChunkSize(int geometryChunkSize) {
+        if ( geometryChunkSize <= 0 ) {
+            throw new IllegalArgumentException("The geometry chunk size must be positive");
+        }
+        this.geometryChunkSize = geometryChunkSize;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,12 @@
+package org.render3d;
+
+public enum PipeLineStage {
+
+    TRANSFORM,
+    LIGHTING,
+    PROJECTION,
+    SORT,
+    CLIP,
+    RASTER
+
+}
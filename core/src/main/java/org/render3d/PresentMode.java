@@ -0,0 +1,8 @@
+package org.render3d;
+
+public enum PresentMode {
+
+    FIFO,
+    MAILBOX
+
+}
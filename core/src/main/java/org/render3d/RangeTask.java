@@ -0,0 +1,42 @@
+package org.render3d;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * This task runs an action for a range of numbers. It splits the range until
+ * there is only one number left, so the pool can balance the work
+ */
+public final class RangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+
+    private final int to;
+
+    private final IntConsumer action;
+
+    /**
+     * The constructor
+     * @param from the first number of the range
+     * @param to the number after the last one of the range
+     * @param action the action run for each number
+     */
+    public RangeTask(int from, int to, IntConsumer action) {
+        this.from = from;
+        this.to = to;
+        this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+        if ( to - from > 1 ) {
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, action), new RangeTask(middle, to, action));
+        } else if ( to > from ) {
+            action.accept(from);
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+package org.render3d;
+
+public enum ShadingMode {
+
+    FORWARD,
+    VISIBILITY_BUFFER
+
+}
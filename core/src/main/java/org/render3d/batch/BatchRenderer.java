@@ -0,0 +1,284 @@
+package org.render3d.batch;
+
+import org.render3d.PipeLine;
+import org.render3d.matrix.Mat4x4;
+import org.render3d.mesh.MeshObject;
+import org.render3d.mesh.Model;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class renders the same model from many poses at the same time, for example
+ * the frames of a turntable or a set of thumbnails.
+ *
+ * Each frame is rendered on the pool by its own pipeline. The pipelines are reused
+ * from one frame to the next, so there are never more pipelines than frames rendered
+ * at the same time. The model and its textures are only read, they are shared by
+ * all the pipelines.
+ *
+ * The frames are returned as a stream, in the order of the poses. Only a few frames
+ * are rendered ahead of the one which is being consumed, so the memory used doesn't
+ * grow with the number of poses.
+ */
+public class BatchRenderer {
+
+    /**
+     * The size of the frames
+     */
+    private final int width;
+
+    private final int height;
+
+    /**
+     * The pool where the frames are rendered
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * The maximum number of frames rendered ahead of the one which is being consumed.
+     * If 0, twice the parallelism of the pool
+     */
+    private int maxFramesInFlight = 0;
+
+    /**
+     * The color the frames are cleared with
+     */
+    private int background = 0xff000000;
+
+    /**
+     * The method which sets up every new pipeline: the render flag, the light source...
+     */
+    private Consumer<PipeLine> configuration = pipeLine -> { };
+
+    /**
+     * The pipelines which are not rendering any frame
+     */
+    private final ConcurrentLinkedQueue<PipeLine> idlePipeLines = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor
+     * @param width the width of the frames
+     * @param height the height of the frames
+     */
+    public BatchRenderer(int width, int height) {
+        if ( width <= 0 || height <= 0 ) {
+            throw new IllegalArgumentException("The size of the frames must be positive");
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * This method renders the textured objects of the model from every pose, as renderModel
+     * @param model the model
+     * @param poses the poses
+     * @return the frames, in the order of the poses
+     */
+    public Stream<Frame> render(Model model, List<RenderPose> poses) {
+        return render(model, poses, pipeLine -> pipeLine.renderModel(model));
+    }
+
+    /**
+     * This method renders all the objects of the model from every pose with a color
+     * @param model the model
+     * @param poses the poses
+     * @param color the color of the model
+     * @return the frames, in the order of the poses
+     */
+    public Stream<Frame> render(Model model, List<RenderPose> poses, int color) {
+        return render(model, poses, pipeLine -> pipeLine.renderModel(model, color));
+    }
+
+    /**
+     * This method creates the stream of the frames
+     * @param model the model
+     * @param poses the poses
+     * @param draw the method which draws the model with a pipeline
+     * @return the frames, in the order of the poses
+     */
+    private Stream<Frame> render(Model model, List<RenderPose> poses, Consumer<PipeLine> draw) {
+        // The bounds are calculated lazily, they are calculated here so the pipelines only read them
+        for ( MeshObject object : model.getObjects() ) {
+            object.getBounds();
+        }
+        int window = maxFramesInFlight > 0 ? maxFramesInFlight : pool.getParallelism() * 2;
+        FrameIterator frames = new FrameIterator(poses, draw, window);
+        Spliterator<Frame> spliterator = Spliterators.spliterator(frames, poses.size(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(frames::cancel);
+    }
+
+    /**
+     * This method renders one frame with an idle pipeline
+     * @param index the position of the pose
+     * @param pose the pose
+     * @param matView the view matrix of the camera of the pose
+     * @param draw the method which draws the model with a pipeline
+     * @return the frame
+     */
+    private Frame renderFrame(int index, RenderPose pose, Mat4x4 matView, Consumer<PipeLine> draw) {
+        PipeLine pipeLine = idlePipeLines.poll();
+        if ( pipeLine == null ) {
+            pipeLine = new PipeLine(width, height);
+            configuration.accept(pipeLine);
+        }
+        try {
+            pipeLine.setCamera(pose.getCamera());
+            pipeLine.setMatView(matView);
+            pipeLine.setTransform(pose.getTransform());
+            pipeLine.getRenderer3D().clear(background);
+            draw.accept(pipeLine);
+            pipeLine.clearDepthBuffer();
+            return new Frame(index, pose, pipeLine.getRenderer3D().getP().clone(), width, height);
+        } finally {
+            idlePipeLines.add(pipeLine);
+        }
+    }
+
+    /**
+     * This class submits the frames to the pool and gives them back in order. It keeps
+     * a fixed number of frames submitted ahead of the next one to return. It is only used
+     * by the thread which consumes the stream, so it doesn't need synchronization
+     */
+    private final class FrameIterator implements Iterator<Frame> {
+
+        private final List<RenderPose> poses;
+
+        private final Consumer<PipeLine> draw;
+
+        private final int window;
+
+        /**
+         * The frames submitted and not returned yet, in order
+         */
+        private final ArrayDeque<CompletableFuture<Frame>> pending = new ArrayDeque<>();
+
+        /**
+         * The position of the next pose to submit
+         */
+        private int next = 0;
+
+        private FrameIterator(List<RenderPose> poses, Consumer<PipeLine> draw, int window) {
+            this.poses = poses;
+            this.draw = draw;
+            this.window = Math.max(1, window);
+        }
+
+        /**
+         * This method submits poses until the window is full. The view matrix is
+         * calculated here, in only one thread, because it modifies the camera
+         */
+        private void fill() {
+            while ( pending.size() < window && next < poses.size() ) {
+                int index = next++;
+                RenderPose pose = poses.get(index);
+                Mat4x4 matView = pose.getCamera().getMatView();
+                pending.add(CompletableFuture.supplyAsync(() -> renderFrame(index, pose, matView, draw), pool));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Frame next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            CompletableFuture<Frame> frame = pending.remove();
+            fill();
+            try {
+                return frame.join();
+            } catch ( CompletionException e ) {
+                cancel();
+                if ( e.getCause() instanceof RuntimeException ) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * This method cancels the frames which have not started yet,
+         * when the stream is closed before all the frames are consumed
+         */
+        private void cancel() {
+            for ( CompletableFuture<Frame> frame : pending ) {
+                frame.cancel(false);
+            }
+            pending.clear();
+            next = poses.size();
+        }
+
+    }
+
+    // --------------
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getMaxFramesInFlight() {
+        return maxFramesInFlight;
+    }
+
+    public void setMaxFramesInFlight(int maxFramesInFlight) {
+        if ( maxFramesInFlight < 0 ) {
+            throw new IllegalArgumentException("The maximum number of frames in flight can't be negative");
+        }
+        this.maxFramesInFlight = maxFramesInFlight;
+    }
+
+    public int getBackground() {
+        return background;
+    }
+
+    public void setBackground(int background) {
+        this.background = background;
+    }
+
+    public Consumer<PipeLine> getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * The configuration is only applied to the new pipelines, so the pipelines
+     * created with the previous one are discarded
+     * @param configuration the method which sets up every new pipeline
+     */
+    public void setConfiguration(Consumer<PipeLine> configuration) {
+        if ( configuration == null ) {
+            throw new IllegalArgumentException("The configuration can't be null");
+        }
+        this.configuration = configuration;
+        idlePipeLines.clear();
+    }
+
+}
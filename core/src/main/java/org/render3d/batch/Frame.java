@@ -0,0 +1,70 @@
+package org.render3d.batch;
+
+/**
+ * This class represents a frame rendered by a batch: the pixels of the image,
+ * in the same format as the pixel array of the renderer, and the pose it was
+ * rendered from. The pixel array belongs to the frame, it isn't reused.
+ */
+public class Frame {
+
+    /**
+     * The position of the pose in the list of the batch
+     */
+    private final int index;
+
+    /**
+     * The pose of the frame
+     */
+    private final RenderPose pose;
+
+    /**
+     * The pixels of the image
+     */
+    private final int[] p;
+
+    /**
+     * The size of the image
+     */
+    private final int w;
+
+    private final int h;
+
+    /**
+     * Constructor
+     * @param index the position of the pose in the list of the batch
+     * @param pose the pose of the frame
+     * @param p the pixels of the image
+     * @param w the width of the image
+     * @param h the height of the image
+     */
+    Frame(int index, RenderPose pose, int[] p, int w, int h) {
+        this.index = index;
+        this.pose = pose;
+        this.p = p;
+        this.w = w;
+        this.h = h;
+    }
+
+    // --------------
+
+    public int getIndex() {
+        return index;
+    }
+
+    public RenderPose getPose() {
+        return pose;
+    }
+
+    public int[] getP() {
+        return p;
+    }
+
+    public int getW() {
+        return w;
+    }
+
+    public int getH() {
+        return h;
+    }
+
+}
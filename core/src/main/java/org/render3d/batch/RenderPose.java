@@ -0,0 +1,49 @@
+package org.render3d.batch;
+
+import org.render3d.Camera;
+import org.render3d.transforms.Transform;
+
+/**
+ * This class represents the state of one frame of a batch: the camera which
+ * looks at the model and the world transform of the model.
+ *
+ * The same camera and the same transform can be used by several poses. Their
+ * matrices are read while the frames are being rendered, so they must not be
+ * modified until the batch has finished.
+ */
+public class RenderPose {
+
+    /**
+     * The camera of the frame
+     */
+    private final Camera camera;
+
+    /**
+     * The world transform of the model
+     */
+    private final Transform transform;
+
+    /**
+     * Constructor
+     * @param camera the camera of the frame
+     * @param transform the world transform of the model
+     */
+    public RenderPose(Camera camera, Transform transform) {
+        if ( camera == null || transform == null ) {
+            throw new IllegalArgumentException("The camera and the transform can't be null");
+        }
+        this.camera = camera;
+        this.transform = transform;
+    }
+
+    // --------------
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    public Transform getTransform() {
+        return transform;
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.render3d.image;
+
+import org.render3d.batch.Frame;
+import org.render3d.render.PixelRenderer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is the base of the writers which save the pixel array of a renderer
+ * (one int per pixel, ARGB) in an image format. The pixels are converted into a
+ * direct byte buffer, which is reused by all the images written, and the buffer is
+ * written to a channel, so no intermediate image or array is created.
+ *
+ * A writer must only be used by one thread.
+ */
+public abstract class ImageWriter {
+
+    /**
+     * The default size of the buffer
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The buffer where the bytes are written before they are sent to the channel
+     */
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+
+    /**
+     * This method writes an image to a channel
+     * @param p the pixels of the image, ARGB
+     * @param w the width of the image
+     * @param h the height of the image
+     * @param channel the channel, which is not closed
+     * @throws IOException if the channel can't be written
+     */
+    public abstract void write(int[] p, int w, int h, WritableByteChannel channel) throws IOException;
+
+    /**
+     * This method writes an image to a file. The file is created or replaced
+     * @param p the pixels of the image, ARGB
+     * @param w the width of the image
+     * @param h the height of the image
+     * @param path the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public void write(int[] p, int w, int h, Path path) throws IOException {
+        try ( FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE) ) {
+            write(p, w, h, channel);
+        }
+    }
+
+    /**
+     * This method writes the image drawn by a renderer to a file
+     * @param renderer the renderer
+     * @param path the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public void write(PixelRenderer renderer, Path path) throws IOException {
+        write(renderer.getP(), renderer.getW(), renderer.getH(), path);
+    }
+
+    /**
+     * This method writes a frame of a batch render to a file
+     * @param frame the frame
+     * @param path the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public void write(Frame frame, Path path) throws IOException {
+        write(frame.getP(), frame.getW(), frame.getH(), path);
+    }
+
+    /**
+     * This method checks the size of the image
+     * @param p the pixels of the image
+     * @param w the width of the image
+     * @param h the height of the image
+     */
+    protected static void checkSize(int[] p, int w, int h) {
+        if ( w <= 0 || h <= 0 ) {
+            throw new IllegalArgumentException("The size of the image must be positive");
+        }
+        if ( p.length < w * h ) {
+            throw new IllegalArgumentException("The pixel array is smaller than " + w + "x" + h);
+        }
+    }
+
+    /**
+     * This method gives the buffer, empty and with the byte order big endian
+     * @param capacity the minimum capacity
+     * @return the buffer
+     */
+    protected ByteBuffer getBuffer(int capacity) {
+        if ( buffer.capacity() < capacity ) {
+            buffer = ByteBuffer.allocateDirect(Math.max(capacity, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * This method writes all the bytes of the buffer, from the start to
+     * its position, to the channel, and empties the buffer
+     * @param buffer the buffer
+     * @param channel the channel
+     * @throws IOException if the channel can't be written
+     */
+    protected static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while ( buffer.hasRemaining() ) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * This method writes the pixels as bytes, in rows, three (RGB) or four
+     * (RGBA) bytes per pixel. The buffer is sent to the channel when it is full
+     * @param p the pixels of the image, ARGB
+     * @param w the width of the image
+     * @param h the height of the image
+     * @param alpha if true, the alpha channel is written after the blue one
+     * @param buffer the buffer, which can have a header
+     * @param channel the channel
+     * @throws IOException if the channel can't be written
+     */
+    protected static void writeBytes(int[] p, int w, int h, boolean alpha,
+                                     ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        int bytesPerPixel = alpha ? 4 : 3;
+        int n = w * h;
+        for ( int i = 0; i < n; i++ ) {
+            if ( buffer.remaining() < bytesPerPixel ) {
+                flush(buffer, channel);
+            }
+            int pixel = p[i];
+            if ( alpha ) {
+                // RGBA is ARGB rotated one byte to the left
+                buffer.putInt((pixel << 8) | (pixel >>> 24));
+            } else {
+                buffer.put((byte) (pixel >> 16));
+                buffer.put((byte) (pixel >> 8));
+                buffer.put((byte) pixel);
+            }
+        }
+        flush(buffer, channel);
+    }
+
+}
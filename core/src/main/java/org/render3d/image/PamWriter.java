@@ -0,0 +1,23 @@
+package org.render3d.image;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes the images in the PAM format (P7) with the RGB_ALPHA tuple
+ * type: a text header and four bytes per pixel, red, green, blue and alpha.
+ */
+public class PamWriter extends ImageWriter {
+
+    @Override
+    public void write(int[] p, int w, int h, WritableByteChannel channel) throws IOException {
+        checkSize(p, w, h);
+        ByteBuffer buffer = getBuffer(DEFAULT_BUFFER_SIZE);
+        String header = "P7\nWIDTH " + w + "\nHEIGHT " + h + "\nDEPTH 4\nMAXVAL 255\nTUPLTYPE RGB_ALPHA\nENDHDR\n";
+        buffer.put(header.getBytes(StandardCharsets.US_ASCII));
+        writeBytes(p, w, h, true, buffer, channel);
+    }
+
+}
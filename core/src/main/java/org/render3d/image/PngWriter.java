@@ -0,0 +1,448 @@
+package org.render3d.image;
+
+import org.render3d.RangeTask;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * This class writes the images in the PNG format, 8 bits per channel, RGB or RGBA.
+ *
+ * The image is divided in strips of rows, which are filtered and compressed in
+ * parallel on a pool. Each strip is compressed as raw deflate blocks ending with a
+ * sync flush, using the end of the previous strip as dictionary, so the strips can be
+ * concatenated in a single zlib stream and the compression is almost the same as
+ * compressing the whole image at once. Each strip is written as an IDAT chunk.
+ *
+ * The filter of each row is chosen with the minimum sum of absolute differences heuristic.
+ */
+public class PngWriter extends ImageWriter {
+
+    /**
+     * The signature at the start of all the PNG files
+     */
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+
+    private static final int IHDR = 0x49484452;
+
+    private static final int IDAT = 0x49444154;
+
+    private static final int IEND = 0x49454E44;
+
+    /**
+     * The size of the deflate window, and of the dictionary of each strip
+     */
+    private static final int WINDOW_SIZE = 32768;
+
+    /**
+     * The number of filtered bytes of each strip, when the number of rows isn't set
+     */
+    private static final int STRIP_SIZE = 1 << 17;
+
+    private static final int ADLER_BASE = 65521;
+
+    /**
+     * The pool where the strips are filtered and compressed
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * The compression level, from 0 to 9. The higher levels compress a little more,
+     * but they are much slower
+     */
+    private int compressionLevel = 4;
+
+    /**
+     * The number of rows of each strip. If it is 0, it depends on the width of the image
+     */
+    private int rowsPerStrip = 0;
+
+    /**
+     * If it is true, the alpha channel is written
+     */
+    private boolean alpha = false;
+
+    /**
+     * The filtered rows of the last image, reused by the next ones
+     */
+    private byte[] filtered = new byte[0];
+
+    @Override
+    public void write(int[] p, int w, int h, WritableByteChannel channel) throws IOException {
+        checkSize(p, w, h);
+        int bytesPerPixel = alpha ? 4 : 3;
+        int rowSize = 1 + w * bytesPerPixel;
+        if ( (long) rowSize * h > Integer.MAX_VALUE ) {
+            throw new IllegalArgumentException("The image is too big: " + w + "x" + h);
+        }
+        if ( filtered.length < rowSize * h ) {
+            filtered = new byte[rowSize * h];
+        }
+        int stripRows = rowsPerStrip > 0 ? rowsPerStrip : Math.max(1, STRIP_SIZE / rowSize);
+        Strip[] strips = new Strip[(h + stripRows - 1) / stripRows];
+        for ( int i = 0; i < strips.length; i++ ) {
+            int from = i * stripRows;
+            strips[i] = new Strip(from * rowSize, (Math.min(h, from + stripRows) - from) * rowSize,
+                    i == 0, i == strips.length - 1);
+        }
+        // the filters of a strip need the last row of the previous one, so all
+        // the rows are filtered before the compression starts
+        pool.invoke(new RangeTask(0, strips.length, i -> filterRows(p, w, h, i * stripRows, stripRows, rowSize)));
+        pool.invoke(new RangeTask(0, strips.length, i -> compress(strips[i])));
+
+        ByteBuffer buffer = getBuffer(DEFAULT_BUFFER_SIZE);
+        buffer.put(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, w);
+        putInt(header, 4, h);
+        header[8] = 8;
+        header[9] = (byte) (alpha ? 6 : 2);
+        writeChunk(IHDR, header, header.length, buffer, channel);
+        long adler = 1;
+        for ( Strip strip : strips ) {
+            adler = combineAdler(adler, strip.adler, strip.length);
+        }
+        Strip last = strips[strips.length - 1];
+        putInt(last.data, last.dataLength - 4, (int) adler);
+        for ( Strip strip : strips ) {
+            writeChunk(IDAT, strip.data, strip.dataLength, buffer, channel);
+        }
+        writeChunk(IEND, header, 0, buffer, channel);
+        flush(buffer, channel);
+    }
+
+    /**
+     * This method filters some rows of the image
+     * @param p the pixels of the image
+     * @param w the width of the image
+     * @param h the height of the image
+     * @param from the first row
+     * @param count the number of rows
+     * @param rowSize the size of a filtered row, with the filter type
+     */
+    private void filterRows(int[] p, int w, int h, int from, int count, int rowSize) {
+        int bpp = alpha ? 4 : 3;
+        int n = rowSize - 1;
+        byte[] previous = new byte[n];
+        byte[] current = new byte[n];
+        byte[][] candidates = new byte[5][n];
+        if ( from > 0 ) {
+            readRow(p, w, from - 1, previous);
+        }
+        int to = Math.min(h, from + count);
+        for ( int y = from; y < to; y++ ) {
+            readRow(p, w, y, current);
+            int best = 0;
+            int bestSum = Integer.MAX_VALUE;
+            for ( int filter = 0; filter < 5; filter++ ) {
+                int sum = filterRow(filter, current, previous, candidates[filter], bpp, bestSum);
+                if ( sum < bestSum ) {
+                    bestSum = sum;
+                    best = filter;
+                }
+            }
+            int offset = y * rowSize;
+            filtered[offset] = (byte) best;
+            System.arraycopy(candidates[best], 0, filtered, offset + 1, n);
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+    }
+
+    /**
+     * This method converts a row of the image to bytes, RGB or RGBA
+     * @param p the pixels of the image
+     * @param w the width of the image
+     * @param y the row
+     * @param row the bytes
+     */
+    private void readRow(int[] p, int w, int y, byte[] row) {
+        int i = 0;
+        for ( int x = y * w, end = x + w; x < end; x++ ) {
+            int pixel = p[x];
+            row[i++] = (byte) (pixel >> 16);
+            row[i++] = (byte) (pixel >> 8);
+            row[i++] = (byte) pixel;
+            if ( alpha ) {
+                row[i++] = (byte) (pixel >>> 24);
+            }
+        }
+    }
+
+    /**
+     * This method applies a filter to a row, and gives the sum of the absolute values of
+     * the filtered bytes. It stops when the sum reaches a limit, because then the filter
+     * isn't going to be chosen
+     * @param filter the filter type: none, sub, up, average or paeth
+     * @param current the row
+     * @param previous the previous row, or zeros for the first one
+     * @param out the filtered row
+     * @param bpp the number of bytes per pixel
+     * @param limit the sum of the best filter found
+     * @return the sum of the filtered bytes, or the limit
+     */
+    private static int filterRow(int filter, byte[] current, byte[] previous, byte[] out, int bpp, int limit) {
+        int n = current.length;
+        int sum = 0;
+        switch ( filter ) {
+            case 0:
+                for ( int i = 0; i < n; i++ ) {
+                    out[i] = current[i];
+                    sum += Math.abs(current[i]);
+                }
+                return sum;
+            case 1:
+                for ( int i = 0; i < bpp; i++ ) {
+                    out[i] = current[i];
+                    sum += Math.abs(current[i]);
+                }
+                for ( int i = bpp; i < n && sum < limit; i++ ) {
+                    byte value = (byte) (current[i] - current[i - bpp]);
+                    out[i] = value;
+                    sum += Math.abs(value);
+                }
+                return Math.min(sum, limit);
+            case 2:
+                for ( int i = 0; i < n && sum < limit; i++ ) {
+                    byte value = (byte) (current[i] - previous[i]);
+                    out[i] = value;
+                    sum += Math.abs(value);
+                }
+                return Math.min(sum, limit);
+            case 3:
+                for ( int i = 0; i < bpp; i++ ) {
+                    byte value = (byte) (current[i] - ((previous[i] & 0xff) >>> 1));
+                    out[i] = value;
+                    sum += Math.abs(value);
+                }
+                for ( int i = bpp; i < n && sum < limit; i++ ) {
+                    byte value = (byte) (current[i] - (((current[i - bpp] & 0xff) + (previous[i] & 0xff)) >>> 1));
+                    out[i] = value;
+                    sum += Math.abs(value);
+                }
+                return Math.min(sum, limit);
+            default:
+                // the paeth predictor of the first pixel is the byte above
+                for ( int i = 0; i < bpp; i++ ) {
+                    byte value = (byte) (current[i] - previous[i]);
+                    out[i] = value;
+                    sum += Math.abs(value);
+                }
+                for ( int i = bpp; i < n && sum < limit; i++ ) {
+                    int a = current[i - bpp] & 0xff;
+                    int b = previous[i] & 0xff;
+                    int c = previous[i - bpp] & 0xff;
+                    int pa = Math.abs(b - c);
+                    int pb = Math.abs(a - c);
+                    int pc = Math.abs(a + b - c - c);
+                    int predictor = pa <= pb && pa <= pc ? a : pb <= pc ? b : c;
+                    byte value = (byte) (current[i] - predictor);
+                    out[i] = value;
+                    sum += Math.abs(value);
+                }
+                return Math.min(sum, limit);
+        }
+    }
+
+    /**
+     * This method compresses a strip of the filtered rows. The first strip has the
+     * zlib header and the last one has space for the checksum of the stream
+     * @param strip the strip
+     */
+    private void compress(Strip strip) {
+        Adler32 adler = new Adler32();
+        adler.update(filtered, strip.offset, strip.length);
+        strip.adler = adler.getValue();
+
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            int dictionary = Math.min(WINDOW_SIZE, strip.offset);
+            if ( dictionary > 0 ) {
+                deflater.setDictionary(filtered, strip.offset - dictionary, dictionary);
+            }
+            deflater.setInput(filtered, strip.offset, strip.length);
+            if ( strip.last ) {
+                deflater.finish();
+            }
+            byte[] data = new byte[strip.length / 2 + 64];
+            int length = 0;
+            if ( strip.first ) {
+                int level = compressionLevel < 2 ? 0 : compressionLevel < 6 ? 1 : compressionLevel == 6 ? 2 : 3;
+                int header = (0x78 << 8) | (level << 6);
+                header += 31 - header % 31;
+                data[length++] = (byte) (header >> 8);
+                data[length++] = (byte) header;
+            }
+            while ( true ) {
+                if ( length == data.length ) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                int space = data.length - length;
+                int count = strip.last ? deflater.deflate(data, length, space)
+                        : deflater.deflate(data, length, space, Deflater.SYNC_FLUSH);
+                length += count;
+                // the output is complete when the deflater didn't fill the free space
+                if ( strip.last ? deflater.finished() : count < space ) {
+                    break;
+                }
+            }
+            if ( strip.last ) {
+                if ( data.length < length + 4 ) {
+                    data = Arrays.copyOf(data, length + 4);
+                }
+                length += 4;
+            }
+            strip.data = data;
+            strip.dataLength = length;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * This method gives the Adler-32 checksum of two consecutive blocks of bytes
+     * @param adler1 the checksum of the first block
+     * @param adler2 the checksum of the second block
+     * @param length2 the length of the second block
+     * @return the checksum of both blocks
+     */
+    private static long combineAdler(long adler1, long adler2, int length2) {
+        long remainder = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (remainder * sum1) % ADLER_BASE;
+        sum1 += (adler2 & 0xffff) + ADLER_BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + ADLER_BASE - remainder;
+        if ( sum1 >= ADLER_BASE ) {
+            sum1 -= ADLER_BASE;
+        }
+        if ( sum1 >= ADLER_BASE ) {
+            sum1 -= ADLER_BASE;
+        }
+        if ( sum2 >= (ADLER_BASE << 1) ) {
+            sum2 -= (ADLER_BASE << 1);
+        }
+        if ( sum2 >= ADLER_BASE ) {
+            sum2 -= ADLER_BASE;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    /**
+     * This method writes a chunk: its length, its type, its data and its CRC
+     * @param type the type of the chunk
+     * @param data the data of the chunk
+     * @param length the length of the data
+     * @param buffer the buffer
+     * @param channel the channel
+     * @throws IOException if the channel can't be written
+     */
+    private static void writeChunk(int type, byte[] data, int length, ByteBuffer buffer,
+                                   WritableByteChannel channel) throws IOException {
+        if ( buffer.remaining() < 8 ) {
+            flush(buffer, channel);
+        }
+        buffer.putInt(length);
+        buffer.putInt(type);
+        CRC32 crc = new CRC32();
+        crc.update(type >>> 24);
+        crc.update(type >>> 16);
+        crc.update(type >>> 8);
+        crc.update(type);
+        crc.update(data, 0, length);
+        for ( int i = 0; i < length; ) {
+            if ( !buffer.hasRemaining() ) {
+                flush(buffer, channel);
+            }
+            int count = Math.min(buffer.remaining(), length - i);
+            buffer.put(data, i, count);
+            i += count;
+        }
+        if ( buffer.remaining() < 4 ) {
+            flush(buffer, channel);
+        }
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private static void putInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    /**
+     * This class is a strip of rows, and its compressed data
+     */
+    private static final class Strip {
+
+        private final int offset;
+
+        private final int length;
+
+        private final boolean first;
+
+        private final boolean last;
+
+        private long adler;
+
+        private byte[] data;
+
+        private int dataLength;
+
+        private Strip(int offset, int length, boolean first, boolean last) {
+            this.offset = offset;
+            this.length = length;
+            this.first = first;
+            this.last = last;
+        }
+
+    }
+
+    // --------------
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        if ( compressionLevel < 0 || compressionLevel > 9 ) {
+            throw new IllegalArgumentException("The compression level must be between 0 and 9");
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getRowsPerStrip() {
+        return rowsPerStrip;
+    }
+
+    public void setRowsPerStrip(int rowsPerStrip) {
+        if ( rowsPerStrip < 0 ) {
+            throw new IllegalArgumentException("The number of rows per strip can't be negative");
+        }
+        this.rowsPerStrip = rowsPerStrip;
+    }
+
+    public boolean isAlpha() {
+        return alpha;
+    }
+
+    public void setAlpha(boolean alpha) {
+        this.alpha = alpha;
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.render3d.image;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes the images in the binary PPM format (P6): a text header
+ * and three bytes per pixel, red, green and blue. The alpha channel is lost.
+ */
+public class PpmWriter extends ImageWriter {
+
+    @Override
+    public void write(int[] p, int w, int h, WritableByteChannel channel) throws IOException {
+        checkSize(p, w, h);
+        ByteBuffer buffer = getBuffer(DEFAULT_BUFFER_SIZE);
+        buffer.put(("P6\n" + w + " " + h + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+        writeBytes(p, w, h, false, buffer, channel);
+    }
+
+}
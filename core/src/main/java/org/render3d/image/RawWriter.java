@@ -0,0 +1,51 @@
+package org.render3d.image;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class writes the pixels as they are in the pixel array, one ARGB int per pixel,
+ * without any header. With the big endian byte order (the default one) the bytes of
+ * each pixel are A, R, G and B; with the little endian one they are B, G, R and A.
+ */
+public class RawWriter extends ImageWriter {
+
+    /**
+     * The byte order of the ints
+     */
+    private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+
+    @Override
+    public void write(int[] p, int w, int h, WritableByteChannel channel) throws IOException {
+        checkSize(p, w, h);
+        ByteBuffer buffer = getBuffer(DEFAULT_BUFFER_SIZE);
+        buffer.order(byteOrder);
+        IntBuffer ints = buffer.asIntBuffer();
+        int n = w * h;
+        for ( int i = 0; i < n; ) {
+            int count = Math.min(ints.capacity(), n - i);
+            ints.clear();
+            ints.put(p, i, count);
+            buffer.position(count * 4);
+            flush(buffer, channel);
+            i += count;
+        }
+    }
+
+    // --------------
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    public void setByteOrder(ByteOrder byteOrder) {
+        if ( byteOrder == null ) {
+            throw new IllegalArgumentException("The byte order can't be null");
+        }
+        this.byteOrder = byteOrder;
+    }
+
+}
@@ -19,6 +19,17 @@ public class Material {
      */
     private Texture texture;
 
+    /**
+     * How the texture is sampled
+     */
+    private TextureFilter textureFilter = TextureFilter.NEAREST;
+
+    /**
+     * How the positions outside of the texture are sampled. It belongs to the material and
+     * not to the texture, because the cached textures are shared by several materials
+     */
+    private TextureAddressMode textureAddressMode = TextureAddressMode.CLAMP;
+
     // --- parametros que no conocemos su uso --- //
 
     /**
@@ -83,11 +94,12 @@ public class Material {
     }
 
     /**
-     * This method loads the image of the texture
+     * This method loads the image of the texture. The texture is taken from the
+     * default texture cache, so the materials with the same image share it
      */
     public void loadTexture() {
         if (imgName != null) {
-            texture = new Texture(imgName);
+            texture = TextureCache.getDefault().get(imgName);
         }
     }
 
@@ -134,8 +146,19 @@ public class Material {
     }
 
     public void setImgName(String imgName) {
+        setImgName(imgName, true);
+    }
+
+    /**
+     * @param imgName the name of the image
+     * @param load if the texture is loaded now. If not, it is loaded later by
+     *             {@link #loadTexture()} or given by {@link #setTexture(Texture)}
+     */
+    public void setImgName(String imgName, boolean load) {
         this.imgName = imgName;
-        loadTexture();
+        if ( load ) {
+            loadTexture();
+        }
     }
 
     public float getNs() {
@@ -210,4 +233,26 @@ public class Material {
         this.texture = texture;
     }
 
+    public TextureFilter getTextureFilter() {
+        return textureFilter;
+    }
+
+    public void setTextureFilter(TextureFilter textureFilter) {
+        if ( textureFilter == null ) {
+            throw new IllegalArgumentException("The texture filter can't be null");
+        }
+        this.textureFilter = textureFilter;
+    }
+
+    public TextureAddressMode getTextureAddressMode() {
+        return textureAddressMode;
+    }
+
+    public void setTextureAddressMode(TextureAddressMode textureAddressMode) {
+        if ( textureAddressMode == null ) {
+            throw new IllegalArgumentException("The texture address mode can't be null");
+        }
+        this.textureAddressMode = textureAddressMode;
+    }
+
 }
@@ -0,0 +1,685 @@
+package org.render3d.material;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+
+public class Texture {
+
+    /**
+     * The image width
+     */
+    protected int w;
+
+    /**
+     * The image height
+     */
+    protected int h;
+
+    /**
+     * The image pixel array, in the order given by the layout
+     */
+    protected int[] p;
+
+    /**
+     * The order of the pixels in the array
+     */
+    protected TextureLayout layout = TextureLayout.ROW_MAJOR;
+
+    /**
+     * The side of the tiles of the tiled layout
+     */
+    private static final int TILE_SIZE = 4;
+
+    /**
+     * The color sampled from an image without pixels, magenta as the renderer used
+     */
+    public static final int MISSING_TEXEL = 0xffff00ff;
+
+    /**
+     * The positions in pixels which fit in 16.16 fixed point
+     */
+    private static final float FIXED_POINT_RANGE = 32767.0f;
+
+    /**
+     * The number of tiles in a row of the image, in the tiled layout. It is
+     * computed again whenever the width changes
+     */
+    private int tilesX;
+
+    /**
+     * The width minus 1 if it is a power of two, to wrap the positions with a mask, or -1
+     */
+    private int wMask = -1;
+
+    /**
+     * The height minus 1 if it is a power of two, to wrap the positions with a mask, or -1
+     */
+    private int hMask = -1;
+
+    /**
+     * The base 2 logarithm of the width if it is a power of two, to find the period of
+     * a position with a shift, or -1
+     */
+    private int wShift = -1;
+
+    /**
+     * The base 2 logarithm of the height if it is a power of two, to find the period of
+     * a position with a shift, or -1
+     */
+    private int hShift = -1;
+
+    /**
+     * If the image has no pixels to sample, because its size is 0 or the array is
+     * missing or too short. Then every sample is MISSING_TEXEL
+     */
+    private boolean empty = true;
+
+    /**
+     * If the image has alpha
+     */
+    protected boolean alpha = false;
+
+    /**
+     * The mip levels of the image: each level is half the size of the previous one, down
+     * to 1x1, and the level 0 is this texture. It is null when the levels haven't been
+     * generated or the pixels have changed since then
+     */
+    private Texture[] mipLevels;
+
+    public Texture() {
+        w = 0;
+        h = 0;
+        p = new int[w * h];
+        updateMasks();
+    }
+
+    /**
+     * The constructor
+     *
+     * @param p the pixel array what conforms the image
+     * @param w width
+     * @param h height
+     */
+    public Texture(int[] p, int w, int h) {
+        this.w = w;
+        this.h = h;
+        this.p = p;
+        updateMasks();
+        generateMipmaps();
+    }
+
+    /**
+     * The constructor
+     *
+     * @param w width
+     * @param h height
+     */
+    public Texture(int w, int h) {
+        this.w = w;
+        this.h = h;
+        updateMasks();
+    }
+
+    /**
+     * The constructor. The image is decoded with ImageIO, so no
+     * graphic toolkit is needed
+     *
+     * @param path the URL of the image, or its path in the classpath or in the file system
+     */
+    public Texture(String path) {
+        set(path);
+    }
+
+    // Read pixels
+
+    /**
+     * This method opens the image as the JavaFX images did: first as an URL,
+     * then as a resource of the classpath and at last as a file
+     * @param path the URL of the image, or its path in the classpath or in the file system
+     * @return an input stream with the encoded image
+     * @throws IOException if the image can't be found
+     */
+    private static InputStream openImage(String path) throws IOException {
+        try {
+            return new URL(path).openStream();
+        } catch ( MalformedURLException e ) {
+            // Not an URL
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        InputStream resource = loader != null ? loader.getResourceAsStream(path.startsWith("/") ? path.substring(1) : path) : null;
+        if ( resource == null ) {
+            resource = Texture.class.getResourceAsStream(path);
+        }
+        return resource != null ? resource : new FileInputStream(path);
+    }
+
+    // Change the image for the texture
+
+    /**
+     * This method sets the pixels of a decoded image
+     * @param img the image
+     */
+    public void set(BufferedImage img) {
+        this.w = img.getWidth();
+        this.h = img.getHeight();
+        p = toLayout(img.getRGB(0, 0, w, h, null, 0, w));
+        updateMasks();
+        generateMipmaps();
+    }
+
+    /**
+     * This method reads and decodes an image
+     * @param path the URL of the image, or its path in the classpath or in the file system
+     * @throws IllegalArgumentException if the image can't be read
+     */
+    public void set(String path) {
+        BufferedImage img;
+        try ( InputStream in = openImage(path) ) {
+            img = ImageIO.read(in);
+        } catch ( IOException e ) {
+            throw new IllegalArgumentException("The image can't be read: " + path, e);
+        }
+        if ( img == null ) {
+            throw new IllegalArgumentException("The image format is not supported: " + path);
+        }
+        set(img);
+    }
+
+    // Mipmaps
+
+    /**
+     * This method generates the mip levels from the pixels of the image. Each texel of a
+     * level is the average of a block of 2x2 texels of the previous one. It is called when
+     * the image is loaded, and it has to be called again after the pixels are modified,
+     * because modifying them discards the levels
+     */
+    public void generateMipmaps() {
+        mipLevels = null;
+        if ( p == null || p.length < w * h || (w <= 1 && h <= 1) ) {
+            return;
+        }
+        ArrayList<Texture> levels = new ArrayList<>();
+        levels.add(this);
+        Texture level = this;
+        while ( level.w > 1 || level.h > 1 ) {
+            level = level.halve();
+            levels.add(level);
+        }
+        mipLevels = levels.toArray(new Texture[0]);
+    }
+
+    /**
+     * This method makes the next mip level of the image
+     * @return a texture with half the width and half the height
+     */
+    private Texture halve() {
+        Texture level = new Texture(Math.max(1, w / 2), Math.max(1, h / 2));
+        int[] pixels = new int[level.w * level.h];
+        for ( int y = 0; y < level.h; y++ ) {
+            int y0 = Math.min(2 * y, h - 1);
+            int y1 = Math.min(2 * y + 1, h - 1);
+            for ( int x = 0; x < level.w; x++ ) {
+                int x0 = Math.min(2 * x, w - 1);
+                int x1 = Math.min(2 * x + 1, w - 1);
+                pixels[y * level.w + x] = average(get(x0, y0), get(x1, y0), get(x0, y1), get(x1, y1));
+            }
+        }
+        level.alpha = alpha;
+        level.layout = layout;
+        level.p = level.toLayout(pixels);
+        level.updateMasks();
+        return level;
+    }
+
+    /**
+     * This method gives the average of four colors, channel by channel
+     */
+    private static int average(int c1, int c2, int c3, int c4) {
+        int color = 0;
+        for ( int shift = 0; shift < 32; shift += 8 ) {
+            int sum = ((c1 >>> shift) & 0xff) + ((c2 >>> shift) & 0xff)
+                    + ((c3 >>> shift) & 0xff) + ((c4 >>> shift) & 0xff);
+            color |= ((sum + 2) >> 2) << shift;
+        }
+        return color;
+    }
+
+    /**
+     * This method gives the number of mip levels, including the level 0
+     * @return the number of levels, or 1 if they haven't been generated
+     */
+    public int getNumMipLevels() {
+        return mipLevels == null ? 1 : mipLevels.length;
+    }
+
+    /**
+     * This method gives a mip level of the image
+     * @param level the level, from 0 to the number of levels minus 1
+     * @return the texture of the level. The level 0 is this texture
+     */
+    public Texture getMipLevel(int level) {
+        return mipLevels == null ? this : mipLevels[level];
+    }
+
+    /**
+     * This method gives the memory used by the pixels of the texture and its mip levels
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        long size = 0;
+        for ( int i = 0; i < getNumMipLevels(); i++ ) {
+            int[] pixels = getMipLevel(i).p;
+            size += pixels != null ? 4L * pixels.length : 0;
+        }
+        return size;
+    }
+
+    // Layout
+
+    /**
+     * This method gives the position of a pixel in the array. In the tiled layout the image
+     * is divided in tiles of 4x4 pixels, stored one after the other by rows of tiles, and
+     * the pixels of each tile are stored by rows. A tile fills a cache line of 64 bytes, so
+     * the pixels read along any direction of the image, not only along the rows, are usually
+     * in the same line as the previous ones
+     * @param x the X position of the pixel inside the image
+     * @param y the Y position of the pixel inside the image
+     * @return the index of the pixel in the array
+     */
+    protected final int index(int x, int y) {
+        if ( layout == TextureLayout.ROW_MAJOR ) {
+            return x + w * y;
+        }
+        return (((y >> 2) * tilesX + (x >> 2)) << 4) | ((y & 3) << 2) | (x & 3);
+    }
+
+    /**
+     * This method puts the pixels of an image in the order of the layout of the texture
+     * @param pixels the pixels by rows
+     * @return the array of pixels in the layout
+     */
+    private int[] toLayout(int[] pixels) {
+        if ( layout == TextureLayout.ROW_MAJOR || pixels == null ) {
+            return pixels;
+        }
+        tilesX = (w + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesY = (h + TILE_SIZE - 1) / TILE_SIZE;
+        int[] tiled = new int[tilesX * tilesY * TILE_SIZE * TILE_SIZE];
+        for ( int y = 0; y < h; y++ ) {
+            for ( int x = 0; x < w; x++ ) {
+                tiled[index(x, y)] = pixels[x + w * y];
+            }
+        }
+        return tiled;
+    }
+
+    /**
+     * This method gives the pixels of the image by rows, whatever the layout is
+     * @return the pixels by rows. In the row major layout, it is the array of the texture
+     */
+    public int[] getRowMajorPixels() {
+        if ( layout == TextureLayout.ROW_MAJOR || p == null ) {
+            return p;
+        }
+        int[] pixels = new int[w * h];
+        for ( int y = 0; y < h; y++ ) {
+            for ( int x = 0; x < w; x++ ) {
+                pixels[x + w * y] = p[index(x, y)];
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * This method changes the order of the pixels in the array. The pixels and the mip
+     * levels are rearranged, the image is the same
+     * @param layout the new layout
+     */
+    public void setLayout(TextureLayout layout) {
+        if ( layout == null ) {
+            throw new IllegalArgumentException("The layout can't be null");
+        }
+        if ( layout == this.layout ) {
+            return;
+        }
+        int[] pixels = getRowMajorPixels();
+        boolean mipmapped = mipLevels != null;
+        this.layout = layout;
+        p = toLayout(pixels);
+        updateMasks();
+        if ( mipmapped ) {
+            generateMipmaps();
+        }
+    }
+
+    public TextureLayout getLayout() {
+        return layout;
+    }
+
+    // Get Pixel & Get Sample
+
+    /**
+     * This method computes the masks and the shifts of the size of the image, so the
+     * address modes don't test the size on every sample, the number of tiles of a row
+     * of the tiled layout, and checks if there are pixels to sample. It is called
+     * whenever the size or the array of pixels changes
+     */
+    private void updateMasks() {
+        tilesX = (w + TILE_SIZE - 1) / TILE_SIZE;
+        long numTexels = layout == TextureLayout.ROW_MAJOR ? (long) w * h
+                : ((w + TILE_SIZE - 1L) / TILE_SIZE) * ((h + TILE_SIZE - 1L) / TILE_SIZE) * TILE_SIZE * TILE_SIZE;
+        empty = w <= 0 || h <= 0 || p == null || p.length < numTexels;
+        wShift = w > 0 && (w & (w - 1)) == 0 ? Integer.numberOfTrailingZeros(w) : -1;
+        hShift = h > 0 && (h & (h - 1)) == 0 ? Integer.numberOfTrailingZeros(h) : -1;
+        wMask = wShift >= 0 ? w - 1 : -1;
+        hMask = hShift >= 0 ? h - 1 : -1;
+    }
+
+    /**
+     * This method clamps a position to the image
+     * @param x the position, inside or outside of the image
+     * @param size the width or the height of the image
+     * @return the nearest position inside of the image
+     */
+    private static int clamp(int x, int size) {
+        return Math.max(0, Math.min(x, size - 1));
+    }
+
+    /**
+     * This method mirrors a position with a size which is a power of two. The odd
+     * periods are reversed, so the bits of the position inside of them are flipped
+     * @param x the position, inside or outside of the image
+     * @param mask the size minus 1
+     * @param shift the base 2 logarithm of the size
+     * @return a position inside of the image
+     */
+    private static int mirror(int x, int mask, int shift) {
+        return (x & mask) ^ (-((x >> shift) & 1) & mask);
+    }
+
+    /**
+     * This method mirrors a position with any size
+     * @param x the position, inside or outside of the image
+     * @param size the width or the height of the image
+     * @return a position inside of the image
+     */
+    private static int mirror(int x, int size) {
+        int m = Math.floorMod(x, 2 * size);
+        return m < size ? m : 2 * size - 1 - m;
+    }
+
+    /**
+     * This method rounds down a position, without the conversions of Math.floor
+     * @param x the position
+     * @return the greatest integer which is not greater than the position
+     */
+    private static int floor(float x) {
+        int i = (int) x;
+        return i > x ? i - 1 : i;
+    }
+
+    /**
+     * This method returns a pixel of the image. The positions outside of the image
+     * are clamped to its borders
+     *
+     * @param x the X position of the pixel
+     * @param y the Y position of the pixel
+     * @return a pixel of the image
+     */
+    public int getPixel(int x, int y) {
+        return getPixel(x, y, TextureAddressMode.CLAMP);
+    }
+
+    /**
+     * This method returns a pixel of the image. The positions outside of the image
+     * are mapped to it with the address mode. With sizes which are powers of two,
+     * the repeat and the mirror modes are computed with the masks. An image without
+     * pixels gives MISSING_TEXEL
+     *
+     * @param x the X position of the pixel
+     * @param y the Y position of the pixel
+     * @param addressMode how the positions outside of the image are mapped
+     * @return a pixel of the image
+     */
+    public int getPixel(int x, int y, TextureAddressMode addressMode) {
+        if ( empty ) {
+            return MISSING_TEXEL;
+        }
+        if ( addressMode == TextureAddressMode.CLAMP ) {
+            return p[index(clamp(x, w), clamp(y, h))];
+        }
+        if ( addressMode == TextureAddressMode.WRAP ) {
+            if ( (wMask | hMask) >= 0 ) {
+                return p[index(x & wMask, y & hMask)];
+            }
+            return p[index(Math.floorMod(x, w), Math.floorMod(y, h))];
+        }
+        if ( (wShift | hShift) >= 0 ) {
+            return p[index(mirror(x, wMask, wShift), mirror(y, hMask, hShift))];
+        }
+        return p[index(mirror(x, w), mirror(y, h))];
+    }
+
+    /**
+     * This method returns a sample (pixel) of the image: the pixel which contains the position.
+     * The positions outside of the image are clamped to its borders
+     * @param x the X position of the sample, from 0 to 1 inside of the image
+     * @param y the Y position of the sample, from 0 to 1 inside of the image
+     * @return a pixel of the image
+     */
+    public int getSample(float x, float y) {
+        return getSample(x, y, TextureAddressMode.CLAMP);
+    }
+
+    /**
+     * This method returns a sample (pixel) of the image: the pixel which contains the position
+     * @param x the X position of the sample, from 0 to 1 inside of the image
+     * @param y the Y position of the sample, from 0 to 1 inside of the image
+     * @param addressMode how the positions outside of the image are sampled
+     * @return a pixel of the image
+     */
+    public int getSample(float x, float y, TextureAddressMode addressMode) {
+        if ( empty ) {
+            return MISSING_TEXEL;
+        }
+        float u = x * w;
+        float v = y * h;
+        if ( addressMode == TextureAddressMode.CLAMP ) {
+            // Truncating is enough, the positions from -1 to 0 are clamped to 0 too
+            return p[index(Math.max(0, Math.min((int) u, w - 1)), Math.max(0, Math.min((int) v, h - 1)))];
+        }
+        return getPixel(floor(u), floor(v), addressMode);
+    }
+
+    /**
+     * This method returns a sample of the image filtered with the four nearest pixels.
+     * The positions outside of the image are clamped to its borders
+     * @param x the X position of the sample, from 0 to 1 inside of the image
+     * @param y the Y position of the sample, from 0 to 1 inside of the image
+     * @return the blend of the four nearest pixels
+     */
+    public int getBilinearSample(float x, float y) {
+        return getBilinearSample(x, y, TextureAddressMode.CLAMP);
+    }
+
+    /**
+     * This method returns a sample of the image filtered with the four nearest pixels.
+     * The position in pixels is converted to 16.16 fixed point. If it is too far away
+     * from the image for that, its integer part and its fraction are taken apart
+     * @param x the X position of the sample, from 0 to 1 inside of the image
+     * @param y the Y position of the sample, from 0 to 1 inside of the image
+     * @param addressMode how the positions outside of the image are sampled
+     * @return the blend of the four nearest pixels
+     */
+    public int getBilinearSample(float x, float y, TextureAddressMode addressMode) {
+        float u = x * w - 0.5f;
+        float v = y * h - 0.5f;
+        if ( Math.abs(u) < FIXED_POINT_RANGE && Math.abs(v) < FIXED_POINT_RANGE ) {
+            return getBilinearSample((int) (u * 65536.0f), (int) (v * 65536.0f), addressMode);
+        }
+        int u0 = floor(u);
+        int v0 = floor(v);
+        return getBilinearSample(u0, v0, (int) ((u - u0) * 256.0f + 0.5f), (int) ((v - v0) * 256.0f + 0.5f), addressMode);
+    }
+
+    /**
+     * This method returns a sample of the image filtered with the four nearest pixels.
+     * The positions outside of the image are clamped to its borders
+     * @param s the 16.16 fixed point X position of the sample, in pixels
+     * @param t the 16.16 fixed point Y position of the sample, in pixels
+     * @return the blend of the four nearest pixels
+     */
+    public int getBilinearSample(int s, int t) {
+        return getBilinearSample(s, t, TextureAddressMode.CLAMP);
+    }
+
+    /**
+     * This method returns a sample of the image filtered with the four nearest pixels.
+     * The pixel (x, y) has its center in (x << 16, y << 16), and the weights of the
+     * pixels are the fractional part rounded to 8 bits
+     * @param s the 16.16 fixed point X position of the sample, in pixels
+     * @param t the 16.16 fixed point Y position of the sample, in pixels
+     * @param addressMode how the positions outside of the image are sampled
+     * @return the blend of the four nearest pixels
+     */
+    public int getBilinearSample(int s, int t, TextureAddressMode addressMode) {
+        s += 0x80;
+        t += 0x80;
+        return getBilinearSample(s >> 16, t >> 16, (s >> 8) & 0xff, (t >> 8) & 0xff, addressMode);
+    }
+
+    /**
+     * This method blends the four pixels from (x, y) to (x + 1, y + 1). The pixels
+     * outside of the image are mapped to it with the address mode
+     * @param x the X position of the first pixel
+     * @param y the Y position of the first pixel
+     * @param fx the weight of the right pixels, from 0 to 256
+     * @param fy the weight of the bottom pixels, from 0 to 256
+     * @param addressMode how the positions outside of the image are mapped
+     * @return the blend of the four pixels
+     */
+    private int getBilinearSample(int x, int y, int fx, int fy, TextureAddressMode addressMode) {
+        if ( empty ) {
+            return MISSING_TEXEL;
+        }
+        if ( addressMode == TextureAddressMode.CLAMP ) {
+            return blend(clamp(x, w), clamp(y, h), clamp(x + 1, w), clamp(y + 1, h), fx, fy);
+        }
+        if ( addressMode == TextureAddressMode.WRAP ) {
+            if ( (wMask | hMask) >= 0 ) {
+                return blend(x & wMask, y & hMask, (x + 1) & wMask, (y + 1) & hMask, fx, fy);
+            }
+            return blend(Math.floorMod(x, w), Math.floorMod(y, h),
+                    Math.floorMod(x + 1, w), Math.floorMod(y + 1, h), fx, fy);
+        }
+        if ( (wShift | hShift) >= 0 ) {
+            return blend(mirror(x, wMask, wShift), mirror(y, hMask, hShift),
+                    mirror(x + 1, wMask, wShift), mirror(y + 1, hMask, hShift), fx, fy);
+        }
+        return blend(mirror(x, w), mirror(y, h), mirror(x + 1, w), mirror(y + 1, h), fx, fy);
+    }
+
+    /**
+     * This method blends four pixels of the image
+     * @param x0 the X position of the left pixels
+     * @param y0 the Y position of the top pixels
+     * @param x1 the X position of the right pixels
+     * @param y1 the Y position of the bottom pixels
+     * @param fx the weight of the right pixels, from 0 to 256
+     * @param fy the weight of the bottom pixels, from 0 to 256
+     * @return the blend of the four pixels
+     */
+    private int blend(int x0, int y0, int x1, int y1, int fx, int fy) {
+        long top = lerp(expand(p[index(x0, y0)]), expand(p[index(x1, y0)]), fx);
+        long bottom = lerp(expand(p[index(x0, y1)]), expand(p[index(x1, y1)]), fx);
+        long color = lerp(top, bottom, fy);
+        return (int) color | (int) (color >>> 24);
+    }
+
+    /**
+     * This method spreads the channels of a color in 16 bits lanes, so the four of them
+     * are blended with one multiplication: blue in the bits 0 to 15, red in the bits 16
+     * to 31, green in the bits 32 to 47 and alpha in the bits 48 to 63
+     * @param c the color
+     * @return the spread color
+     */
+    private static long expand(int c) {
+        return (c & 0xff00ffL) | ((c & 0xff00ff00L) << 24);
+    }
+
+    /**
+     * This method blends two spread colors, rounding to the nearest value
+     * @param c1 the first color
+     * @param c2 the second color
+     * @param f the weight of the second color, from 0 to 256
+     * @return the blended color, spread
+     */
+    private static long lerp(long c1, long c2, int f) {
+        return ((c1 * (256 - f) + c2 * f + 0x0080008000800080L) >>> 8) & 0x00ff00ff00ff00ffL;
+    }
+
+    // Getters & Setters
+
+    public int getW() {
+        return w;
+    }
+
+    public int getH() {
+        return h;
+    }
+
+    /**
+     * This method gives the array of pixels, in the order of the layout. Use
+     * getRowMajorPixels to read the pixels by rows in any layout
+     * @return the array of pixels
+     */
+    public int[] getP() {
+        return p;
+    }
+
+    public boolean isAlpha() {
+        return alpha;
+    }
+
+    public void setW(int w) {
+        this.w = w;
+        updateMasks();
+        mipLevels = null;
+    }
+
+    public void setH(int h) {
+        this.h = h;
+        updateMasks();
+        mipLevels = null;
+    }
+
+    /**
+     * This method sets the pixels of the image
+     * @param p the pixels by rows. In the tiled layout they are rearranged in a new array
+     */
+    public void setP(int[] p) {
+        this.p = toLayout(p);
+        updateMasks();
+        mipLevels = null;
+    }
+
+    public void set(int x, int y, int pixel) {
+        p[index(x, y)] = pixel;
+        mipLevels = null;
+    }
+
+    public int get(int x, int y) {
+        return p[index(x, y)];
+    }
+
+    public void setAlpha(boolean alpha) {
+        this.alpha = alpha;
+    }
+
+}
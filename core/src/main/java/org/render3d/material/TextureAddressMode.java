@@ -0,0 +1,9 @@
+package org.render3d.material;
+
+public enum TextureAddressMode {
+
+    WRAP,
+    CLAMP,
+    MIRROR
+
+}
@@ -0,0 +1,296 @@
+package org.render3d.material;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * This class keeps the textures loaded from images, so an image used by many materials
+ * is decoded only once. The textures are found by the path of the image, and two paths
+ * with the same pixels share the texture too.
+ *
+ * The cache counts the bytes of its textures, with their mip levels. When they exceed
+ * the budget, the textures used least recently are removed from the cache. A removed
+ * texture stays valid for the materials which use it, and it is released by the garbage
+ * collector when they are released. The size of a texture is measured when it is added,
+ * so the textures shouldn't be modified while they are in the cache. The same texture is
+ * shared by all the materials of its image, so how it is sampled (the filter and the address
+ * mode) is kept in each material, and the cached textures must not be reconfigured.
+ *
+ * The materials use the default cache, which is shared by the whole process. All the
+ * methods can be called from different threads. The images are decoded, hashed and compared
+ * out of the lock, and an image requested by several threads at the same time is decoded
+ * only once.
+ */
+public class TextureCache {
+
+    /**
+     * The default budget, in bytes
+     */
+    public static final long DEFAULT_BUDGET = 256L << 20;
+
+    private static final TextureCache DEFAULT = new TextureCache(DEFAULT_BUDGET);
+
+    /**
+     * The maximum number of bytes of the textures
+     */
+    private long budget;
+
+    /**
+     * The textures by path, from the least recently used to the most recently used
+     */
+    private final LinkedHashMap<String, Entry> byPath = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The textures by the hash of their pixels
+     */
+    private final Map<Integer, Entry> byContent = new HashMap<>();
+
+    /**
+     * The images which are being decoded, by path
+     */
+    private final Map<String, CompletableFuture<Texture>> loads = new HashMap<>();
+
+    private long sizeInBytes = 0;
+
+    private long numHits = 0;
+
+    private long numMisses = 0;
+
+    private long numEvictions = 0;
+
+    /**
+     * The constructor
+     * @param budget the maximum number of bytes of the textures
+     */
+    public TextureCache(long budget) {
+        setBudget(budget);
+    }
+
+    /**
+     * This method gives the cache shared by the whole process
+     * @return the default cache
+     */
+    public static TextureCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * This method gives the texture of an image. If the image isn't in the cache, it is
+     * read and decoded out of the lock, so other threads can use the cache meanwhile.
+     * The threads which ask for an image which is being decoded wait for that texture
+     * @param path the URL of the image, or its path in the classpath or in the file system
+     * @return the texture
+     * @throws IllegalArgumentException if the image can't be read
+     */
+    public Texture get(String path) {
+        CompletableFuture<Texture> load;
+        boolean decodes = false;
+        synchronized ( this ) {
+            Entry entry = byPath.get(path);
+            if ( entry != null ) {
+                numHits++;
+                return entry.texture;
+            }
+            load = loads.get(path);
+            if ( load == null ) {
+                numMisses++;
+                load = new CompletableFuture<>();
+                loads.put(path, load);
+                decodes = true;
+            } else {
+                numHits++;
+            }
+        }
+        if ( !decodes ) {
+            try {
+                return load.join();
+            } catch ( CompletionException e ) {
+                if ( e.getCause() instanceof RuntimeException ) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            Texture texture = put(path, new Texture(path));
+            load.complete(texture);
+            return texture;
+        } catch ( RuntimeException | Error e ) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized ( this ) {
+                loads.remove(path);
+            }
+        }
+    }
+
+    /**
+     * This method adds a texture to the cache. If the cache already has a texture with
+     * the same path or the same pixels, that texture is kept and returned instead.
+     * The pixels are hashed and compared out of the lock
+     * @param path the path of the image
+     * @param texture the texture
+     * @return the texture of the cache for the path
+     */
+    public Texture put(String path, Texture texture) {
+        int hash = hashPixels(texture);
+        // The texture of the cache with the same hash, which was compared with the new one
+        Entry compared = null;
+        boolean same = false;
+        while ( true ) {
+            synchronized ( this ) {
+                Entry entry = byPath.get(path);
+                if ( entry != null ) {
+                    return entry.texture;
+                }
+                Entry current = byContent.get(hash);
+                if ( current == compared ) {
+                    if ( current == null || !same ) {
+                        entry = new Entry(texture, hash);
+                        if ( current == null ) {
+                            byContent.put(hash, entry);
+                        }
+                        sizeInBytes += entry.size;
+                    } else {
+                        entry = current;
+                    }
+                    entry.numPaths++;
+                    byPath.put(path, entry);
+                    evict();
+                    return entry.texture;
+                }
+                compared = current;
+            }
+            same = compared != null && isSameImage(compared.texture, texture);
+        }
+    }
+
+    /**
+     * This method removes the texture of a path from the cache
+     * @param path the path of the image
+     * @return true if the path was in the cache
+     */
+    public synchronized boolean remove(String path) {
+        Entry entry = byPath.remove(path);
+        if ( entry == null ) {
+            return false;
+        }
+        release(entry);
+        return true;
+    }
+
+    /**
+     * This method removes all the textures from the cache
+     */
+    public synchronized void clear() {
+        byPath.clear();
+        byContent.clear();
+        sizeInBytes = 0;
+    }
+
+    /**
+     * This method removes the least recently used paths until the textures fit in the budget.
+     * The most recently used one is always kept, even if it doesn't fit alone
+     */
+    private void evict() {
+        Iterator<Entry> entries = byPath.values().iterator();
+        while ( sizeInBytes > budget && byPath.size() > 1 ) {
+            Entry entry = entries.next();
+            entries.remove();
+            release(entry);
+            numEvictions++;
+        }
+    }
+
+    /**
+     * This method forgets a path of a texture, and the texture when it has no more paths
+     * @param entry the texture of the path
+     */
+    private void release(Entry entry) {
+        entry.numPaths--;
+        if ( entry.numPaths == 0 ) {
+            sizeInBytes -= entry.size;
+            if ( byContent.get(entry.hash) == entry ) {
+                byContent.remove(entry.hash);
+            }
+        }
+    }
+
+    private static int hashPixels(Texture texture) {
+        int[] pixels = texture.getP();
+        int hash = 31 * texture.getW() + texture.getH();
+        return 31 * hash + Arrays.hashCode(pixels);
+    }
+
+    private static boolean isSameImage(Texture a, Texture b) {
+        return a.getW() == b.getW() && a.getH() == b.getH() && a.getLayout() == b.getLayout()
+                && Arrays.equals(a.getP(), b.getP());
+    }
+
+    /**
+     * This class is a texture of the cache, which can be found by several paths
+     */
+    private static final class Entry {
+
+        private final Texture texture;
+
+        private final int hash;
+
+        private final long size;
+
+        private int numPaths = 0;
+
+        private Entry(Texture texture, int hash) {
+            this.texture = texture;
+            this.hash = hash;
+            this.size = texture.getSizeInBytes();
+        }
+
+    }
+
+    // --------------
+
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * This method sets the maximum number of bytes of the textures. If the textures don't
+     * fit in the new budget, the least recently used ones are removed
+     * @param budget the budget in bytes
+     */
+    public synchronized void setBudget(long budget) {
+        if ( budget < 0 ) {
+            throw new IllegalArgumentException("The budget can't be negative");
+        }
+        this.budget = budget;
+        evict();
+    }
+
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public synchronized int getNumPaths() {
+        return byPath.size();
+    }
+
+    public synchronized long getNumHits() {
+        return numHits;
+    }
+
+    public synchronized long getNumMisses() {
+        return numMisses;
+    }
+
+    public synchronized long getNumEvictions() {
+        return numEvictions;
+    }
+
+}
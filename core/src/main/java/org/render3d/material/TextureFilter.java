@@ -0,0 +1,8 @@
+package org.render3d.material;
+
+public enum TextureFilter {
+
+    NEAREST,
+    BILINEAR
+
+}
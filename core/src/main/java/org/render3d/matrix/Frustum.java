@@ -0,0 +1,181 @@
+package org.render3d.matrix;
+
+import org.render3d.mesh.BoundingVolume;
+
+/**
+ * This class represents the six planes of a view frustum. The planes are extracted
+ * from a matrix which takes the points to clip space, where a point is inside when
+ *   -w <= x <= w,  -w <= y <= w  and  0 <= z <= w
+ *
+ * If the matrix is the view and projection matrices combined, the planes are in world
+ * space. If it also includes the world matrix of an object, the planes are in the space
+ * of the object, and its bounding volume can be tested without transforming it.
+ *
+ * The planes are normalised, so the plane equation gives the distance to the plane,
+ * positive inside. A frustum can be updated with a new matrix without creating objects.
+ */
+public class Frustum {
+
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+    public static final int BOTTOM = 2;
+    public static final int TOP = 3;
+    public static final int NEAR = 4;
+    public static final int FAR = 5;
+
+    /**
+     * The results of the classification of a box
+     */
+    public static final int OUTSIDE = 0;
+    public static final int INTERSECTING = 1;
+    public static final int INSIDE = 2;
+
+    /**
+     * The four coefficients a, b, c, d of each plane: a * x + b * y + c * z + d >= 0 inside
+     */
+    private final float[] planes = new float[6 * 4];
+
+    /**
+     * If false, the far plane is ignored
+     */
+    private boolean farPlaneTest = true;
+
+    public Frustum() {
+    }
+
+    /**
+     * Constructor
+     * @param matrix the matrix which takes the points to clip space
+     */
+    public Frustum(Mat4x4 matrix) {
+        set(matrix);
+    }
+
+    /**
+     * This method extracts the planes of the frustum from the matrix. The matrices
+     * multiply row vectors, so each clip space coordinate is the dot product of the
+     * point and one column of the matrix
+     * @param matrix the matrix which takes the points to clip space
+     */
+    public void set(Mat4x4 matrix) {
+        float[][] m = matrix.getM();
+        for ( int i = 0; i < 4; i++ ) {
+            float x = m[i][0];
+            float y = m[i][1];
+            float z = m[i][2];
+            float w = m[i][3];
+            planes[LEFT * 4 + i] = w + x;
+            planes[RIGHT * 4 + i] = w - x;
+            planes[BOTTOM * 4 + i] = w + y;
+            planes[TOP * 4 + i] = w - y;
+            planes[NEAR * 4 + i] = z;
+            planes[FAR * 4 + i] = w - z;
+        }
+
+        for ( int plane = 0; plane < 6; plane++ ) {
+            int i = plane * 4;
+            float l = (float) Math.sqrt(planes[i] * planes[i] + planes[i + 1] * planes[i + 1] + planes[i + 2] * planes[i + 2]);
+            if ( l > 0.0f ) {
+                planes[i] /= l;
+                planes[i + 1] /= l;
+                planes[i + 2] /= l;
+                planes[i + 3] /= l;
+            }
+        }
+    }
+
+    /**
+     * This method calculates the distance from a point to a plane
+     * @param plane the plane
+     * @param x the x of the point
+     * @param y the y of the point
+     * @param z the z of the point
+     * @return the distance, positive inside
+     */
+    public float distance(int plane, float x, float y, float z) {
+        int i = plane * 4;
+        return planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3];
+    }
+
+    /**
+     * This method says if a sphere is, at least partly, inside the frustum
+     * @return false if the sphere is completely outside of one plane
+     */
+    public boolean isSphereVisible(float centerX, float centerY, float centerZ, float radius) {
+        int numPlanes = farPlaneTest ? 6 : 5;
+        for ( int plane = 0; plane < numPlanes; plane++ ) {
+            if ( distance(plane, centerX, centerY, centerZ) < -radius ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method says if an axis aligned box is, at least partly, inside the frustum.
+     * For each plane it tests the corner of the box farthest inside
+     * @return false if the box is completely outside of one plane
+     */
+    public boolean isBoxVisible(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int numPlanes = farPlaneTest ? 6 : 5;
+        for ( int plane = 0; plane < numPlanes; plane++ ) {
+            int i = plane * 4;
+            float x = planes[i] >= 0.0f ? maxX : minX;
+            float y = planes[i + 1] >= 0.0f ? maxY : minY;
+            float z = planes[i + 2] >= 0.0f ? maxZ : minZ;
+            if ( distance(plane, x, y, z) < 0.0f ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method says where an axis aligned box is. Besides the corner farthest inside,
+     * it tests the corner farthest outside: if it is inside all the planes, so is the box
+     * @return OUTSIDE, INTERSECTING or INSIDE
+     */
+    public int classifyBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int numPlanes = farPlaneTest ? 6 : 5;
+        int result = INSIDE;
+        for ( int plane = 0; plane < numPlanes; plane++ ) {
+            int i = plane * 4;
+            boolean positiveX = planes[i] >= 0.0f;
+            boolean positiveY = planes[i + 1] >= 0.0f;
+            boolean positiveZ = planes[i + 2] >= 0.0f;
+            if ( distance(plane, positiveX ? maxX : minX, positiveY ? maxY : minY, positiveZ ? maxZ : minZ) < 0.0f ) {
+                return OUTSIDE;
+            }
+            if ( distance(plane, positiveX ? minX : maxX, positiveY ? minY : maxY, positiveZ ? minZ : maxZ) < 0.0f ) {
+                result = INTERSECTING;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method says if a bounding volume is, at least partly, inside the frustum.
+     * The sphere is tested first, because it is cheaper, and then the box
+     * @param bounds the bounding volume, in the same space as the frustum planes
+     * @return false if the bounding volume is completely outside
+     */
+    public boolean isVisible(BoundingVolume bounds) {
+        if ( bounds.isEmpty() ) {
+            return false;
+        }
+        return isSphereVisible(bounds.getCenterX(), bounds.getCenterY(), bounds.getCenterZ(), bounds.getRadius()) &&
+                isBoxVisible(bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(),
+                        bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ());
+    }
+
+    // --------------
+
+    public boolean isFarPlaneTest() {
+        return farPlaneTest;
+    }
+
+    public void setFarPlaneTest(boolean farPlaneTest) {
+        this.farPlaneTest = farPlaneTest;
+    }
+
+}
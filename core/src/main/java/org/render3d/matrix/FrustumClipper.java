@@ -0,0 +1,225 @@
+package org.render3d.matrix;
+
+import org.render3d.mesh.Triangle;
+import org.render3d.mesh.TriangleArena;
+import org.render3d.vectors.vec3d.Vec3df;
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.ArrayList;
+
+/**
+ * This class clips triangles in homogeneous clip space, after the projection
+ * matrix and before the division by w. A point is inside the view frustum when
+ *   -w <= x <= w,  -w <= y <= w  and  0 <= z <= w
+ *
+ * The outcode of each point is calculated once. When all the points are outside
+ * the same plane the triangle is rejected, when all of them are inside it is accepted
+ * as it is, and else the triangle is clipped as a polygon against the six planes in one
+ * pass, only the planes which are crossed. The resulting polygon is cut into triangles.
+ *
+ * The clip space is linear, so the texture coordinates are interpolated linearly too.
+ * A clipper keeps its scratch polygons, so it must only be used by one thread.
+ */
+public class FrustumClipper {
+
+    public static final int OUTSIDE_LEFT = 1;
+    public static final int OUTSIDE_RIGHT = 2;
+    public static final int OUTSIDE_BOTTOM = 4;
+    public static final int OUTSIDE_TOP = 8;
+    public static final int OUTSIDE_NEAR = 16;
+    public static final int OUTSIDE_FAR = 32;
+
+    /**
+     * The number of planes of the frustum
+     */
+    private static final int NUM_PLANES = 6;
+
+    /**
+     * The values of each vertex of the polygon: x, y, z, w, u, v and the texture w
+     */
+    private static final int STRIDE = 7;
+
+    /**
+     * Each plane can add one vertex to the polygon
+     */
+    private static final int MAX_VERTICES = 3 + NUM_PLANES;
+
+    /**
+     * The polygon being clipped
+     */
+    private float[] polygon = new float[MAX_VERTICES * STRIDE];
+
+    /**
+     * The polygon clipped against the current plane
+     */
+    private float[] clipped = new float[MAX_VERTICES * STRIDE];
+
+    /**
+     * This method calculates the outcode of a point in clip space:
+     * one bit for each plane the point is outside of
+     * @param p the point in clip space
+     * @return the outcode, 0 if the point is inside the frustum
+     */
+    public static int outcode(Vec4df p) {
+        float w = p.getW();
+        int code = 0;
+        if ( p.getX() < -w ) {
+            code |= OUTSIDE_LEFT;
+        }
+        if ( p.getX() > w ) {
+            code |= OUTSIDE_RIGHT;
+        }
+        if ( p.getY() < -w ) {
+            code |= OUTSIDE_BOTTOM;
+        }
+        if ( p.getY() > w ) {
+            code |= OUTSIDE_TOP;
+        }
+        if ( p.getZ() < 0.0f ) {
+            code |= OUTSIDE_NEAR;
+        }
+        if ( p.getZ() > w ) {
+            code |= OUTSIDE_FAR;
+        }
+        return code;
+    }
+
+    /**
+     * This method calculates the distance of the vertex to the plane, positive inside
+     * @param values the polygon
+     * @param vertex the index of the vertex
+     * @param plane the index of the plane, the bit of its outcode
+     * @return the signed distance
+     */
+    private static float distance(float[] values, int vertex, int plane) {
+        int i = vertex * STRIDE;
+        switch ( plane ) {
+            case 0:
+                return values[i + 3] + values[i];
+            case 1:
+                return values[i + 3] - values[i];
+            case 2:
+                return values[i + 3] + values[i + 1];
+            case 3:
+                return values[i + 3] - values[i + 1];
+            case 4:
+                return values[i + 2];
+            default:
+                return values[i + 3] - values[i + 2];
+        }
+    }
+
+    /**
+     * This method clips the triangle against the view frustum. The triangle itself
+     * (when it is completely inside) or the triangles of the clipped polygon, taken
+     * from the arena, are added to the output list. Nothing is added when the
+     * triangle is outside the frustum
+     * @param triangle the triangle in clip space
+     * @param arena the arena where the new triangles are taken from
+     * @param output the list where the visible triangles are added
+     * @return the number of triangles added
+     */
+    public int clip(Triangle triangle, TriangleArena arena, ArrayList<Triangle> output) {
+        Vec4df[] p = triangle.getP();
+        int code0 = outcode(p[0]);
+        int code1 = outcode(p[1]);
+        int code2 = outcode(p[2]);
+
+        if ( (code0 & code1 & code2) != 0 ) {
+            return 0;
+        }
+        if ( (code0 | code1 | code2) == 0 ) {
+            output.add(triangle);
+            return 1;
+        }
+
+        int crossed = code0 | code1 | code2;
+        Vec3df[] t = triangle.getT();
+        for ( int k = 0; k < 3; k++ ) {
+            int i = k * STRIDE;
+            polygon[i] = p[k].getX();
+            polygon[i + 1] = p[k].getY();
+            polygon[i + 2] = p[k].getZ();
+            polygon[i + 3] = p[k].getW();
+            polygon[i + 4] = t[k].getX();
+            polygon[i + 5] = t[k].getY();
+            polygon[i + 6] = t[k].getZ();
+        }
+        int numVertices = 3;
+
+        for ( int plane = 0; plane < NUM_PLANES && numVertices >= 3; plane++ ) {
+            if ( (crossed & (1 << plane)) != 0 ) {
+                numVertices = clipPolygon(numVertices, plane);
+            }
+        }
+        if ( numVertices < 3 ) {
+            return 0;
+        }
+
+        for ( int k = 1; k < numVertices - 1; k++ ) {
+            Triangle triangleClipped = arena.obtain();
+            setVertex(triangleClipped, 0, 0);
+            setVertex(triangleClipped, 1, k);
+            setVertex(triangleClipped, 2, k + 1);
+            triangleClipped.setColor(triangle.getColor());
+            triangleClipped.setBrightness(triangle.getBrightness());
+            output.add(triangleClipped);
+        }
+        return numVertices - 2;
+    }
+
+    /**
+     * This method clips the polygon against one plane (Sutherland-Hodgman)
+     * @param numVertices the number of vertices of the polygon
+     * @param plane the index of the plane
+     * @return the number of vertices of the clipped polygon
+     */
+    private int clipPolygon(int numVertices, int plane) {
+        int numClipped = 0;
+        int previous = numVertices - 1;
+        float previousDistance = distance(polygon, previous, plane);
+
+        for ( int current = 0; current < numVertices; current++ ) {
+            float currentDistance = distance(polygon, current, plane);
+            if ( (currentDistance >= 0.0f) != (previousDistance >= 0.0f) ) {
+                float t = previousDistance / (previousDistance - currentDistance);
+                int a = previous * STRIDE;
+                int b = current * STRIDE;
+                int c = numClipped * STRIDE;
+                for ( int i = 0; i < STRIDE; i++ ) {
+                    clipped[c + i] = polygon[a + i] + (polygon[b + i] - polygon[a + i]) * t;
+                }
+                numClipped++;
+            }
+            if ( currentDistance >= 0.0f ) {
+                System.arraycopy(polygon, current * STRIDE, clipped, numClipped * STRIDE, STRIDE);
+                numClipped++;
+            }
+            previous = current;
+            previousDistance = currentDistance;
+        }
+
+        float[] swap = polygon;
+        polygon = clipped;
+        clipped = swap;
+        return numClipped;
+    }
+
+    /**
+     * This method copies a vertex of the polygon into a point of the triangle
+     * @param triangle the output triangle
+     * @param k the index of the point of the triangle
+     * @param vertex the index of the vertex of the polygon
+     */
+    private void setVertex(Triangle triangle, int k, int vertex) {
+        int i = vertex * STRIDE;
+        triangle.getP()[k].setX(polygon[i]);
+        triangle.getP()[k].setY(polygon[i + 1]);
+        triangle.getP()[k].setZ(polygon[i + 2]);
+        triangle.getP()[k].setW(polygon[i + 3]);
+        triangle.getT()[k].setX(polygon[i + 4]);
+        triangle.getT()[k].setY(polygon[i + 5]);
+        triangle.getT()[k].setZ(polygon[i + 6]);
+    }
+
+}
@@ -19,6 +19,7 @@ public class MatrixMath {
         for ( Triangle triangle : mesh.getTris() ) {
             triangle.setP(matrixMultiplyVectors(m, triangle.getP()));
         }
+        mesh.invalidateBounds();
     }
 
     public static Vec4df matrixMultiplyVector(Mat4x4 m, Vec4df i) {
@@ -30,6 +31,38 @@ public class MatrixMath {
         return v;
     }
 
+    /**
+     * Same as the matrixMultiplyVector, but the result is written in the
+     * output vector instead of in a new one. The input and the output can
+     * be the same vector
+     * @param m the matrix
+     * @param i the input vector
+     * @param out the vector where the result is written
+     */
+    public static void matrixMultiplyVector(Mat4x4 m, Vec4df i, Vec4df out) {
+        float x = i.getX() * m.getM()[0][0] + i.getY() * m.getM()[1][0] + i.getZ() * m.getM()[2][0] + i.getW() * m.getM()[3][0];
+        float y = i.getX() * m.getM()[0][1] + i.getY() * m.getM()[1][1] + i.getZ() * m.getM()[2][1] + i.getW() * m.getM()[3][1];
+        float z = i.getX() * m.getM()[0][2] + i.getY() * m.getM()[1][2] + i.getZ() * m.getM()[2][2] + i.getW() * m.getM()[3][2];
+        float w = i.getX() * m.getM()[0][3] + i.getY() * m.getM()[1][3] + i.getZ() * m.getM()[2][3] + i.getW() * m.getM()[3][3];
+        out.setX(x);
+        out.setY(y);
+        out.setZ(z);
+        out.setW(w);
+    }
+
+    /**
+     * Same as the matrixMultiplyVectors, but the results are written in the
+     * output array of points instead of in a new one
+     * @param m the matrix
+     * @param vec4dfs the input points
+     * @param out the points where the results are written
+     */
+    public static void matrixMultiplyVectors(Mat4x4 m, Vec4df[] vec4dfs, Vec4df[] out) {
+        for (int i = 0; i < vec4dfs.length; i++ ) {
+            matrixMultiplyVector(m, vec4dfs[i], out[i]);
+        }
+    }
+
     /**
      * Este método es el método general para transformar una array de puntos en 3D con
      * cualquier matriz. Por ejemplo, la matriz de visión o la matriz de proyección.
@@ -60,6 +93,25 @@ public class MatrixMath {
         return matrix;
     }
 
+    /**
+     * Same as the matrixMultiplyMatrix, but the result is written in the
+     * output matrix instead of in a new one. The output must not be one
+     * of the input matrices
+     * @param m1 the first matrix
+     * @param m2 the second matrix
+     * @param out the matrix where the result is written
+     */
+    public static void matrixMultiplyMatrix(Mat4x4 m1, Mat4x4 m2, Mat4x4 out) {
+        for ( int c = 0; c < 4; c++ ) {
+            for ( int r = 0; r < 4; r++ ) {
+                out.getM()[r][c] = m1.getM()[r][0] * m2.getM()[0][c] +
+                        m1.getM()[r][1] * m2.getM()[1][c] +
+                        m1.getM()[r][2] * m2.getM()[2][c] +
+                        m1.getM()[r][3] * m2.getM()[3][c];
+            }
+        }
+    }
+
     public static Mat4x4 matrixMakeIdentity() {
         Mat4x4 matrix = new Mat4x4();
         matrix.getM()[0][0] = 1.0f;
@@ -669,4 +721,139 @@ public class MatrixMath {
 
     }
 
+    /**
+     * This method writes in the output triangle the point where the line from the
+     * inside point to the outside point crosses the plane, and interpolates the texture
+     * the same way. It is the allocation free version of calculateIntersectionPoint
+     * @param output the output triangle
+     * @param k the index of the point of the output triangle to write
+     * @param in the inside point
+     * @param inTex the texture of the inside point
+     * @param out the outside point
+     * @param outTex the texture of the outside point
+     * @param t the t value from the calculateT method
+     */
+    private static void setIntersection(Triangle output, int k,
+                                        Vec4df in, Vec3df inTex,
+                                        Vec4df out, Vec3df outTex,
+                                        float t) {
+        output.getP()[k].setX(in.getX() + (out.getX() - in.getX()) * t);
+        output.getP()[k].setY(in.getY() + (out.getY() - in.getY()) * t);
+        output.getP()[k].setZ(in.getZ() + (out.getZ() - in.getZ()) * t);
+        output.getP()[k].setW(1.0f);
+        output.getT()[k].setX(t * (outTex.getX() - inTex.getX()) + inTex.getX());
+        output.getT()[k].setY(t * (outTex.getY() - inTex.getY()) + inTex.getY());
+        output.getT()[k].setZ(t * (outTex.getZ() - inTex.getZ()) + inTex.getZ());
+    }
+
+    /**
+     * Allocation free version of the triangleClipAgainstPlane. Instead of returning a new
+     * list with new triangles, the result triangles are written in the two output triangles
+     * passed as parameters, and it returns how many of them have been written:
+     *   0) the triangle is outside of the plane.
+     *   1) all the triangle is inside, it is copied in the first output triangle, or there
+     *      are only one point inside, and the first output triangle is the new smaller triangle.
+     *   2) there are two points inside, the quad is cut in the two output triangles.
+     *
+     * The results are exactly the same values as the ones of the triangleClipAgainstPlane.
+     * The output triangles must be different objects from the input triangle.
+     *
+     * @param planePoint point in the plane, it is used to define the plane equation
+     * @param planeNormal normal to the plane, it is used to define the plane equation
+     * @param triangle the triangle to clip.
+     * @param output1 the first output triangle
+     * @param output2 the second output triangle
+     * @return the number of output triangles written
+     */
+    public static int triangleClipAgainstPlane(Vec4df planePoint, Vec4df planeNormal,
+                                               Triangle triangle, Triangle output1, Triangle output2) {
+        float l = (float) Math.sqrt(planeNormal.getX() * planeNormal.getX() + planeNormal.getY() * planeNormal.getY() + planeNormal.getZ() * planeNormal.getZ());
+        float nx = planeNormal.getX() / l;
+        float ny = planeNormal.getY() / l;
+        float nz = planeNormal.getZ() / l;
+
+        // calculateT normalises the normal once more
+        l = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        float tnx = nx / l;
+        float tny = ny / l;
+        float tnz = nz / l;
+        float planeD = -(tnx * planePoint.getX() + tny * planePoint.getY() + tnz * planePoint.getZ());
+
+        float planeDistance = nx * planePoint.getX() + ny * planePoint.getY() + nz * planePoint.getZ();
+
+        Vec4df[] p = triangle.getP();
+        Vec3df[] tex = triangle.getT();
+
+        int nInside = 0;
+        int nOutside = 0;
+        int inside0 = 0, inside1 = 0, outside0 = 0, outside1 = 0;
+        for ( int i = 0; i < 3; i++ ) {
+            float d = nx * p[i].getX() + ny * p[i].getY() + nz * p[i].getZ() - planeDistance;
+            if ( d >= 0 ) {
+                if ( nInside == 0 ) {
+                    inside0 = i;
+                } else {
+                    inside1 = i;
+                }
+                nInside++;
+            } else {
+                if ( nOutside == 0 ) {
+                    outside0 = i;
+                } else {
+                    outside1 = i;
+                }
+                nOutside++;
+            }
+        }
+
+        float ad, bd, t;
+        switch ( nInside ) {
+            default: case 0:
+                return 0;
+            case 3:
+                output1.set(triangle);
+                return 1;
+            case 1:
+                output1.setColor(triangle.getColor());
+                output1.setBrightness(triangle.getBrightness());
+                output1.getP()[0].set(p[inside0]);
+                output1.getT()[0].set(tex[inside0]);
+
+                ad = p[inside0].getX() * tnx + p[inside0].getY() * tny + p[inside0].getZ() * tnz;
+                bd = p[outside0].getX() * tnx + p[outside0].getY() * tny + p[outside0].getZ() * tnz;
+                t = (-planeD - ad) / (bd - ad);
+                setIntersection(output1, 1, p[inside0], tex[inside0], p[outside0], tex[outside0], t);
+
+                bd = p[outside1].getX() * tnx + p[outside1].getY() * tny + p[outside1].getZ() * tnz;
+                t = (-planeD - ad) / (bd - ad);
+                setIntersection(output1, 2, p[inside0], tex[inside0], p[outside1], tex[outside1], t);
+                return 1;
+            case 2:
+                output1.setColor(triangle.getColor());
+                output1.setBrightness(triangle.getBrightness());
+                output2.setColor(triangle.getColor());
+                output2.setBrightness(triangle.getBrightness());
+
+                output1.getP()[0].set(p[inside0]);
+                output1.getP()[1].set(p[inside1]);
+                output1.getT()[0].set(tex[inside0]);
+                output1.getT()[1].set(tex[inside1]);
+
+                ad = p[inside0].getX() * tnx + p[inside0].getY() * tny + p[inside0].getZ() * tnz;
+                bd = p[outside0].getX() * tnx + p[outside0].getY() * tny + p[outside0].getZ() * tnz;
+                t = (-planeD - ad) / (bd - ad);
+                setIntersection(output1, 2, p[inside0], tex[inside0], p[outside0], tex[outside0], t);
+
+                output2.getP()[0].set(p[inside1]);
+                output2.getT()[0].set(tex[inside1]);
+                output2.getP()[1].set(output1.getP()[2]);
+                output2.getT()[1].set(output1.getT()[2]);
+
+                ad = p[inside1].getX() * tnx + p[inside1].getY() * tny + p[inside1].getZ() * tnz;
+                t = (-planeD - ad) / (bd - ad);
+                setIntersection(output2, 2, p[inside1], tex[inside1], p[outside0], tex[outside0], t);
+                return 2;
+        }
+    }
+
 }
@@ -0,0 +1,187 @@
+package org.render3d.mesh;
+
+/**
+ * This class represents the bounding volumes of a mesh in its own space:
+ * an axis aligned bounding box (AABB) and a bounding sphere. Both of them
+ * contain all the points of the mesh.
+ *
+ * A bounding volume is immutable, so it can be cached and shared between threads.
+ */
+public final class BoundingVolume {
+
+    /**
+     * The bounding volume of a mesh without triangles. It is never visible
+     */
+    public static final BoundingVolume EMPTY = new BoundingVolume(
+            Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+            Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+            0.0f, 0.0f, 0.0f, -1.0f);
+
+    private final float minX;
+    private final float minY;
+    private final float minZ;
+    private final float maxX;
+    private final float maxY;
+    private final float maxZ;
+
+    private final float centerX;
+    private final float centerY;
+    private final float centerZ;
+    private final float radius;
+
+    /**
+     * Constructor
+     * @param minX the minimum x of the box
+     * @param minY the minimum y of the box
+     * @param minZ the minimum z of the box
+     * @param maxX the maximum x of the box
+     * @param maxY the maximum y of the box
+     * @param maxZ the maximum z of the box
+     * @param centerX the x of the center of the sphere
+     * @param centerY the y of the center of the sphere
+     * @param centerZ the z of the center of the sphere
+     * @param radius the radius of the sphere
+     */
+    public BoundingVolume(float minX, float minY, float minZ,
+                          float maxX, float maxY, float maxZ,
+                          float centerX, float centerY, float centerZ, float radius) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.radius = radius;
+    }
+
+    /**
+     * This method calculates the bounding volume of a list of points.
+     * The sphere is centered in the center of the box, with the radius
+     * of the farthest point
+     * @param positions the points, x, y and z one after the other
+     * @param stride the number of floats of each point
+     * @param numPoints the number of points
+     * @return the bounding volume of the points
+     */
+    public static BoundingVolume of(float[] positions, int stride, int numPoints) {
+        if ( numPoints == 0 ) {
+            return EMPTY;
+        }
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for ( int i = 0; i < numPoints; i++ ) {
+            float x = positions[i * stride];
+            float y = positions[i * stride + 1];
+            float z = positions[i * stride + 2];
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        float centerX = (minX + maxX) * 0.5f;
+        float centerY = (minY + maxY) * 0.5f;
+        float centerZ = (minZ + maxZ) * 0.5f;
+        float radius2 = 0.0f;
+        for ( int i = 0; i < numPoints; i++ ) {
+            float dx = positions[i * stride] - centerX;
+            float dy = positions[i * stride + 1] - centerY;
+            float dz = positions[i * stride + 2] - centerZ;
+            radius2 = Math.max(radius2, dx * dx + dy * dy + dz * dz);
+        }
+
+        return new BoundingVolume(minX, minY, minZ, maxX, maxY, maxZ,
+                centerX, centerY, centerZ, (float) Math.sqrt(radius2));
+    }
+
+    /**
+     * This method calculates the bounding volume of the triangles of a mesh
+     * @param mesh the mesh
+     * @return the bounding volume of the mesh
+     */
+    public static BoundingVolume of(Mesh mesh) {
+        float[] positions = new float[mesh.getTris().size() * 9];
+        int n = 0;
+        for ( Triangle triangle : mesh.getTris() ) {
+            for ( int k = 0; k < 3; k++ ) {
+                positions[n++] = triangle.getP()[k].getX();
+                positions[n++] = triangle.getP()[k].getY();
+                positions[n++] = triangle.getP()[k].getZ();
+            }
+        }
+        return of(positions, 3, mesh.getTris().size() * 3);
+    }
+
+    /**
+     * This method calculates the bounding volume of the vertices of a packed mesh
+     * @param mesh the packed mesh
+     * @return the bounding volume of the mesh
+     */
+    public static BoundingVolume of(PackedMesh mesh) {
+        return of(mesh.getPositions(), PackedMesh.POSITION_STRIDE, mesh.getNumVertices());
+    }
+
+    /**
+     * This method says if the bounding volume contains something
+     * @return true if there are no points inside
+     */
+    public boolean isEmpty() {
+        return radius < 0.0f;
+    }
+
+    @Override
+    public String toString() {
+        return "min: " + minX + " " + minY + " " + minZ +
+                " max: " + maxX + " " + maxY + " " + maxZ +
+                " center: " + centerX + " " + centerY + " " + centerZ +
+                " radius: " + radius;
+    }
+
+    // --------------
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMinZ() {
+        return minZ;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    public float getMaxZ() {
+        return maxZ;
+    }
+
+    public float getCenterX() {
+        return centerX;
+    }
+
+    public float getCenterY() {
+        return centerY;
+    }
+
+    public float getCenterZ() {
+        return centerZ;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+}
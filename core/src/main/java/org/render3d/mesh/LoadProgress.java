@@ -0,0 +1,58 @@
+package org.render3d.mesh;
+
+/**
+ * This class contains the progress of the load of a model: whether the geometry
+ * of the ".obj" file is read, and how many of the textures of its materials are
+ * decoded. The number of textures grows while the ".mtl" files are read, so it is
+ * only final once the geometry is loaded.
+ */
+public class LoadProgress {
+
+    private final boolean geometryLoaded;
+
+    private final int numTexturesLoaded;
+
+    private final int numTextures;
+
+    /**
+     * The constructor
+     * @param geometryLoaded if the geometry is read
+     * @param numTexturesLoaded the textures decoded, or failed
+     * @param numTextures the textures found in the material files until now
+     */
+    public LoadProgress(boolean geometryLoaded, int numTexturesLoaded, int numTextures) {
+        this.geometryLoaded = geometryLoaded;
+        this.numTexturesLoaded = numTexturesLoaded;
+        this.numTextures = numTextures;
+    }
+
+    /**
+     * This method tells if the model can be used: its geometry is read and
+     * all its textures are decoded
+     * @return true if the load is finished
+     */
+    public boolean isDone() {
+        return geometryLoaded && numTexturesLoaded == numTextures;
+    }
+
+    @Override
+    public String toString() {
+        return "geometry: " + (geometryLoaded ? "loaded" : "loading") +
+                ", textures: " + numTexturesLoaded + '/' + numTextures;
+    }
+
+    // --------------
+
+    public boolean isGeometryLoaded() {
+        return geometryLoaded;
+    }
+
+    public int getNumTexturesLoaded() {
+        return numTexturesLoaded;
+    }
+
+    public int getNumTextures() {
+        return numTextures;
+    }
+
+}
@@ -12,6 +12,16 @@ public class Mesh {
      */
     private ArrayList<Triangle> tris;
 
+    /**
+     * The bounding volume of the triangles, calculated the first time it is needed
+     */
+    private BoundingVolume bounds;
+
+    /**
+     * The number of triangles the mesh had when the bounding volume was calculated
+     */
+    private int boundsNumTriangles;
+
     /**
      * The constructor
      */
@@ -97,6 +107,27 @@ public class Mesh {
         System.out.println(out);
     }
 
+    /**
+     * This method returns the bounding volume of the triangles. It is calculated again
+     * when the number of triangles changes or after invalidateBounds is called
+     * @return the bounding volume of the mesh
+     */
+    public BoundingVolume getBounds() {
+        if ( bounds == null || boundsNumTriangles != tris.size() ) {
+            bounds = BoundingVolume.of(this);
+            boundsNumTriangles = tris.size();
+        }
+        return bounds;
+    }
+
+    /**
+     * This method discards the bounding volume. It has to be called when the
+     * points of the triangles are modified, so the culling uses the new positions
+     */
+    public void invalidateBounds() {
+        bounds = null;
+    }
+
     // --------------
 
     /**
@@ -113,6 +144,7 @@ public class Mesh {
      */
     public void setTris(ArrayList<Triangle> tris) {
         this.tris = copyTriangles(tris);
+        invalidateBounds();
     }
 
 }
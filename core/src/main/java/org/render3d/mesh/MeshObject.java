@@ -0,0 +1,134 @@
+package org.render3d.mesh;
+
+import org.render3d.material.Material;
+
+import java.util.ArrayList;
+
+public class MeshObject {
+
+    private String name;
+
+    /**
+     * The triangles. For an object with an indexed mesh, they are
+     * unpacked the first time they are requested and kept here
+     */
+    private volatile Mesh mesh;
+
+    /**
+     * The indexed mesh. The objects read from an ".obj" file
+     * are stored in this form, and the pipeline renders it
+     */
+    private volatile PackedMesh packedMesh;
+
+    private String materialName;
+
+    private Material material;
+
+    public MeshObject(String name, Mesh mesh) {
+        this.name = name;
+        this.mesh = mesh;
+    }
+
+    public MeshObject(String name, ArrayList<Triangle> tris) {
+        this(name, new Mesh(tris));
+    }
+
+    public MeshObject(String name, PackedMesh packedMesh) {
+        this.name = name;
+        this.packedMesh = packedMesh;
+    }
+
+    /**
+     * This method returns the number of triangles
+     * without unpacking the indexed mesh
+     * @return the number of triangles of the object
+     */
+    public int getNumTriangles() {
+        PackedMesh packedMesh = this.packedMesh;
+        return packedMesh != null ? packedMesh.getNumTriangles() : mesh.getTris().size();
+    }
+
+    /**
+     * This method returns the bounding volume of the object
+     * without unpacking the indexed mesh
+     * @return the bounding volume of the object in its own space
+     */
+    public BoundingVolume getBounds() {
+        PackedMesh packedMesh = this.packedMesh;
+        return packedMesh != null ? packedMesh.getBounds() : mesh.getBounds();
+    }
+
+    @Override
+    public String toString() {
+        return "Name: '" + name + '\n' +
+                "Number of triangles: " + getNumTriangles() + '\n' +
+                "Material name: " + materialName + '\n' +
+                "Material: " + material;
+    }
+
+    // -----------------------
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * The getter for the mesh. If the object has the indexed mesh, it is
+     * unpacked to triangles once, and the object keeps both. The pipeline
+     * still renders the indexed mesh, so the changes done on the triangles
+     * are only rendered after they are given back with setMesh. It can be
+     * called from several threads
+     * @return the mesh
+     */
+    public Mesh getMesh() {
+        Mesh mesh = this.mesh;
+        if ( mesh == null ) {
+            synchronized ( this ) {
+                if ( this.mesh == null && packedMesh != null ) {
+                    this.mesh = packedMesh.toMesh();
+                }
+                mesh = this.mesh;
+            }
+        }
+        return mesh;
+    }
+
+    public synchronized void setMesh(Mesh mesh) {
+        this.mesh = mesh;
+        this.packedMesh = null;
+    }
+
+    /**
+     * The getter for the indexed mesh
+     * @return the indexed mesh, or null if the object is formed by triangles
+     */
+    public PackedMesh getPackedMesh() {
+        return packedMesh;
+    }
+
+    public synchronized void setPackedMesh(PackedMesh packedMesh) {
+        this.packedMesh = packedMesh;
+        this.mesh = null;
+    }
+
+    public String getMaterialName() {
+        return materialName;
+    }
+
+    public void setMaterialName(String materialName) {
+        this.materialName = materialName;
+    }
+
+    public Material getMaterial() {
+        return material;
+    }
+
+    public void setMaterial(Material material) {
+        this.material = material;
+    }
+
+}
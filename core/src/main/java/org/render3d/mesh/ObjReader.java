@@ -1,6 +1,8 @@
 package org.render3d.mesh;
 
 import org.render3d.material.Material;
+import org.render3d.material.Texture;
+import org.render3d.material.TextureCache;
 import org.render3d.vectors.vec3d.Vec3df;
 import org.render3d.vectors.vec4d.Vec4df;
 
@@ -8,8 +10,21 @@ import java.io.*;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * This class reads the models of ".obj" files and their ".mtl" material files.
+ *
+ * When a model is loaded, the material files are read as soon as the ".obj" file
+ * names them, and the textures of the materials are decoded in the pool while the
+ * rest of the geometry is read. The load finishes when both are done, and its
+ * progress can be followed with a listener.
+ */
 public class ObjReader {
 
     /**
@@ -53,6 +68,47 @@ public class ObjReader {
      */
     private HashMap<String, Material> materials;
 
+    /**
+     * The pool where the textures are decoded. When the common pool has a parallelism
+     * of 1, CompletableFuture runs its tasks in a new thread each instead
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * The method which is told the progress of the load. It can be called from
+     * the threads of the pool
+     */
+    private Consumer<LoadProgress> progressListener = progress -> { };
+
+    /**
+     * If a model is being loaded, so its textures are decoded in the pool
+     */
+    private boolean loading = false;
+
+    /**
+     * If the material file named by the model being loaded was read
+     */
+    private boolean materialsRead = false;
+
+    /**
+     * If the geometry of the model being loaded is read
+     */
+    private volatile boolean geometryLoaded = false;
+
+    /**
+     * The textures which are being decoded, by the path of their image
+     */
+    private final HashMap<String, CompletableFuture<Texture>> textureLoads = new HashMap<>();
+
+    /**
+     * The materials waiting for the textures
+     */
+    private final ArrayList<Material> texturedMaterials = new ArrayList<>();
+
+    private final AtomicInteger numTexturesLoaded = new AtomicInteger();
+
+    private final AtomicInteger numTextures = new AtomicInteger();
+
     /**
      * Void constructor
      */
@@ -134,6 +190,75 @@ public class ObjReader {
 
     }
 
+    /**
+     * This method reads the indices of one vertex of a face. The same
+     * formats as the buildTriangleTextured and buildTriangleNonTextured are supported
+     * @param vertex the vertex of the face, for example "1/2/3"
+     * @param hasTexture if the face has texture
+     * @return the indices of the position, texture and normal. 0 if there isn't
+     */
+    private int[] parseFaceVertex(String vertex, boolean hasTexture) {
+        int[] indices = new int[3];
+        if (!hasTexture) {
+            indices[0] = Integer.parseInt(vertex.split("//")[0]);
+        } else if (vertex.matches("[0-9]+/[0-9]+/[0-9]+")) { // formato: v/vt/vn
+            String[] splitNumber = vertex.split("/");
+            indices[0] = Integer.parseInt(splitNumber[0]);
+            indices[1] = Integer.parseInt(splitNumber[1]);
+            indices[2] = Integer.parseInt(splitNumber[2]);
+        } else if (vertex.matches("[0-9]+//[0-9]+")) { // formato: v//vt (espero que sea así...)
+            String[] splitNumber = vertex.split("//");
+            indices[0] = Integer.parseInt(splitNumber[0]);
+            indices[1] = Integer.parseInt(splitNumber[1]);
+        } else if (vertex.matches("[0-9]+/[0-9]+")) { // formato: v/vt (espero que sea así...)
+            String[] splitNumber = vertex.split("/");
+            indices[0] = Integer.parseInt(splitNumber[0]);
+            indices[1] = Integer.parseInt(splitNumber[1]);
+        } else {
+            indices[0] = Integer.parseInt(vertex.split("/")[0]);
+        }
+        return indices;
+    }
+
+    /**
+     * This method adds a face to the indexed mesh. As the buildTriangleTextured
+     * method, only the first three vertices of the face are read. The vertices
+     * already added with the same position and texture are reused
+     * @param builder the builder of the indexed mesh
+     * @param splitLine the line of the face
+     * @param hasTexture if the face has texture
+     */
+    private void addFace(PackedMeshBuilder builder, String[] splitLine, boolean hasTexture) {
+        for ( int i = 1; i <= 3; i++ ) {
+            int[] indices = parseFaceVertex(splitLine[i], hasTexture);
+            Vec4df position = this.v.get(indices[0] - 1);
+            float u = 0.0f, v = 0.0f, nx = 0.0f, ny = 0.0f, nz = 0.0f;
+            if (indices[1] > 0) {
+                Vec3df texture = this.vt.get(indices[1] - 1);
+                u = texture.getX();
+                v = texture.getY();
+            }
+            if (indices[2] > 0 && indices[2] <= this.vn.size()) {
+                Vec4df normal = this.vn.get(indices[2] - 1);
+                nx = normal.getX();
+                ny = normal.getY();
+                nz = normal.getZ();
+            }
+            builder.addVertex(position.getX(), position.getY(), position.getZ(), u, v, nx, ny, nz);
+        }
+    }
+
+    /**
+     * This method stores the indexed mesh built for the object
+     * @param o the object
+     * @param builder the builder with the faces of the object
+     */
+    private void finishObject(MeshObject o, PackedMeshBuilder builder) {
+        if (o != null) {
+            o.setPackedMesh(builder.build());
+        }
+    }
+
     /**
      * This method loads a file from the resource folder
      * @param fileName the path where is the object
@@ -241,6 +366,7 @@ public class ObjReader {
             String line = "";
 
             MeshObject o = null;
+            PackedMeshBuilder builder = new PackedMeshBuilder();
 
             while (line != null) {
                 if (line.length() > 1) {
@@ -258,14 +384,21 @@ public class ObjReader {
                                 p.append(splitPath[i]).append("/");
                             }
                             materialFileName = p + fileName;
+                            if ( loading ) {
+                                materialsRead = readMtlFile(materialFileName);
+                            }
                             break;
                         case "usemtl": // new material found
                             assert o != null;
+                            finishObject(o, builder);
+                            builder = new PackedMeshBuilder();
                             o = new MeshObject(splitLine[1], new ArrayList<>());
                             o.setMaterialName(splitLine[1]);
                             this.o.add(o);
                             break;
                         case "o": // new object found
+                            finishObject(o, builder);
+                            builder = new PackedMeshBuilder();
                             o = new MeshObject(splitLine[1], new ArrayList<>());
                             this.o.add(o);
                             break;
@@ -295,10 +428,10 @@ public class ObjReader {
                         case "f":
                             if (o != null && !v.isEmpty()) {
                                 if (!hasTexture) {
-                                    o.getMesh().getTris().add(buildTriangleNonTextured(splitLine));
+                                    addFace(builder, splitLine, false);
                                 } else {
                                     if (!vt.isEmpty()) {
-                                        o.getMesh().getTris().add(buildTriangleTextured(splitLine));
+                                        addFace(builder, splitLine, true);
                                     }
                                 }
                             }
@@ -307,6 +440,7 @@ public class ObjReader {
                 }
                 line = bf.readLine();
             }
+            finishObject(o, builder);
 
             return true;
         } catch ( NullPointerException e ) {
@@ -408,7 +542,12 @@ public class ObjReader {
                         for (String folder : splitPath) {
                             pathWithoutObj.append(folder).append("/");
                         }
-                        m.setImgName(pathWithoutObj + splitLine[1]);
+                        if ( loading ) {
+                            m.setImgName(pathWithoutObj + splitLine[1], false);
+                            requestTexture(m);
+                        } else {
+                            m.setImgName(pathWithoutObj + splitLine[1]);
+                        }
                     }
 
                 }
@@ -422,28 +561,113 @@ public class ObjReader {
         return false;
     }
 
-    public boolean load(String path) {
-        if (readObjFile(path, true)) {
-            if (readMtlFile(materialFileName)) {
-
-                LinkedHashMap<String, Material> m = materials.entrySet().stream().sorted((o1, o2) -> {
-                    int n1 = Integer.parseInt(o1.getKey().replaceAll("\\D+", "").trim());
-                    int n2 = Integer.parseInt(o2.getKey().replaceAll("\\D+","").trim());
-                    return Integer.compare(n1, n2);
-                }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+    /**
+     * This method starts to decode the texture of a material in the pool. An image
+     * used by many materials is decoded only once
+     * @param m the material
+     */
+    private void requestTexture(Material m) {
+        String imgName = m.getImgName();
+        if ( !textureLoads.containsKey(imgName) ) {
+            numTextures.incrementAndGet();
+            CompletableFuture<Texture> load = CompletableFuture.supplyAsync(() -> TextureCache.getDefault().get(imgName), pool);
+            load.whenComplete((texture, e) -> {
+                numTexturesLoaded.incrementAndGet();
+                reportProgress();
+            });
+            textureLoads.put(imgName, load);
+        }
+        texturedMaterials.add(m);
+    }
 
-                for (MeshObject meshObject : o) {
-                    meshObject.setMaterial(m.get(meshObject.getMaterialName()));
+    /**
+     * This method waits for the textures which are being decoded, and gives
+     * them to their materials
+     * @throws IllegalArgumentException if an image can't be read
+     */
+    private void awaitTextures() {
+        for ( Material m : texturedMaterials ) {
+            try {
+                m.setTexture(textureLoads.get(m.getImgName()).join());
+            } catch ( CompletionException e ) {
+                if ( e.getCause() instanceof RuntimeException ) {
+                    throw (RuntimeException) e.getCause();
                 }
+                throw e;
+            }
+        }
+    }
+
+    private void reportProgress() {
+        progressListener.accept(new LoadProgress(geometryLoaded, numTexturesLoaded.get(), numTextures.get()));
+    }
 
-                return true;
+    /**
+     * This method loads a model and its materials. The material files are read when
+     * the ".obj" file names them, and their textures are decoded in the pool while
+     * the geometry is read. It returns when both are done
+     * @param path the path of the ".obj" file
+     * @return true if the model and its materials were read
+     * @throws IllegalArgumentException if a texture can't be read
+     */
+    public boolean load(String path) {
+        loading = true;
+        materialsRead = false;
+        geometryLoaded = false;
+        textureLoads.clear();
+        texturedMaterials.clear();
+        numTexturesLoaded.set(0);
+        numTextures.set(0);
+        try {
+            if ( !readObjFile(path, true) ) {
+                return false;
             }
+            if ( !materialsRead ) {
+                return false;
+            }
+            geometryLoaded = true;
+            reportProgress();
+            awaitTextures();
+        } finally {
+            loading = false;
+            textureLoads.clear();
+            texturedMaterials.clear();
         }
-        return false;
+
+        LinkedHashMap<String, Material> m = materials.entrySet().stream().sorted((o1, o2) -> {
+            int n1 = Integer.parseInt(o1.getKey().replaceAll("\\D+", "").trim());
+            int n2 = Integer.parseInt(o2.getKey().replaceAll("\\D+","").trim());
+            return Integer.compare(n1, n2);
+        }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+
+        for (MeshObject meshObject : o) {
+            meshObject.setMaterial(m.get(meshObject.getMaterialName()));
+        }
+
+        return true;
     }
 
     public ArrayList<MeshObject> getObjects() {
         return o;
     }
 
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Consumer<LoadProgress> getProgressListener() {
+        return progressListener;
+    }
+
+    public void setProgressListener(Consumer<LoadProgress> progressListener) {
+        if ( progressListener == null ) {
+            throw new IllegalArgumentException("The progress listener can't be null");
+        }
+        this.progressListener = progressListener;
+    }
+
 }
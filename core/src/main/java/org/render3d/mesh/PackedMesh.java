@@ -0,0 +1,271 @@
+package org.render3d.mesh;
+
+import org.render3d.vectors.vec3d.Vec3df;
+import org.render3d.vectors.vec4d.Vec4df;
+
+/**
+ * This class represents a mesh stored as a structure of arrays.
+ * Instead of keeping one @Triangle object (with nine vectors) for every
+ * face, all the vertex attributes are packed in contiguous float arrays
+ * and the faces are described by an index array, three indices per triangle.
+ * The normals aren't shared: they are stored for each corner of each triangle,
+ * so the faces which meet at a hard edge keep their own normals. The color and
+ * the brightness of the triangles are only stored if any of them isn't the default.
+ *
+ * This layout produces far fewer objects on the heap and lets the pipeline
+ * walk the geometry linearly, which is friendlier to the CPU cache and to
+ * the garbage collector on big meshes.
+ *
+ * The @Mesh class keeps working as before: a packed mesh can be built from
+ * a @Mesh and converted back to one.
+ */
+public class PackedMesh {
+
+    /**
+     * Number of floats per position: x, y, z. The w value is always 1
+     */
+    public static final int POSITION_STRIDE = 3;
+
+    /**
+     * Number of floats per texture coordinate: u, v. The third value,
+     * needed for the texture correction, is always 1
+     */
+    public static final int UV_STRIDE = 2;
+
+    /**
+     * Number of floats per normal: x, y, z
+     */
+    public static final int NORMAL_STRIDE = 3;
+
+    /**
+     * The color of a triangle when none color is specified, as in @Triangle
+     */
+    public static final int DEFAULT_COLOR = 0xffffffff;
+
+    /**
+     * The brightness of a triangle when none is specified, as in @Triangle
+     */
+    public static final float DEFAULT_BRIGHTNESS = 1.0f;
+
+    /**
+     * The positions of the vertices, POSITION_STRIDE floats per vertex
+     */
+    private final float[] positions;
+
+    /**
+     * The texture coordinates of the vertices, UV_STRIDE floats per vertex
+     */
+    private final float[] uvs;
+
+    /**
+     * The normals of the corners of the triangles, NORMAL_STRIDE floats per index
+     */
+    private final float[] normals;
+
+    /**
+     * The indices of the vertices which form each triangle, three per triangle
+     */
+    private final int[] indices;
+
+    /**
+     * The color of each triangle, or null if all of them have the default color
+     */
+    private final int[] colors;
+
+    /**
+     * The brightness of each triangle, or null if all of them have the default brightness
+     */
+    private final float[] brightness;
+
+    /**
+     * The bounding volume of the vertices, calculated the first time it is needed
+     */
+    private volatile BoundingVolume bounds;
+
+    /**
+     * Constructor
+     * @param positions the positions, three floats per vertex
+     * @param uvs the texture coordinates, two floats per vertex
+     * @param normals the normals, three floats per index
+     * @param indices the vertex indices, three per triangle
+     */
+    public PackedMesh(float[] positions, float[] uvs, float[] normals, int[] indices) {
+        this(positions, uvs, normals, indices, null, null);
+    }
+
+    /**
+     * Constructor
+     * @param positions the positions, three floats per vertex
+     * @param uvs the texture coordinates, two floats per vertex
+     * @param normals the normals, three floats per index
+     * @param indices the vertex indices, three per triangle
+     * @param colors the color of each triangle, or null for the default color
+     * @param brightness the brightness of each triangle, or null for the default brightness
+     */
+    public PackedMesh(float[] positions, float[] uvs, float[] normals, int[] indices,
+                      int[] colors, float[] brightness) {
+        if ( positions.length % POSITION_STRIDE != 0 ) {
+            throw new IllegalArgumentException("The positions length must be a multiple of " + POSITION_STRIDE);
+        }
+        if ( indices.length % 3 != 0 ) {
+            throw new IllegalArgumentException("The indices length must be a multiple of 3");
+        }
+        int numVertices = positions.length / POSITION_STRIDE;
+        if ( uvs.length != numVertices * UV_STRIDE ) {
+            throw new IllegalArgumentException("The attribute arrays must describe the same number of vertices");
+        }
+        if ( normals.length != indices.length * NORMAL_STRIDE ) {
+            throw new IllegalArgumentException("There must be a normal for each index");
+        }
+        int numTriangles = indices.length / 3;
+        if ( (colors != null && colors.length != numTriangles)
+                || (brightness != null && brightness.length != numTriangles) ) {
+            throw new IllegalArgumentException("There must be a color and a brightness for each triangle");
+        }
+        this.positions = positions;
+        this.uvs = uvs;
+        this.normals = normals;
+        this.indices = indices;
+        this.colors = colors;
+        this.brightness = brightness;
+    }
+
+    /**
+     * Adapter constructor. It packs the triangles of a mesh, the
+     * vertices shared by several triangles are stored only once
+     * @param mesh the mesh to pack
+     */
+    public PackedMesh(Mesh mesh) {
+        this(pack(mesh));
+    }
+
+    /**
+     * Copy constructor. The arrays are shared, a packed mesh is never modified
+     * @param mesh the instance of the packed mesh to copy the values
+     */
+    public PackedMesh(PackedMesh mesh) {
+        this(mesh.positions, mesh.uvs, mesh.normals, mesh.indices, mesh.colors, mesh.brightness);
+    }
+
+    /**
+     * This method packs the triangles of a mesh
+     * @param mesh the mesh to pack
+     * @return the packed mesh
+     */
+    private static PackedMesh pack(Mesh mesh) {
+        PackedMeshBuilder builder = new PackedMeshBuilder();
+        for ( Triangle triangle : mesh.getTris() ) {
+            for ( int i = 0; i < 3; i++ ) {
+                Vec4df p = triangle.getP()[i];
+                Vec3df t = triangle.getT()[i];
+                Vec4df n = triangle.getN()[i];
+                builder.addVertex(p.getX(), p.getY(), p.getZ(), t.getX(), t.getY(), n.getX(), n.getY(), n.getZ());
+            }
+            builder.setTriangleColor(triangle.getColor(), triangle.getBrightness());
+        }
+        return builder.build();
+    }
+
+    /**
+     * This method builds the triangle number i of the packed mesh
+     * @param i the number of the triangle
+     * @return a new triangle with the values of the packed triangle
+     */
+    public Triangle getTriangle(int i) {
+        Vec4df[] p = new Vec4df[3];
+        Vec3df[] t = new Vec3df[3];
+        Vec4df[] n = new Vec4df[3];
+        for ( int k = 0; k < 3; k++ ) {
+            int corner = i * 3 + k;
+            int vertex = indices[corner];
+            p[k] = new Vec4df(
+                    positions[vertex * POSITION_STRIDE],
+                    positions[vertex * POSITION_STRIDE + 1],
+                    positions[vertex * POSITION_STRIDE + 2]);
+            t[k] = new Vec3df(
+                    uvs[vertex * UV_STRIDE],
+                    uvs[vertex * UV_STRIDE + 1]);
+            n[k] = new Vec4df(
+                    normals[corner * NORMAL_STRIDE],
+                    normals[corner * NORMAL_STRIDE + 1],
+                    normals[corner * NORMAL_STRIDE + 2]);
+        }
+        Triangle triangle = new Triangle(p, t, n);
+        if ( colors != null ) {
+            triangle.setColor(colors[i]);
+        }
+        if ( brightness != null ) {
+            triangle.setBrightness(brightness[i]);
+        }
+        return triangle;
+    }
+
+    /**
+     * Adapter method. It unpacks the packed mesh to a triangle based mesh
+     * @return a new mesh with the same triangles
+     */
+    public Mesh toMesh() {
+        Mesh mesh = new Mesh();
+        for ( int i = 0; i < getNumTriangles(); i++ ) {
+            mesh.getTris().add(getTriangle(i));
+        }
+        return mesh;
+    }
+
+    /**
+     * This method returns the bounding volume of the mesh. The packed mesh is never
+     * modified, so it is calculated only once
+     * @return the bounding volume of the vertices
+     */
+    public BoundingVolume getBounds() {
+        BoundingVolume result = bounds;
+        if ( result == null ) {
+            result = BoundingVolume.of(this);
+            bounds = result;
+        }
+        return result;
+    }
+
+    // --------------
+
+    public float[] getPositions() {
+        return positions;
+    }
+
+    public float[] getUvs() {
+        return uvs;
+    }
+
+    public float[] getNormals() {
+        return normals;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * The getter for the colors of the triangles
+     * @return the color of each triangle, or null if all of them have the default color
+     */
+    public int[] getColors() {
+        return colors;
+    }
+
+    /**
+     * The getter for the brightness of the triangles
+     * @return the brightness of each triangle, or null if all of them have the default brightness
+     */
+    public float[] getBrightness() {
+        return brightness;
+    }
+
+    public int getNumVertices() {
+        return positions.length / POSITION_STRIDE;
+    }
+
+    public int getNumTriangles() {
+        return indices.length / 3;
+    }
+
+}
@@ -0,0 +1,190 @@
+package org.render3d.mesh;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class builds an indexed @PackedMesh vertex by vertex.
+ * The vertices with exactly the same position and texture coordinates
+ * are stored only once in the vertex table, and the triangles reference
+ * them by index. The normals are not part of the key, because the pipeline
+ * doesn't read them, so the faceted normals of a model don't split its corners.
+ * Instead, the normal of each corner is kept next to its index, and the triangles
+ * unpacked from the mesh have the same normals as the faces which were added.
+ * In a closed mesh a vertex is usually shared by several faces, so the
+ * pipeline only has to transform it once per frame.
+ */
+public class PackedMeshBuilder {
+
+    /**
+     * The position and texture coordinates of one vertex. It is used
+     * as the key to find the vertices already added
+     */
+    private static final class Vertex {
+
+        private final float[] values;
+
+        private final int hash;
+
+        private Vertex(float[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof Vertex) ) {
+                return false;
+            }
+            return Arrays.equals(values, ((Vertex) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * The index of each unique vertex
+     */
+    private final HashMap<Vertex, Integer> vertices = new HashMap<>();
+
+    private float[] positions = new float[64 * PackedMesh.POSITION_STRIDE];
+
+    private float[] uvs = new float[64 * PackedMesh.UV_STRIDE];
+
+    private float[] normals = new float[64 * 3 * PackedMesh.NORMAL_STRIDE];
+
+    private int[] indices = new int[64 * 3];
+
+    /**
+     * The color of each triangle. It is allocated when a triangle
+     * has a color which isn't the default
+     */
+    private int[] colors;
+
+    /**
+     * The brightness of each triangle. It is allocated when a
+     * triangle has a brightness which isn't the default
+     */
+    private float[] brightness;
+
+    private int numVertices = 0;
+
+    private int numIndices = 0;
+
+    /**
+     * This method adds a corner of a triangle. If there is already a vertex
+     * with the same position and texture coordinates, that vertex is reused
+     * @return the index of the vertex
+     */
+    public int addVertex(float x, float y, float z, float u, float v, float nx, float ny, float nz) {
+        Vertex key = new Vertex(new float[] { x, y, z, u, v });
+        Integer index = vertices.get(key);
+        if ( index == null ) {
+            index = numVertices;
+            vertices.put(key, index);
+            ensureVertexCapacity(numVertices + 1);
+            positions[numVertices * PackedMesh.POSITION_STRIDE] = x;
+            positions[numVertices * PackedMesh.POSITION_STRIDE + 1] = y;
+            positions[numVertices * PackedMesh.POSITION_STRIDE + 2] = z;
+            uvs[numVertices * PackedMesh.UV_STRIDE] = u;
+            uvs[numVertices * PackedMesh.UV_STRIDE + 1] = v;
+            numVertices++;
+        }
+        if ( numIndices == indices.length ) {
+            indices = Arrays.copyOf(indices, indices.length * 2);
+            normals = Arrays.copyOf(normals, indices.length * PackedMesh.NORMAL_STRIDE);
+        }
+        normals[numIndices * PackedMesh.NORMAL_STRIDE] = nx;
+        normals[numIndices * PackedMesh.NORMAL_STRIDE + 1] = ny;
+        normals[numIndices * PackedMesh.NORMAL_STRIDE + 2] = nz;
+        indices[numIndices++] = index;
+        return index;
+    }
+
+    /**
+     * This method sets the color and the brightness of the last triangle,
+     * the one whose three corners were added the last
+     * @param color the color of the triangle
+     * @param brightness the brightness of the triangle
+     */
+    public void setTriangleColor(int color, float brightness) {
+        int triangle = numIndices / 3 - 1;
+        if ( triangle < 0 ) {
+            throw new IllegalStateException("There isn't any triangle");
+        }
+        if ( colors == null && color != PackedMesh.DEFAULT_COLOR ) {
+            colors = new int[indices.length / 3];
+            Arrays.fill(colors, PackedMesh.DEFAULT_COLOR);
+        }
+        if ( colors != null ) {
+            colors = ensureTriangleCapacity(colors);
+            colors[triangle] = color;
+        }
+        if ( this.brightness == null && brightness != PackedMesh.DEFAULT_BRIGHTNESS ) {
+            this.brightness = new float[indices.length / 3];
+            Arrays.fill(this.brightness, PackedMesh.DEFAULT_BRIGHTNESS);
+        }
+        if ( this.brightness != null ) {
+            this.brightness = ensureTriangleCapacity(this.brightness);
+            this.brightness[triangle] = brightness;
+        }
+    }
+
+    private int[] ensureTriangleCapacity(int[] values) {
+        if ( values.length * 3 >= indices.length ) {
+            return values;
+        }
+        int length = values.length;
+        values = Arrays.copyOf(values, indices.length / 3);
+        Arrays.fill(values, length, values.length, PackedMesh.DEFAULT_COLOR);
+        return values;
+    }
+
+    private float[] ensureTriangleCapacity(float[] values) {
+        if ( values.length * 3 >= indices.length ) {
+            return values;
+        }
+        int length = values.length;
+        values = Arrays.copyOf(values, indices.length / 3);
+        Arrays.fill(values, length, values.length, PackedMesh.DEFAULT_BRIGHTNESS);
+        return values;
+    }
+
+    private void ensureVertexCapacity(int capacity) {
+        if ( capacity * PackedMesh.POSITION_STRIDE > positions.length ) {
+            int newCapacity = Math.max(capacity, positions.length / PackedMesh.POSITION_STRIDE * 2);
+            positions = Arrays.copyOf(positions, newCapacity * PackedMesh.POSITION_STRIDE);
+            uvs = Arrays.copyOf(uvs, newCapacity * PackedMesh.UV_STRIDE);
+        }
+    }
+
+    /**
+     * This method builds the packed mesh with the vertices added until now
+     * @return a new packed mesh
+     */
+    public PackedMesh build() {
+        return new PackedMesh(
+                Arrays.copyOf(positions, numVertices * PackedMesh.POSITION_STRIDE),
+                Arrays.copyOf(uvs, numVertices * PackedMesh.UV_STRIDE),
+                Arrays.copyOf(normals, numIndices * PackedMesh.NORMAL_STRIDE),
+                Arrays.copyOf(indices, numIndices),
+                colors != null ? Arrays.copyOf(ensureTriangleCapacity(colors), numIndices / 3) : null,
+                brightness != null ? Arrays.copyOf(ensureTriangleCapacity(brightness), numIndices / 3) : null);
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public int getNumTriangles() {
+        return numIndices / 3;
+    }
+
+}
@@ -178,6 +178,23 @@ public class Triangle {
         this.brightness = triangle.getBrightness();
     }
 
+    /**
+     * This method copies the values of other triangle in this one,
+     * as the copy constructor does, but without new objects
+     *
+     * @param triangle the triangle to copy
+     */
+    public void set(Triangle triangle) {
+        this.p[0].set(triangle.getP()[0]);
+        this.p[1].set(triangle.getP()[1]);
+        this.p[2].set(triangle.getP()[2]);
+        this.t[0].set(triangle.getT()[0]);
+        this.t[1].set(triangle.getT()[1]);
+        this.t[2].set(triangle.getT()[2]);
+        this.color = triangle.getColor();
+        this.brightness = triangle.getBrightness();
+    }
+
     /**
      * Getter for the points
      *
@@ -0,0 +1,101 @@
+package org.render3d.mesh;
+
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.ArrayList;
+
+/**
+ * This class is a pool of triangles and vectors for the intermediate
+ * results of the pipeline. The objects are handed out one after another
+ * and they are all given back at once with the reset method, at the start
+ * of each frame. After the first frames the pool has grown enough and the
+ * render loop doesn't create new objects.
+ *
+ * The objects are reused as they are, so whoever obtains one has to
+ * overwrite all the values it needs. An arena must only be used by one thread.
+ */
+public class TriangleArena {
+
+    /**
+     * All the triangles created by the arena
+     */
+    private final ArrayList<Triangle> triangles = new ArrayList<>();
+
+    /**
+     * All the vectors created by the arena
+     */
+    private final ArrayList<Vec4df> vectors = new ArrayList<>();
+
+    /**
+     * The number of triangles in use
+     */
+    private int numTriangles = 0;
+
+    /**
+     * The number of vectors in use
+     */
+    private int numVectors = 0;
+
+    /**
+     * This method returns a triangle which is not in use. Its values are the ones
+     * of the last time it was used
+     * @return a triangle
+     */
+    public Triangle obtain() {
+        if ( numTriangles == triangles.size() ) {
+            triangles.add(new Triangle());
+        }
+        return triangles.get(numTriangles++);
+    }
+
+    /**
+     * This method returns a triangle which is not in use, with the
+     * same values as the triangle passed as parameter
+     * @param triangle the triangle to copy
+     * @return a copy of the triangle
+     */
+    public Triangle obtain(Triangle triangle) {
+        Triangle copy = obtain();
+        copy.set(triangle);
+        return copy;
+    }
+
+    /**
+     * This method gives back the last triangles obtained, when they
+     * have not been needed in the end
+     * @param count the number of triangles to give back
+     */
+    public void release(int count) {
+        numTriangles -= count;
+    }
+
+    /**
+     * This method returns a vector which is not in use. Its values are the ones
+     * of the last time it was used
+     * @return a vector
+     */
+    public Vec4df obtainVector() {
+        if ( numVectors == vectors.size() ) {
+            vectors.add(new Vec4df());
+        }
+        return vectors.get(numVectors++);
+    }
+
+    /**
+     * This method gives back all the triangles and vectors to the arena.
+     * The objects obtained before must not be used any more
+     */
+    public void reset() {
+        numTriangles = 0;
+        numVectors = 0;
+    }
+
+    public int getNumTriangles() {
+        return numTriangles;
+    }
+
+    public int getCapacity() {
+        return triangles.size();
+    }
+
+}
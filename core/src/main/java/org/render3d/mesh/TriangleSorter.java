@@ -0,0 +1,148 @@
+package org.render3d.mesh;
+
+import java.util.ArrayList;
+
+/**
+ * This class orders the projected triangles from the farthest to the nearest,
+ * by the average z value of their three points.
+ *
+ * The depth key of each triangle is calculated only once and stored in a
+ * primitive array. The keys are ordered with a LSD radix sort, a byte per pass,
+ * and the result is an index permutation. The radix sort is stable, so the
+ * triangles with the same depth keep the order they had, as with the comparator sort.
+ *
+ * The arrays are reused from one call to the next, they only grow.
+ * A sorter must only be used by one thread.
+ */
+public class TriangleSorter {
+
+    /**
+     * The number of bits ordered in each pass
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * The number of buckets of each pass
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * The number of passes needed for a 32 bits key
+     */
+    private static final int PASSES = 32 / RADIX_BITS;
+
+    /**
+     * The depth key of each triangle
+     */
+    private int[] keys = new int[0];
+
+    /**
+     * The index permutation
+     */
+    private int[] indices = new int[0];
+
+    /**
+     * The keys of the previous pass
+     */
+    private int[] tmpKeys = new int[0];
+
+    /**
+     * The indices of the previous pass
+     */
+    private int[] tmpIndices = new int[0];
+
+    /**
+     * The histogram of each pass
+     */
+    private final int[] counts = new int[RADIX * PASSES];
+
+    /**
+     * This method calculates the depth key of a triangle. The keys are ordered
+     * as unsigned integers: the farther the triangle, the smaller the key.
+     * The order is the same as the Float.compare order of the average z, reversed
+     * @param triangle the projected triangle
+     * @return the depth key
+     */
+    public static int depthKey(Triangle triangle) {
+        float medZ = (triangle.getP()[0].getZ() + triangle.getP()[1].getZ() + triangle.getP()[2].getZ()) / 3.0f;
+        int bits = Float.floatToIntBits(medZ);
+        // Negative values flip all the bits, positive values only the sign bit
+        bits ^= (bits >> 31) | 0x80000000;
+        return ~bits;
+    }
+
+    /**
+     * This method orders the triangles from the farthest to the nearest.
+     * The list is not modified
+     * @param triangles the projected triangles
+     * @return the index permutation: the first size() positions contain the indices
+     * of the triangles in the order they have to be drawn. The array is reused
+     * by the next call
+     */
+    public int[] sort(ArrayList<Triangle> triangles) {
+        int n = triangles.size();
+        ensureCapacity(n);
+
+        for ( int i = 0; i < counts.length; i++ ) {
+            counts[i] = 0;
+        }
+
+        for ( int i = 0; i < n; i++ ) {
+            int key = depthKey(triangles.get(i));
+            keys[i] = key;
+            indices[i] = i;
+            for ( int pass = 0; pass < PASSES; pass++ ) {
+                counts[pass * RADIX + ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+
+        for ( int pass = 0; pass < PASSES && n > 0; pass++ ) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+
+            // All the keys have the same byte, the pass wouldn't move anything
+            if ( counts[offset + ((keys[0] >>> shift) & (RADIX - 1))] == n ) {
+                continue;
+            }
+
+            int position = 0;
+            for ( int bucket = 0; bucket < RADIX; bucket++ ) {
+                int count = counts[offset + bucket];
+                counts[offset + bucket] = position;
+                position += count;
+            }
+
+            for ( int i = 0; i < n; i++ ) {
+                int key = keys[i];
+                int destination = counts[offset + ((key >>> shift) & (RADIX - 1))]++;
+                tmpKeys[destination] = key;
+                tmpIndices[destination] = indices[i];
+            }
+
+            int[] swap = keys;
+            keys = tmpKeys;
+            tmpKeys = swap;
+
+            swap = indices;
+            indices = tmpIndices;
+            tmpIndices = swap;
+        }
+
+        return indices;
+    }
+
+    /**
+     * This method makes sure the arrays are big enough
+     * @param n the number of triangles to order
+     */
+    private void ensureCapacity(int n) {
+        if ( keys.length < n ) {
+            int capacity = Math.max(n, keys.length * 2);
+            keys = new int[capacity];
+            indices = new int[capacity];
+            tmpKeys = new int[capacity];
+            tmpIndices = new int[capacity];
+        }
+    }
+
+}
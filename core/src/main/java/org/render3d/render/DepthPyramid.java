@@ -0,0 +1,241 @@
+package org.render3d.render;
+
+/**
+ * This class keeps a coarse copy of the depth buffer in two levels: the farthest
+ * depth of each tile of TILE_SIZE x TILE_SIZE pixels, and the farthest depth of each
+ * block of BLOCK_SIZE x BLOCK_SIZE tiles. The depth buffer stores 1 / w, so the
+ * farthest depth is the minimum value.
+ *
+ * A triangle whose nearest depth is not bigger than the farthest depth of all the
+ * tiles it covers can't pass the depth test in any pixel, so it can be discarded
+ * without being rasterized.
+ *
+ * The depth values only grow until the depth buffer is cleared, so a farthest depth
+ * calculated before some pixels were written is still a lower bound: it can only
+ * discard less, never more. When a pixel is written its tile and its block are only
+ * marked, and they are calculated again the next time a whole triangle is tested
+ * against them. For the same reason, several threads can share the pyramid: a tile
+ * calculated while other thread writes on it can only get a smaller farthest depth.
+ */
+final class DepthPyramid {
+
+    /**
+     * The size in pixels of the side of the tiles
+     */
+    static final int TILE_SIZE = 8;
+
+    /**
+     * The number of bits to shift a pixel coordinate to get its tile
+     */
+    private static final int TILE_SHIFT = 3;
+
+    /**
+     * The size in tiles of the side of the blocks
+     */
+    static final int BLOCK_SIZE = 8;
+
+    /**
+     * The number of bits to shift a tile coordinate to get its block
+     */
+    private static final int BLOCK_SHIFT = 3;
+
+    /**
+     * The depth buffer
+     */
+    private final float[] depthBuffer;
+
+    /**
+     * The size of the depth buffer
+     */
+    private final int width;
+
+    private final int height;
+
+    /**
+     * The number of tiles in each axis
+     */
+    private final int tilesX;
+
+    private final int tilesY;
+
+    /**
+     * The number of blocks in each axis
+     */
+    private final int blocksX;
+
+    private final int blocksY;
+
+    /**
+     * The farthest depth of each tile
+     */
+    private final float[] tileFarthest;
+
+    /**
+     * The tiles with pixels written after their farthest depth was calculated
+     */
+    private final boolean[] tileDirty;
+
+    /**
+     * The farthest depth of each block
+     */
+    private final float[] blockFarthest;
+
+    /**
+     * The blocks with pixels written after their farthest depth was calculated
+     */
+    private final boolean[] blockDirty;
+
+    /**
+     * Constructor
+     * @param depthBuffer the depth buffer
+     * @param width the width of the depth buffer
+     * @param height the height of the depth buffer
+     */
+    DepthPyramid(float[] depthBuffer, int width, int height) {
+        this.depthBuffer = depthBuffer;
+        this.width = width;
+        this.height = height;
+        tilesX = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+        tilesY = (height + TILE_SIZE - 1) >> TILE_SHIFT;
+        blocksX = (tilesX + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        blocksY = (tilesY + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        tileFarthest = new float[tilesX * tilesY];
+        tileDirty = new boolean[tilesX * tilesY];
+        blockFarthest = new float[blocksX * blocksY];
+        blockDirty = new boolean[blocksX * blocksY];
+    }
+
+    /**
+     * This method sets the pyramid to the cleared depth buffer, where all the values are 0
+     */
+    void clear() {
+        for ( int i = 0; i < tileFarthest.length; i++ ) {
+            tileFarthest[i] = 0.0f;
+            tileDirty[i] = false;
+        }
+        for ( int i = 0; i < blockFarthest.length; i++ ) {
+            blockFarthest[i] = 0.0f;
+            blockDirty[i] = false;
+        }
+    }
+
+    /**
+     * This method marks the tile and the block of a pixel whose depth has been written
+     * @param x the x coordinate of the pixel
+     * @param y the y coordinate of the pixel
+     */
+    void markWritten(int x, int y) {
+        int tx = x >> TILE_SHIFT;
+        int ty = y >> TILE_SHIFT;
+        tileDirty[ty * tilesX + tx] = true;
+        blockDirty[(ty >> BLOCK_SHIFT) * blocksX + (tx >> BLOCK_SHIFT)] = true;
+    }
+
+    /**
+     * This method says if the pixels of the tile of a pixel are all nearer than a depth.
+     * It doesn't calculate the tile again, so it is fast enough to be called for every span
+     * @param x the x coordinate of the pixel
+     * @param y the y coordinate of the pixel
+     * @param nearest the nearest depth of the triangle
+     * @return true if no pixel of the tile can pass the depth test
+     */
+    boolean isTileOccluded(int x, int y, float nearest) {
+        return tileFarthest[(y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT)] >= nearest;
+    }
+
+    /**
+     * This method says if all the tiles of a rectangle are nearer than a depth.
+     * First the blocks are tested, and only the tiles of the blocks which
+     * are not completely nearer are tested one by one. The marked blocks
+     * and tiles are calculated again before they are tested
+     * @param minX the left side of the rectangle, included
+     * @param minY the top side of the rectangle, included
+     * @param maxX the right side of the rectangle, included
+     * @param maxY the bottom side of the rectangle, included
+     * @param nearest the nearest depth of the triangle
+     * @return true if no pixel of the rectangle can pass the depth test
+     */
+    boolean isRectangleOccluded(int minX, int minY, int maxX, int maxY, float nearest) {
+        int minTileX = minX >> TILE_SHIFT;
+        int minTileY = minY >> TILE_SHIFT;
+        int maxTileX = maxX >> TILE_SHIFT;
+        int maxTileY = maxY >> TILE_SHIFT;
+
+        for ( int by = minTileY >> BLOCK_SHIFT; by <= maxTileY >> BLOCK_SHIFT; by++ ) {
+            for ( int bx = minTileX >> BLOCK_SHIFT; bx <= maxTileX >> BLOCK_SHIFT; bx++ ) {
+                int block = by * blocksX + bx;
+                if ( blockDirty[block] ) {
+                    updateBlock(bx, by);
+                }
+                if ( blockFarthest[block] >= nearest ) {
+                    continue;
+                }
+
+                int fromY = Math.max(minTileY, by << BLOCK_SHIFT);
+                int toY = Math.min(maxTileY, ((by + 1) << BLOCK_SHIFT) - 1);
+                int fromX = Math.max(minTileX, bx << BLOCK_SHIFT);
+                int toX = Math.min(maxTileX, ((bx + 1) << BLOCK_SHIFT) - 1);
+                for ( int ty = fromY; ty <= toY; ty++ ) {
+                    for ( int tx = fromX; tx <= toX; tx++ ) {
+                        int tile = ty * tilesX + tx;
+                        if ( tileDirty[tile] ) {
+                            updateTile(tx, ty);
+                        }
+                        if ( tileFarthest[tile] < nearest ) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method calculates again the farthest depth of a block
+     * @param bx the x coordinate of the block
+     * @param by the y coordinate of the block
+     */
+    private void updateBlock(int bx, int by) {
+        int block = by * blocksX + bx;
+        blockDirty[block] = false;
+        float farthest = Float.POSITIVE_INFINITY;
+        int toY = Math.min(tilesY, (by + 1) << BLOCK_SHIFT);
+        int toX = Math.min(tilesX, (bx + 1) << BLOCK_SHIFT);
+        for ( int ty = by << BLOCK_SHIFT; ty < toY; ty++ ) {
+            for ( int tx = bx << BLOCK_SHIFT; tx < toX; tx++ ) {
+                int tile = ty * tilesX + tx;
+                if ( tileDirty[tile] ) {
+                    updateTile(tx, ty);
+                }
+                if ( tileFarthest[tile] < farthest ) {
+                    farthest = tileFarthest[tile];
+                }
+            }
+        }
+        blockFarthest[block] = farthest;
+    }
+
+    /**
+     * This method calculates again the farthest depth of a tile
+     * @param tx the x coordinate of the tile
+     * @param ty the y coordinate of the tile
+     */
+    private void updateTile(int tx, int ty) {
+        int tile = ty * tilesX + tx;
+        tileDirty[tile] = false;
+        float farthest = Float.POSITIVE_INFINITY;
+        int toY = Math.min(height, (ty + 1) << TILE_SHIFT);
+        int toX = Math.min(width, (tx + 1) << TILE_SHIFT);
+        for ( int y = ty << TILE_SHIFT; y < toY; y++ ) {
+            int row = y * width;
+            for ( int x = tx << TILE_SHIFT; x < toX; x++ ) {
+                if ( depthBuffer[row + x] < farthest ) {
+                    farthest = depthBuffer[row + x];
+                }
+            }
+        }
+        tileFarthest[tile] = farthest;
+    }
+
+}
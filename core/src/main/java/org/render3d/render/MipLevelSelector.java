@@ -0,0 +1,87 @@
+package org.render3d.render;
+
+import org.render3d.material.Texture;
+
+/**
+ * This class chooses the mip level of the texture for the pixels of a triangle.
+ *
+ * The texture coordinates divided by w (u / w, v / w) and 1 / w change linearly on the
+ * screen, so their derivatives in x and y are the same for all the pixels of a triangle
+ * and they are calculated once. With them the derivatives of the texture coordinates are
+ * calculated at any pixel, and the level is the base 2 logarithm of the number of texels
+ * which fall on one pixel, rounded to the nearest level.
+ *
+ * The derivatives of a triangle are kept in six floats: d(u/w)/dx, d(u/w)/dy, d(v/w)/dx,
+ * d(v/w)/dy, d(1/w)/dx and d(1/w)/dy.
+ */
+final class MipLevelSelector {
+
+    /**
+     * The number of floats of the derivatives of a triangle
+     */
+    static final int GRADIENT_SIZE = 6;
+
+    private MipLevelSelector() {
+    }
+
+    /**
+     * This method calculates the derivatives of the texture coordinates of a triangle
+     * on the screen. They are 0 if the triangle has no area
+     * @param gradients the array where the derivatives are written
+     * @param offset the position of the first derivative in the array
+     */
+    static void computeGradients(
+            int x1, int y1, float u1, float v1, float w1,
+            int x2, int y2, float u2, float v2, float w2,
+            int x3, int y3, float u3, float v3, float w3,
+            float[] gradients, int offset) {
+        int area = (x2 - x1) * (y3 - y1) - (x3 - x1) * (y2 - y1);
+        if ( area == 0 ) {
+            for ( int i = 0; i < GRADIENT_SIZE; i++ ) {
+                gradients[offset + i] = 0.0f;
+            }
+            return;
+        }
+        float invArea = 1.0f / area;
+        gradients[offset] = ((u2 - u1) * (y3 - y1) - (u3 - u1) * (y2 - y1)) * invArea;
+        gradients[offset + 1] = ((u3 - u1) * (x2 - x1) - (u2 - u1) * (x3 - x1)) * invArea;
+        gradients[offset + 2] = ((v2 - v1) * (y3 - y1) - (v3 - v1) * (y2 - y1)) * invArea;
+        gradients[offset + 3] = ((v3 - v1) * (x2 - x1) - (v2 - v1) * (x3 - x1)) * invArea;
+        gradients[offset + 4] = ((w2 - w1) * (y3 - y1) - (w3 - w1) * (y2 - y1)) * invArea;
+        gradients[offset + 5] = ((w3 - w1) * (x2 - x1) - (w2 - w1) * (x3 - x1)) * invArea;
+    }
+
+    /**
+     * This method chooses the mip level of a pixel
+     * @param gradients the derivatives of the triangle
+     * @param offset the position of the first derivative in the array
+     * @param tex_u the u / w texture coordinate of the pixel
+     * @param tex_v the v / w texture coordinate of the pixel
+     * @param tex_w the 1 / w value of the pixel
+     * @param texture the texture
+     * @return the level, from 0 to the number of levels of the texture minus 1
+     */
+    static int selectLevel(float[] gradients, int offset, float tex_u, float tex_v, float tex_w, Texture texture) {
+        int levels = texture.getNumMipLevels();
+        if ( levels == 1 || !(tex_w > 0.0f) ) {
+            return 0;
+        }
+        float invW = 1.0f / tex_w;
+        float u = tex_u * invW;
+        float v = tex_v * invW;
+        float scaleU = invW * texture.getW();
+        float scaleV = invW * texture.getH();
+        float dudx = (gradients[offset] - u * gradients[offset + 4]) * scaleU;
+        float dudy = (gradients[offset + 1] - u * gradients[offset + 5]) * scaleU;
+        float dvdx = (gradients[offset + 2] - v * gradients[offset + 4]) * scaleV;
+        float dvdy = (gradients[offset + 3] - v * gradients[offset + 5]) * scaleV;
+        float rho2 = Math.max(dudx * dudx + dvdx * dvdx, dudy * dudy + dvdy * dvdy);
+        if ( !(rho2 > 1.0f) ) {
+            return 0;
+        }
+        // The exponent of rho^2 is 2 * log2(rho), so half of it rounded is the nearest level
+        int level = (Math.getExponent(rho2) + 1) >> 1;
+        return Math.min(level, levels - 1);
+    }
+
+}
@@ -1,19 +1,14 @@
 package org.render3d.render;
 
-import javafx.scene.image.Image;
-import javafx.scene.image.PixelFormat;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 
 public class PixelRenderer {
 
     /**
-     * Array of pixels
+     * Array of pixels. It is only replaced between frames, by a swap chain
      */
-    protected final int[] p;
+    protected int[] p;
 
     /**
      * Canvas width
@@ -35,12 +30,17 @@ public class PixelRenderer {
      */
     protected int zDepth = 0;
 
-    public PixelRenderer(int pW, int pH) {
-        this.pW = pW;
-        this.pH = pH;
+    /**
+     * The scissor rectangle. Only the pixels from (clipX0, clipY0)
+     * included to (clipX1, clipY1) excluded are drawn
+     */
+    protected final int clipX0;
+    protected final int clipY0;
+    protected final int clipX1;
+    protected final int clipY1;
 
-        this.p = new int[pW * pH];
-        zb = new int[p.length];
+    public PixelRenderer(int pW, int pH) {
+        this(new int[pW * pH], pW, pH);
     }
 
     public PixelRenderer(int[] p, int pW, int pH) {
@@ -49,6 +49,33 @@ public class PixelRenderer {
         this.pH = pH;
 
         zb = new int[p.length];
+
+        clipX0 = 0;
+        clipY0 = 0;
+        clipX1 = pW;
+        clipY1 = pH;
+    }
+
+    /**
+     * The view constructor. The new renderer draws on the same pixel array
+     * of the renderer passed as parameter, but only inside the scissor rectangle.
+     * Two views with disjoint rectangles can draw at the same time from different threads
+     * @param renderer the renderer which owns the pixel array
+     * @param clipX0 the left side of the rectangle, included
+     * @param clipY0 the top side of the rectangle, included
+     * @param clipX1 the right side of the rectangle, excluded
+     * @param clipY1 the bottom side of the rectangle, excluded
+     */
+    protected PixelRenderer(PixelRenderer renderer, int clipX0, int clipY0, int clipX1, int clipY1) {
+        this.p = renderer.p;
+        this.pW = renderer.pW;
+        this.pH = renderer.pH;
+        this.zb = renderer.zb;
+
+        this.clipX0 = Math.max(0, clipX0);
+        this.clipY0 = Math.max(0, clipY0);
+        this.clipX1 = Math.min(pW, clipX1);
+        this.clipY1 = Math.min(pH, clipY1);
     }
 
     /**
@@ -107,7 +134,7 @@ public class PixelRenderer {
      */
     public void setPixel(int x, int y, int color) {
         int alpha = ((color >> 24) & 0xff);
-        if ( (x < 0 || x >= pW || y < 0 || y >= pH) || alpha == 0 ) { // value == 0xffff00ff
+        if ( (x < clipX0 || x >= clipX1 || y < clipY0 || y >= clipY1) || alpha == 0 ) { // value == 0xffff00ff
             return;
         }
         int index = x + y * pW;
@@ -427,7 +454,7 @@ public class PixelRenderer {
         }
 
         if ( dy1 != 0 ) {
-            for ( int i = y1; i <= y2; i++ )
+            for ( int i = Math.max(y1, clipY0); i <= Math.min(y2, clipY1 - 1); i++ )
             {
                 int ax = (int)(x1 + (float)(i - y1) * dax_step);
                 int bx = (int)(x1 + (float)(i - y1) * dbx_step);
@@ -438,7 +465,7 @@ public class PixelRenderer {
                     bx = tempInteger;
                 }
 
-                for (int j = ax; j < bx; j++) {
+                for (int j = Math.max(ax, clipX0); j < Math.min(bx, clipX1); j++) {
                     int index = i * pW + j;
                     if (index < p.length) {
                         setPixel(j, i, color);
@@ -459,7 +486,7 @@ public class PixelRenderer {
 
         if ( dy1 != 0 )
         {
-            for (int i = y2; i <= y3; i++)
+            for (int i = Math.max(y2, clipY0); i <= Math.min(y3, clipY1 - 1); i++)
             {
                 int ax = (int)(x2 + (float)(i - y2) * dax_step);
                 int bx = (int)(x1 + (float)(i - y1) * dbx_step);
@@ -470,7 +497,7 @@ public class PixelRenderer {
                     bx = tempInteger;
                 }
 
-                for (int j = ax; j < bx; j++) {
+                for (int j = Math.max(ax, clipX0); j < Math.min(bx, clipX1); j++) {
                     int index = i * pW + j;
                     if (index < p.length) {
                         setPixel(j, i, color);
@@ -502,35 +529,4 @@ public class PixelRenderer {
         this.zDepth = zDepth;
     }
 
-    // Method to make a Writable Image from the pixel array
-
-    public Image makeImage() {
-        WritableImage img = new WritableImage(getW(), getH());
-        img.getPixelWriter().setPixels(
-                0, 0,
-                getW(), getH(),
-                PixelFormat.getIntArgbInstance(),
-                getP(),
-                0, getW());
-        return img;
-    }
-
-    public void writeImage(PixelWriter pw) {
-        pw.setPixels(
-                0, 0,
-                getW(), getH(),
-                PixelFormat.getIntArgbInstance(),
-                getP(),
-                0, getW());
-    }
-
-    public void writeImage(WritableImage img) {
-        img.getPixelWriter().setPixels(
-                0, 0,
-                getW(), getH(),
-                PixelFormat.getIntArgbInstance(),
-                getP(),
-                0, getW());
-    }
-
 }
@@ -0,0 +1,1896 @@
+package org.render3d.render;
+
+import org.render3d.RasterizerType;
+import org.render3d.RenderFlags;
+import org.render3d.ShadingMode;
+import org.render3d.material.Texture;
+import org.render3d.material.TextureAddressMode;
+import org.render3d.material.TextureFilter;
+import org.render3d.mesh.Triangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class PixelRenderer3D extends PixelRenderer {
+
+    /**
+     * The depth buffer
+     */
+    private final float[] depthBuffer;
+
+    /**
+     * The farthest depth of each tile of the depth buffer, to discard hidden triangles
+     */
+    private final DepthPyramid depthPyramid;
+
+    /**
+     * If true, the triangles and the spans of tiles behind the depth buffer are discarded
+     * before they are rasterized. When it is false, the written tiles aren't marked either:
+     * the depth only gets nearer during a frame, so the old minimums stay valid bounds
+     */
+    private boolean hierarchicalZ = true;
+
+    /**
+     * The relative margin added to the nearest depth of a triangle. The interpolated
+     * depth of a pixel can be a little bigger than the depth of the vertices, by rounding
+     */
+    private static final float HI_Z_EPSILON = 1.0e-4f;
+
+    /**
+     * The minimum area in pixels of the bounding box of a triangle to be tested against
+     * the depth pyramid. The small triangles are drawn faster than they are tested
+     */
+    private static final int HI_Z_MIN_AREA = 1024;
+
+    /**
+     * If true, the pixels which reach the depth test are counted
+     */
+    private boolean pixelCounting = false;
+
+    /**
+     * The pixels which reached the depth test, failed it and passed it,
+     * since the counters were reset. Each tile has its own counters
+     */
+    private long numPixelsTested = 0;
+
+    private long numPixelsRejected = 0;
+
+    private long numPixelsWritten = 0;
+
+    /**
+     * The render flag
+     */
+    private RenderFlags renderFlag = RenderFlags.RENDER_TEXTURED_SHADOW;
+
+    /**
+     * The algorithm used to fill the triangles
+     */
+    private RasterizerType rasterizerType = RasterizerType.SCANLINE;
+
+    /**
+     * When the textured triangles are shaded
+     */
+    private ShadingMode shadingMode = ShadingMode.FORWARD;
+
+    /**
+     * The nearest triangle of each pixel, waiting to be shaded. It is created
+     * the first time the visibility buffer shading mode is used
+     */
+    private VisibilityBuffer visibilityBuffer;
+
+    /**
+     * The identifier of the triangle which is being drawn into the visibility
+     * buffer, or -1 if the triangle is shaded while it is drawn
+     */
+    private int visibilityId = -1;
+
+    /**
+     * If true, the textures are sampled from the mip level which fits
+     * the size of the triangle on the screen
+     */
+    private boolean mipmapping = true;
+
+    /**
+     * If true, the mip level is chosen for the triangle which is being drawn
+     */
+    private boolean mipLevelSelection = false;
+
+    /**
+     * The derivatives of the texture coordinates of the triangle which is being drawn
+     */
+    private final float[] gradients = new float[MipLevelSelector.GRADIENT_SIZE];
+
+    /**
+     * How the texture of the triangles which are being drawn is sampled
+     */
+    private TextureFilter textureFilter = TextureFilter.NEAREST;
+
+    /**
+     * How the positions outside of the texture of the triangles which are being drawn are sampled
+     */
+    private TextureAddressMode textureAddressMode = TextureAddressMode.CLAMP;
+
+    /**
+     * The default size in pixels of the side of the tiles
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    /**
+     * If true, the triangles are binned into screen tiles
+     * and the tiles are rasterized in parallel
+     */
+    private boolean tiledRendering = false;
+
+    /**
+     * The size in pixels of the side of the tiles
+     */
+    private int tileSize = DEFAULT_TILE_SIZE;
+
+    /**
+     * The pool where the tiles are rasterized
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * The number of tiles in the x axis
+     */
+    private int numTilesX;
+
+    /**
+     * The number of tiles in the y axis
+     */
+    private int numTilesY;
+
+    /**
+     * One renderer for each tile. They share the pixel array and the depth
+     * buffer with this renderer, but each one only draws inside its tile
+     */
+    private PixelRenderer3D[] tiles;
+
+    /**
+     * The indices of the triangles which overlap each tile, in the same order they are drawn
+     */
+    private int[][] bins;
+
+    /**
+     * The number of triangles of each bin
+     */
+    private int[] binSizes;
+
+    /**
+     * The constructor
+     */
+    public PixelRenderer3D(int[] p, int pW, int pH) {
+        super(p, pW, pH);
+        depthBuffer = new float[pW * pH];
+        depthPyramid = new DepthPyramid(depthBuffer, pW, pH);
+        clearDepthBuffer();
+    }
+
+    public PixelRenderer3D(int pW, int pH) {
+        super(pW, pH);
+        depthBuffer = new float[pW * pH];
+        depthPyramid = new DepthPyramid(depthBuffer, pW, pH);
+        clearDepthBuffer();
+    }
+
+    /**
+     * The tile constructor. The tile draws on the pixel array and the
+     * depth buffer of the renderer passed as parameter, only inside the rectangle
+     * @param renderer the renderer which owns the pixel array and the depth buffer
+     * @param x0 the left side of the tile, included
+     * @param y0 the top side of the tile, included
+     * @param x1 the right side of the tile, excluded
+     * @param y1 the bottom side of the tile, excluded
+     */
+    private PixelRenderer3D(PixelRenderer3D renderer, int x0, int y0, int x1, int y1) {
+        super(renderer, x0, y0, x1, y1);
+        depthBuffer = renderer.depthBuffer;
+        depthPyramid = renderer.depthPyramid;
+    }
+
+    /**
+     * This method clears all the screen with
+     * the color passed as parameter
+     *
+     * Before it works well only with the method
+     * "Arrays.fill(p, color)"
+     *
+     * @param color the color for clear all the screen
+     */
+    public void clear(int color) {
+        // The pixels waiting to be shaded would be covered by the color
+        if ( visibilityBuffer != null ) {
+            visibilityBuffer.clear();
+        }
+        Arrays.fill(p, color);
+    }
+
+    /**
+     * This method clears all the screen with
+     * black
+     */
+    public void clear() {
+        clear(0xff000000);
+    }
+
+    /**
+     * This method clears all the depth buffer, and sets all the values to 0
+     */
+    public void clearDepthBuffer() {
+        resolveVisibilityBuffer();
+        for ( int i = 0; i < getW() * getH(); i++ ) {
+            depthBuffer[i] = 0.0f;
+        }
+        depthPyramid.clear();
+    }
+
+    /**
+     * This method is really important. This setPixel method has in account
+     * the depthBuffer, so all methods what use this setPixel have to have
+     * an associate depth value for the pixel which is going to be drawn
+     *
+     * All methods of this class (the Renderer3D) have to rely on this
+     *
+     * @param x the x coordinate on screen to draw the pixel
+     * @param y the y coordinate on screen to drawn the pixel
+     * @param depth the associate depth value of this pixel
+     * @param color the color what is wanted to draw
+     */
+    private void setPixel(int x, int y, float depth, int color) {
+        if ( !isInsideClip(x, y) ) {
+            return;
+        }
+        if ( depth > depthBuffer[y * getW() + x] ) {
+            super.setPixel(x, y, color);
+            depthBuffer[y * getW() + x] = depth;
+            if ( hierarchicalZ ) {
+                depthPyramid.markWritten(x, y);
+            }
+            countPixel(true);
+        } else {
+            countPixel(false);
+        }
+    }
+
+    /**
+     * This method counts a pixel which has reached the depth test
+     * @param written true if the pixel has passed the depth test
+     */
+    private void countPixel(boolean written) {
+        if ( pixelCounting ) {
+            numPixelsTested++;
+            if ( written ) {
+                numPixelsWritten++;
+            } else {
+                numPixelsRejected++;
+            }
+        }
+    }
+
+    /**
+     * This method checks if the pixel is inside the scissor rectangle
+     * @param x the x coordinate on screen
+     * @param y the y coordinate on screen
+     * @return true if the pixel can be drawn by this renderer
+     */
+    private boolean isInsideClip(int x, int y) {
+        return x >= clipX0 && x < clipX1 && y >= clipY0 && y < clipY1;
+    }
+
+    /**
+     * This method calculates the nearest depth a triangle can write, with a margin
+     * @param w1 the depth of the point one
+     * @param w2 the depth of the point two
+     * @param w3 the depth of the point three
+     * @return the biggest depth, plus the margin
+     */
+    private static float nearestDepth(float w1, float w2, float w3) {
+        float nearest = Math.max(w1, Math.max(w2, w3));
+        return nearest + Math.abs(nearest) * HI_Z_EPSILON + Float.MIN_NORMAL;
+    }
+
+    /**
+     * This method says if a triangle is big enough to be tested against the depth pyramid
+     * @return true if the hierarchical z is enabled and the triangle is big enough
+     */
+    private boolean isHierarchicalZWorthIt(int x1, int y1, int x2, int y2, int x3, int y3) {
+        if ( !hierarchicalZ ) {
+            return false;
+        }
+        int width = Math.max(x1, Math.max(x2, x3)) - Math.min(x1, Math.min(x2, x3)) + 1;
+        int height = Math.max(y1, Math.max(y2, y3)) - Math.min(y1, Math.min(y2, y3)) + 1;
+        return (long) width * height >= HI_Z_MIN_AREA;
+    }
+
+    /**
+     * This method says if a triangle is completely behind the depth buffer.
+     * The depth of the triangle is interpolated between the depths of its points,
+     * so no pixel is nearer than the nearest point
+     * @param nearest the nearest depth of the triangle
+     * @return true if no pixel of the triangle can pass the depth test
+     */
+    private boolean isTriangleOccluded(int x1, int y1, int x2, int y2, int x3, int y3, float nearest) {
+        int minX = Math.max(clipX0, Math.min(x1, Math.min(x2, x3)));
+        int minY = Math.max(clipY0, Math.min(y1, Math.min(y2, y3)));
+        int maxX = Math.min(clipX1 - 1, Math.max(x1, Math.max(x2, x3)));
+        int maxY = Math.min(clipY1 - 1, Math.max(y1, Math.max(y2, y3)));
+        if ( minX > maxX || minY > maxY ) {
+            return false;
+        }
+        return depthPyramid.isRectangleOccluded(minX, minY, maxX, maxY, nearest);
+    }
+
+    /**
+     * This method says if a pixel is the first one of the span or the first one of a tile
+     * @param x the x coordinate of the pixel
+     * @param start the x coordinate of the first pixel of the span
+     * @return true if the occlusion of the span has to be tested again
+     */
+    private static boolean isTileStart(int x, int start) {
+        return x == start || (x & (DepthPyramid.TILE_SIZE - 1)) == 0;
+    }
+
+    /**
+     * This method pretends to change the input color by the light source
+     * @param inputColor the input color to change
+     * @param light the light
+     * @return returns the color but more brigtness o darkness
+     */
+    private int calculateColor(int inputColor, float light) {
+        int a = ((inputColor >> 24) & 0xff);
+        int r = ((inputColor >> 16) & 0xff);
+        int g = ((inputColor >>  8) & 0xff);
+        int b = ((inputColor      ) & 0xff);
+        light = Math.max(0.1f, light);
+        int newR = (int)(light * r);
+        int newG = (int)(light * g);
+        int newB = (int)(light * b);
+        return (a << 24 | newR << 16 | newG << 8 | newB);
+    }
+
+    private void setPixelForTriangle(int y, int x, float w, float brightness, int color) {
+        if ( !isInsideClip(x, y) ) {
+            return;
+        }
+
+        color = calculateColor(color, brightness);
+
+        if ( w > depthBuffer[y * getW() + x] ) {
+            setPixel(x, y, color);
+            depthBuffer[y * getW() + x] = w;
+            if ( hierarchicalZ ) {
+                depthPyramid.markWritten(x, y);
+            }
+            countPixel(true);
+        } else {
+            countPixel(false);
+        }
+    }
+
+    private int getSample(float x, float y, Texture img) {
+        return getSample(x, y, img, textureFilter, textureAddressMode);
+    }
+
+    /**
+     * This method reads a sample of a texture
+     * @param x the X position of the sample, from 0 to 1 inside of the texture
+     * @param y the Y position of the sample, from 0 to 1 inside of the texture
+     * @param img the texture
+     * @param filter how the texture is sampled
+     * @param addressMode how the positions outside of the texture are sampled
+     * @return the sample
+     */
+    private static int getSample(float x, float y, Texture img, TextureFilter filter, TextureAddressMode addressMode) {
+        if ( filter == TextureFilter.BILINEAR ) {
+            return img.getBilinearSample(x, y, addressMode);
+        }
+        return img.getSample(x, y, addressMode);
+    }
+
+    /**
+     * This method gives the mip level of the texture for a pixel of the triangle
+     * which is being drawn
+     * @param tex_u the u / w texture coordinate of the pixel
+     * @param tex_v the v / w texture coordinate of the pixel
+     * @param tex_w the 1 / w value of the pixel
+     * @param texture the texture
+     * @return the texture of the level, or the texture itself if no level is chosen
+     */
+    private Texture selectMipLevel(float tex_u, float tex_v, float tex_w, Texture texture) {
+        if ( !mipLevelSelection ) {
+            return texture;
+        }
+        return texture.getMipLevel(MipLevelSelector.selectLevel(gradients, 0, tex_u, tex_v, tex_w, texture));
+    }
+
+    /**
+     * This method sets the correspondent pixel of the triangle to
+     * the pixel from the texture bitmap.
+     * @param y the y value of the pixel
+     * @param x the x value of the pixel
+     * @param tex_u value x fot the texture
+     * @param tex_v value y for the texture
+     * @param tex_w value z for the texture, needed for perspective projection
+     * @param texture the texture, which is a bitmap image
+     */
+    private void setPixelForTexturedTriangle(int y, int x,
+                                             float tex_u, float tex_v, float tex_w,
+                                             float brightness,
+                                             Texture texture) {
+        if ( !isInsideClip(x, y) ) {
+            return;
+        }
+
+        // The depth is tested before reading the texture, the hidden pixels are not sampled
+        if ( !(tex_w > depthBuffer[y * getW() + x]) ) {
+            countPixel(false);
+            return;
+        }
+        countPixel(true);
+
+        // Deferred texturing: only the visibility is written, the pixel is shaded later
+        if ( visibilityId >= 0 ) {
+            depthBuffer[y * getW() + x] = tex_w;
+            if ( hierarchicalZ ) {
+                depthPyramid.markWritten(x, y);
+            }
+            visibilityBuffer.set(y * getW() + x, visibilityId, tex_u, tex_v);
+            return;
+        }
+
+        int color = calculateColor(getSample(tex_u / tex_w, tex_v / tex_w, texture), brightness);
+        setPixel(x, y, color);
+        depthBuffer[y * getW() + x] = tex_w;
+        if ( hierarchicalZ ) {
+            depthPyramid.markWritten(x, y);
+        }
+    }
+
+    /**
+     * This method draws a textured triangle. Code copied from Javidx9 video
+     * Code-It-Yourself! 3D Graphics Engine Part #4 - Texturing & depth buffers.
+     * https://www.youtube.com/watch?v=nBzCS-Y0FcY&t=1722s
+     * @param x1 x value for point one of triangle
+     * @param y1 y value for point one of triangle
+     * @param u1 x value for texture point one of triangle
+     * @param v1 y value for texture point one of triangle
+     * @param w1 z value for texture point one of triangle
+     * @param x2 x value for point two of triangle
+     * @param y2 y value for point two of triangle
+     * @param u2 x value for texture point two of triangle
+     * @param v2 y value for texture point two of triangle
+     * @param w2 z value for texture point two of triangle
+     * @param x3 x value for point three of triangle
+     * @param y3 y value for point three of triangle
+     * @param u3 x value for texture point three triangle
+     * @param v3 y value for texture point three triangle
+     * @param w3 z value for texture point three triangle
+     * @param brightness the brightness of the triangle
+     * @param texture the image texture
+     */
+    private void drawTexturedShadowTriangle(
+            int x1, int y1, float u1, float v1, float w1,
+            int x2, int y2, float u2, float v2, float w2,
+            int x3, int y3, float u3, float v3, float w3,
+            float brightness,
+            Texture texture) {
+        float nearest = nearestDepth(w1, w2, w3);
+        boolean hiZ = isHierarchicalZWorthIt(x1, y1, x2, y2, x3, y3);
+        if ( hiZ && isTriangleOccluded(x1, y1, x2, y2, x3, y3, nearest) ) {
+            return;
+        }
+
+        // The visibility buffer chooses the level when the pixels are shaded
+        mipLevelSelection = mipmapping && visibilityId < 0 && texture.getNumMipLevels() > 1;
+        if ( mipLevelSelection ) {
+            MipLevelSelector.computeGradients(
+                    x1, y1, u1, v1, w1,
+                    x2, y2, u2, v2, w2,
+                    x3, y3, u3, v3, w3,
+                    gradients, 0);
+        }
+
+        if ( rasterizerType == RasterizerType.EDGE_FUNCTION ) {
+            drawEdgeTriangle(
+                    x1, y1, u1, v1, w1,
+                    x2, y2, u2, v2, w2,
+                    x3, y3, u3, v3, w3,
+                    brightness,
+                    texture, 0
+            );
+            return;
+        }
+
+        if (y2 < y1) {
+            int tempInteger = y1;
+            y1 = y2;
+            y2 = tempInteger;
+
+            tempInteger = x1;
+            x1 = x2;
+            x2 = tempInteger;
+
+            float tempFloat = u1;
+            u1 = u2;
+            u2 = tempFloat;
+
+            tempFloat = v1;
+            v1 = v2;
+            v2 = tempFloat;
+
+            tempFloat = w1;
+            w1 = w2;
+            w2 = tempFloat;
+        }
+
+        if (y3 < y1) {
+            int tempInteger = y1;
+            y1 = y3;
+            y3 = tempInteger;
+
+            tempInteger = x1;
+            x1 = x3;
+            x3 = tempInteger;
+
+            float tempFloat = u1;
+            u1 = u3;
+            u3 = tempFloat;
+
+            tempFloat = v1;
+            v1 = v3;
+            v3 = tempFloat;
+
+            tempFloat = w1;
+            w1 = w3;
+            w3 = tempFloat;
+        }
+
+        if (y3 < y2) {
+            int tempInteger = y2;
+            y2 = y3;
+            y3 = tempInteger;
+
+            tempInteger = x2;
+            x2 = x3;
+            x3 = tempInteger;
+
+            float tempFloat = u2;
+            u2 = u3;
+            u3 = tempFloat;
+
+            tempFloat = v2;
+            v2 = v3;
+            v3 = tempFloat;
+
+            tempFloat = w2;
+            w2 = w3;
+            w3 = tempFloat;
+        }
+
+        int dy1 = y2 - y1;
+        int dx1 = x2 - x1;
+        float dv1 = v2 - v1;
+        float du1 = u2 - u1;
+        float dw1 = w2 - w1;
+
+        int dy2 = y3 - y1;
+        int dx2 = x3 - x1;
+        float dv2 = v3 - v1;
+        float du2 = u3 - u1;
+        float dw2 = w3 - w1;
+
+        float tex_u, tex_v, tex_w;
+
+        float dax_step = 0, dbx_step = 0, du1_step = 0, dv1_step = 0, du2_step = 0, dv2_step = 0, dw1_step = 0, dw2_step = 0;
+
+        if ( dy1 != 0 ) {
+            dax_step = dx1 / (float)Math.abs(dy1);
+        }
+        if ( dy2 != 0 ) {
+            dbx_step = dx2 / (float)Math.abs(dy2);
+        }
+
+        if ( dy1 != 0 ) {
+            du1_step = du1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dv1_step = dv1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dw1_step = dw1 / (float)Math.abs(dy1);
+        }
+
+        if ( dy2 != 0 ) {
+            du2_step = du2 / (float)Math.abs(dy2);
+        }
+        if ( dy2 != 0 ) {
+            dv2_step = dv2 / (float)Math.abs(dy2);
+        }
+        if ( dy2 != 0 ) {
+            dw2_step = dw2 / (float)Math.abs(dy2);
+        }
+
+        if ( dy1 != 0 ) {
+            for ( int i = Math.max(y1, clipY0); i <= Math.min(y2, clipY1 - 1); i++ ) {
+                int ax = (int)(x1 + (float)(i - y1) * dax_step);
+                int bx = (int)(x1 + (float)(i - y1) * dbx_step);
+
+                float tex_su = u1 + (float)(i - y1) * du1_step;
+                float tex_sv = v1 + (float)(i - y1) * dv1_step;
+                float tex_sw = w1 + (float)(i - y1) * dw1_step;
+
+                float tex_eu = u1 + (float)(i - y1) * du2_step;
+                float tex_ev = v1 + (float)(i - y1) * dv2_step;
+                float tex_ew = w1 + (float)(i - y1) * dw2_step;
+
+                if ( ax > bx ) {
+                    int tempInteger = ax;
+                    ax = bx;
+                    bx = tempInteger;
+
+                    float tempFloat = tex_su;
+                    tex_su = tex_eu;
+                    tex_eu = tempFloat;
+
+                    tempFloat = tex_sv;
+                    tex_sv = tex_ev;
+                    tex_ev = tempFloat;
+
+                    tempFloat = tex_sw;
+                    tex_sw = tex_ew;
+                    tex_ew = tempFloat;
+                }
+
+                tex_u = tex_su;
+                tex_v = tex_sv;
+                tex_w = tex_sw;
+
+                float tstep = 1.0f / ((float)(bx - ax));
+
+                // t is computed from the start of the span, even outside the
+                // scissor rectangle, so every tile draws the same values
+                int start = Math.max(ax, clipX0);
+
+                // The level is chosen once per span, in the middle of it
+                Texture spanTexture = selectMipLevel(
+                        (tex_su + tex_eu) * 0.5f, (tex_sv + tex_ev) * 0.5f, (tex_sw + tex_ew) * 0.5f, texture);
+
+                boolean occluded = false;
+                for (int j = start; j < Math.min(bx, clipX1); j++) {
+                    if ( hiZ && isTileStart(j, start) ) {
+                        occluded = depthPyramid.isTileOccluded(j, i, nearest);
+                    }
+                    if ( !occluded ) {
+                        float t = (j - ax) * tstep;
+                        tex_u = (1.0f - t) * tex_su + t * tex_eu;
+                        tex_v = (1.0f - t) * tex_sv + t * tex_ev;
+                        tex_w = (1.0f - t) * tex_sw + t * tex_ew;
+
+                        setPixelForTexturedTriangle(i, j, tex_u, tex_v, tex_w, brightness, spanTexture);
+                    }
+                }
+            }
+        }
+
+        dy1 = y3 - y2;
+        dx1 = x3 - x2;
+        dv1 = v3 - v2;
+        du1 = u3 - u2;
+        dw1 = w3 - w2;
+
+        if ( dy1 != 0 ) {
+            dax_step = dx1 / (float)Math.abs(dy1);
+        }
+        if ( dy2 != 0 ) {
+            dbx_step = dx2 / (float)Math.abs(dy2);
+        }
+
+        du1_step = 0;
+        dv1_step = 0;
+        if ( dy1 != 0 ) {
+            du1_step = du1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dv1_step = dv1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dw1_step = dw1 / (float)Math.abs(dy1);
+        }
+
+        if ( dy1 != 0 ) {
+            for (int i = Math.max(y2, clipY0); i <= Math.min(y3, clipY1 - 1); i++) {
+                int ax = (int)(x2 + (float)(i - y2) * dax_step);
+                int bx = (int)(x1 + (float)(i - y1) * dbx_step);
+
+                float tex_su = u2 + (float)(i - y2) * du1_step;
+                float tex_sv = v2 + (float)(i - y2) * dv1_step;
+                float tex_sw = w2 + (float)(i - y2) * dw1_step;
+
+                float tex_eu = u1 + (float)(i - y1) * du2_step;
+                float tex_ev = v1 + (float)(i - y1) * dv2_step;
+                float tex_ew = w1 + (float)(i - y1) * dw2_step;
+
+                if (ax > bx) {
+                    int tempInteger = ax;
+                    ax = bx;
+                    bx = tempInteger;
+
+                    float tempFloat = tex_su;
+                    tex_su = tex_eu;
+                    tex_eu = tempFloat;
+
+                    tempFloat = tex_sv;
+                    tex_sv = tex_ev;
+                    tex_ev = tempFloat;
+
+                    tempFloat = tex_sw;
+                    tex_sw = tex_ew;
+                    tex_ew = tempFloat;
+                }
+
+                tex_u = tex_su;
+                tex_v = tex_sv;
+                tex_w = tex_sw;
+
+                float tstep = 1.0f / ((float)(bx - ax));
+
+                // t is computed from the start of the span, even outside the
+                // scissor rectangle, so every tile draws the same values
+                int start = Math.max(ax, clipX0);
+
+                // The level is chosen once per span, in the middle of it
+                Texture spanTexture = selectMipLevel(
+                        (tex_su + tex_eu) * 0.5f, (tex_sv + tex_ev) * 0.5f, (tex_sw + tex_ew) * 0.5f, texture);
+
+                boolean occluded = false;
+                for (int j = start; j < Math.min(bx, clipX1); j++) {
+                    if ( hiZ && isTileStart(j, start) ) {
+                        occluded = depthPyramid.isTileOccluded(j, i, nearest);
+                    }
+                    if ( !occluded ) {
+                        float t = (j - ax) * tstep;
+                        tex_u = (1.0f - t) * tex_su + t * tex_eu;
+                        tex_v = (1.0f - t) * tex_sv + t * tex_ev;
+                        tex_w = (1.0f - t) * tex_sw + t * tex_ew;
+
+                        setPixelForTexturedTriangle(i, j, tex_u, tex_v, tex_w, brightness, spanTexture);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This method draws a filled triangle. Code copied from Javidx9 video
+     * Code-It-Yourself! 3D Graphics Engine Part #4 - Texturing & depth buffers.
+     * https://www.youtube.com/watch?v=nBzCS-Y0FcY&t=1722s
+     * @param x1 x value for point one of triangle
+     * @param y1 y value for point one of triangle
+     * @param u1 x value for texture point one of triangle
+     * @param v1 y value for texture point one of triangle
+     * @param w1 z value for texture point one of triangle
+     * @param x2 x value for point two of triangle
+     * @param y2 y value for point two of triangle
+     * @param u2 x value for texture point two of triangle
+     * @param v2 y value for texture point two of triangle
+     * @param w2 z value for texture point two of triangle
+     * @param x3 x value for point three of triangle
+     * @param y3 y value for point three of triangle
+     * @param u3 x value for texture point three triangle
+     * @param v3 y value for texture point three triangle
+     * @param w3 z value for texture point three triangle
+     * @param brightness the brightness of the triangle
+     * @param color the color of the triangle
+     */
+    private void drawFillTriangle(
+            int x1, int y1, float u1, float v1, float w1,
+            int x2, int y2, float u2, float v2, float w2,
+            int x3, int y3, float u3, float v3, float w3,
+            float brightness,
+            int color) {
+        float nearest = nearestDepth(w1, w2, w3);
+        boolean hiZ = isHierarchicalZWorthIt(x1, y1, x2, y2, x3, y3);
+        if ( hiZ && isTriangleOccluded(x1, y1, x2, y2, x3, y3, nearest) ) {
+            return;
+        }
+
+        if ( rasterizerType == RasterizerType.EDGE_FUNCTION ) {
+            drawEdgeTriangle(
+                    x1, y1, u1, v1, w1,
+                    x2, y2, u2, v2, w2,
+                    x3, y3, u3, v3, w3,
+                    brightness,
+                    null, color
+            );
+            return;
+        }
+
+        if (y2 < y1) {
+            int tempInteger = y1;
+            y1 = y2;
+            y2 = tempInteger;
+
+            tempInteger = x1;
+            x1 = x2;
+            x2 = tempInteger;
+
+            float tempFloat = u1;
+            u1 = u2;
+            u2 = tempFloat;
+
+            tempFloat = v1;
+            v1 = v2;
+            v2 = tempFloat;
+
+            tempFloat = w1;
+            w1 = w2;
+            w2 = tempFloat;
+        }
+
+        if (y3 < y1) {
+            int tempInteger = y1;
+            y1 = y3;
+            y3 = tempInteger;
+
+            tempInteger = x1;
+            x1 = x3;
+            x3 = tempInteger;
+
+            float tempFloat = u1;
+            u1 = u3;
+            u3 = tempFloat;
+
+            tempFloat = v1;
+            v1 = v3;
+            v3 = tempFloat;
+
+            tempFloat = w1;
+            w1 = w3;
+            w3 = tempFloat;
+        }
+
+        if (y3 < y2) {
+            int tempInteger = y2;
+            y2 = y3;
+            y3 = tempInteger;
+
+            tempInteger = x2;
+            x2 = x3;
+            x3 = tempInteger;
+
+            float tempFloat = u2;
+            u2 = u3;
+            u3 = tempFloat;
+
+            tempFloat = v2;
+            v2 = v3;
+            v3 = tempFloat;
+
+            tempFloat = w2;
+            w2 = w3;
+            w3 = tempFloat;
+        }
+
+        int dy1 = y2 - y1;
+        int dx1 = x2 - x1;
+        float dv1 = v2 - v1;
+        float du1 = u2 - u1;
+        float dw1 = w2 - w1;
+
+        int dy2 = y3 - y1;
+        int dx2 = x3 - x1;
+        float dv2 = v3 - v1;
+        float du2 = u3 - u1;
+        float dw2 = w3 - w1;
+
+        float tex_u, tex_v, tex_w;
+
+        float dax_step = 0, dbx_step = 0, du1_step = 0, dv1_step = 0, du2_step = 0, dv2_step = 0, dw1_step = 0, dw2_step = 0;
+
+        if ( dy1 != 0 ) {
+            dax_step = dx1 / (float)Math.abs(dy1);
+        }
+        if ( dy2 != 0 ) {
+            dbx_step = dx2 / (float)Math.abs(dy2);
+        }
+
+        if ( dy1 != 0 ) {
+            du1_step = du1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dv1_step = dv1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dw1_step = dw1 / (float)Math.abs(dy1);
+        }
+
+        if ( dy2 != 0 ) {
+            du2_step = du2 / (float)Math.abs(dy2);
+        }
+        if ( dy2 != 0 ) {
+            dv2_step = dv2 / (float)Math.abs(dy2);
+        }
+        if ( dy2 != 0 ) {
+            dw2_step = dw2 / (float)Math.abs(dy2);
+        }
+
+        if ( dy1 != 0 ) {
+            for ( int i = Math.max(y1, clipY0); i <= Math.min(y2, clipY1 - 1); i++ ) {
+                int ax = (int)(x1 + (float)(i - y1) * dax_step);
+                int bx = (int)(x1 + (float)(i - y1) * dbx_step);
+
+                float tex_su = u1 + (float)(i - y1) * du1_step;
+                float tex_sv = v1 + (float)(i - y1) * dv1_step;
+                float tex_sw = w1 + (float)(i - y1) * dw1_step;
+
+                float tex_eu = u1 + (float)(i - y1) * du2_step;
+                float tex_ev = v1 + (float)(i - y1) * dv2_step;
+                float tex_ew = w1 + (float)(i - y1) * dw2_step;
+
+                if ( ax > bx ) {
+                    int tempInteger = ax;
+                    ax = bx;
+                    bx = tempInteger;
+
+                    float tempFloat = tex_su;
+                    tex_su = tex_eu;
+                    tex_eu = tempFloat;
+
+                    tempFloat = tex_sv;
+                    tex_sv = tex_ev;
+                    tex_ev = tempFloat;
+
+                    tempFloat = tex_sw;
+                    tex_sw = tex_ew;
+                    tex_ew = tempFloat;
+                }
+
+                tex_u = tex_su;
+                tex_v = tex_sv;
+                tex_w = tex_sw;
+
+                float tstep = 1.0f / ((float)(bx - ax));
+
+                // t is computed from the start of the span, even outside the
+                // scissor rectangle, so every tile draws the same values
+                int start = Math.max(ax, clipX0);
+
+                boolean occluded = false;
+                for (int j = start; j < Math.min(bx, clipX1); j++) {
+                    if ( hiZ && isTileStart(j, start) ) {
+                        occluded = depthPyramid.isTileOccluded(j, i, nearest);
+                    }
+                    if ( !occluded ) {
+                        float t = (j - ax) * tstep;
+                        tex_u = (1.0f - t) * tex_su + t * tex_eu;
+                        tex_v = (1.0f - t) * tex_sv + t * tex_ev;
+                        tex_w = (1.0f - t) * tex_sw + t * tex_ew;
+
+                        setPixelForTriangle(i, j, tex_w, brightness, color);
+                    }
+                }
+            }
+        }
+
+        dy1 = y3 - y2;
+        dx1 = x3 - x2;
+        dv1 = v3 - v2;
+        du1 = u3 - u2;
+        dw1 = w3 - w2;
+
+        if ( dy1 != 0 ) {
+            dax_step = dx1 / (float)Math.abs(dy1);
+        }
+        if ( dy2 != 0 ) {
+            dbx_step = dx2 / (float)Math.abs(dy2);
+        }
+
+        du1_step = 0;
+        dv1_step = 0;
+        if ( dy1 != 0 ) {
+            du1_step = du1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dv1_step = dv1 / (float)Math.abs(dy1);
+        }
+        if ( dy1 != 0 ) {
+            dw1_step = dw1 / (float)Math.abs(dy1);
+        }
+
+        if ( dy1 != 0 ) {
+            for (int i = Math.max(y2, clipY0); i <= Math.min(y3, clipY1 - 1); i++) {
+                int ax = (int)(x2 + (float)(i - y2) * dax_step);
+                int bx = (int)(x1 + (float)(i - y1) * dbx_step);
+
+                float tex_su = u2 + (float)(i - y2) * du1_step;
+                float tex_sv = v2 + (float)(i - y2) * dv1_step;
+                float tex_sw = w2 + (float)(i - y2) * dw1_step;
+
+                float tex_eu = u1 + (float)(i - y1) * du2_step;
+                float tex_ev = v1 + (float)(i - y1) * dv2_step;
+                float tex_ew = w1 + (float)(i - y1) * dw2_step;
+
+                if (ax > bx) {
+                    int tempInteger = ax;
+                    ax = bx;
+                    bx = tempInteger;
+
+                    float tempFloat = tex_su;
+                    tex_su = tex_eu;
+                    tex_eu = tempFloat;
+
+                    tempFloat = tex_sv;
+                    tex_sv = tex_ev;
+                    tex_ev = tempFloat;
+
+                    tempFloat = tex_sw;
+                    tex_sw = tex_ew;
+                    tex_ew = tempFloat;
+                }
+
+                tex_u = tex_su;
+                tex_v = tex_sv;
+                tex_w = tex_sw;
+
+                float tstep = 1.0f / ((float)(bx - ax));
+
+                // t is computed from the start of the span, even outside the
+                // scissor rectangle, so every tile draws the same values
+                int start = Math.max(ax, clipX0);
+
+                boolean occluded = false;
+                for (int j = start; j < Math.min(bx, clipX1); j++) {
+                    if ( hiZ && isTileStart(j, start) ) {
+                        occluded = depthPyramid.isTileOccluded(j, i, nearest);
+                    }
+                    if ( !occluded ) {
+                        float t = (j - ax) * tstep;
+                        tex_u = (1.0f - t) * tex_su + t * tex_eu;
+                        tex_v = (1.0f - t) * tex_sv + t * tex_ev;
+                        tex_w = (1.0f - t) * tex_sw + t * tex_ew;
+
+                        setPixelForTriangle(i, j, tex_w, brightness, color);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This method says if an edge is a top or a left edge, for the top-left fill rule.
+     * The pixels just on a top or left edge are drawn, the ones on a bottom or
+     * right edge are not, so two triangles sharing an edge never draw the same pixel
+     * @param stepX the increment of the edge function for one pixel in x
+     * @param stepY the increment of the edge function for one pixel in y
+     * @return true if the edge is a top or a left edge
+     */
+    private static boolean isTopLeftEdge(int stepX, int stepY) {
+        return stepX > 0 || (stepX == 0 && stepY > 0);
+    }
+
+    /**
+     * This method finds the first pixel of a row which is inside the three edge functions.
+     * It is solved from the edge functions, without walking the row
+     * @param x the x of the pixel where the edge functions are given
+     * @param e1 the edge function 1 at that pixel
+     * @param stepX1 the increment of the edge function 1 for one pixel in x
+     * @param e2 the edge function 2 at that pixel
+     * @param stepX2 the increment of the edge function 2 for one pixel in x
+     * @param e3 the edge function 3 at that pixel
+     * @param stepX3 the increment of the edge function 3 for one pixel in x
+     * @param from the first pixel of the row which is searched
+     * @param to the last pixel of the row which is searched
+     * @return the x of the first pixel inside, or a value greater than to if there is none
+     */
+    private static int firstPixelInside(int x, int e1, int stepX1, int e2, int stepX2, int e3, int stepX3,
+                                        int from, int to) {
+        int first = Math.max(from, Math.max(firstPixelInside(x, e1, stepX1),
+                Math.max(firstPixelInside(x, e2, stepX2), firstPixelInside(x, e3, stepX3))));
+        int last = Math.min(to, Math.min(lastPixelInside(x, e1, stepX1),
+                Math.min(lastPixelInside(x, e2, stepX2), lastPixelInside(x, e3, stepX3))));
+        return first <= last ? first : Integer.MAX_VALUE;
+    }
+
+    /**
+     * This method finds the first pixel of a row where an edge function isn't negative
+     * @param x the x of the pixel where the edge function is given
+     * @param e the edge function at that pixel
+     * @param stepX the increment of the edge function for one pixel in x
+     * @return the x of the first pixel, Integer.MIN_VALUE if the edge function decreases,
+     * or Integer.MAX_VALUE if the whole row is outside
+     */
+    private static int firstPixelInside(int x, int e, int stepX) {
+        if ( stepX > 0 ) {
+            return x - Math.floorDiv(e, stepX);
+        }
+        if ( stepX == 0 && e < 0 ) {
+            return Integer.MAX_VALUE;
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * This method finds the last pixel of a row where an edge function isn't negative
+     * @param x the x of the pixel where the edge function is given
+     * @param e the edge function at that pixel
+     * @param stepX the increment of the edge function for one pixel in x
+     * @return the x of the last pixel, or Integer.MAX_VALUE if the edge function doesn't decrease
+     */
+    private static int lastPixelInside(int x, int e, int stepX) {
+        if ( stepX < 0 ) {
+            return x + Math.floorDiv(e, -stepX);
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * This method draws a triangle with edge functions (half-space rasterization).
+     * Each edge function is positive on the inner side of one edge. They are evaluated
+     * with integers once at the corner of the bounding box and then they are stepped
+     * with one integer addition per pixel and per row. A pixel is inside the triangle
+     * when the three of them are positive.
+     *
+     * The edge functions divided by the doubled area of the triangle are the barycentric
+     * coordinates of the pixel, which are used to interpolate the depth and the texture.
+     * The parameters are the same as the ones of the scanline methods
+     * @param brightness the brightness of the triangle
+     * @param texture the image texture, or null to fill the triangle with the color
+     * @param color the color of the triangle when there is no texture
+     */
+    private void drawEdgeTriangle(
+            int x1, int y1, float u1, float v1, float w1,
+            int x2, int y2, float u2, float v2, float w2,
+            int x3, int y3, float u3, float v3, float w3,
+            float brightness,
+            Texture texture,
+            int color) {
+        int area = (x2 - x1) * (y3 - y1) - (y2 - y1) * (x3 - x1);
+        if ( area == 0 ) {
+            return;
+        }
+        if ( area < 0 ) {
+            int tempInteger = x2;
+            x2 = x3;
+            x3 = tempInteger;
+
+            tempInteger = y2;
+            y2 = y3;
+            y3 = tempInteger;
+
+            float tempFloat = u2;
+            u2 = u3;
+            u3 = tempFloat;
+
+            tempFloat = v2;
+            v2 = v3;
+            v3 = tempFloat;
+
+            tempFloat = w2;
+            w2 = w3;
+            w3 = tempFloat;
+
+            area = -area;
+        }
+
+        int triangleMinX = Math.min(x1, Math.min(x2, x3));
+        int triangleMaxX = Math.max(x1, Math.max(x2, x3));
+        int minX = Math.max(clipX0, triangleMinX);
+        int minY = Math.max(clipY0, Math.min(y1, Math.min(y2, y3)));
+        int maxX = Math.min(clipX1 - 1, triangleMaxX);
+        int maxY = Math.min(clipY1 - 1, Math.max(y1, Math.max(y2, y3)));
+        if ( minX > maxX || minY > maxY ) {
+            return;
+        }
+
+        // The increments of the edge functions for one pixel in x and for one row in y.
+        // The edge function 1 is the one opposite to the point 1, and so on
+        int stepX1 = y2 - y3;
+        int stepY1 = x3 - x2;
+        int stepX2 = y3 - y1;
+        int stepY2 = x1 - x3;
+        int stepX3 = y1 - y2;
+        int stepY3 = x2 - x1;
+
+        // The pixels on the bottom and right edges are outside
+        int bias1 = isTopLeftEdge(stepX1, stepY1) ? 0 : -1;
+        int bias2 = isTopLeftEdge(stepX2, stepY2) ? 0 : -1;
+        int bias3 = isTopLeftEdge(stepX3, stepY3) ? 0 : -1;
+
+        int row1 = (x3 - x2) * (minY - y2) - (y3 - y2) * (minX - x2) + bias1;
+        int row2 = (x1 - x3) * (minY - y3) - (y1 - y3) * (minX - x3) + bias2;
+        int row3 = (x2 - x1) * (minY - y1) - (y2 - y1) * (minX - x1) + bias3;
+
+        float invArea = 1.0f / area;
+        float nearest = nearestDepth(w1, w2, w3);
+        boolean hiZ = isHierarchicalZWorthIt(x1, y1, x2, y2, x3, y3);
+
+        for ( int i = minY; i <= maxY; i++ ) {
+            int e1 = row1;
+            int e2 = row2;
+            int e3 = row3;
+
+            // The level is chosen once per row, at its first pixel inside the triangle.
+            // The pixel is found even outside the scissor rectangle, so every tile draws the same values
+            Texture rowTexture = texture;
+            if ( texture != null ) {
+                int first = firstPixelInside(minX, row1, stepX1, row2, stepX2, row3, stepX3, triangleMinX, triangleMaxX);
+                if ( first <= triangleMaxX ) {
+                    float l1 = (row1 + stepX1 * (first - minX) - bias1) * invArea;
+                    float l2 = (row2 + stepX2 * (first - minX) - bias2) * invArea;
+                    float l3 = 1.0f - l1 - l2;
+                    rowTexture = selectMipLevel(
+                            l1 * u1 + l2 * u2 + l3 * u3, l1 * v1 + l2 * v2 + l3 * v3, l1 * w1 + l2 * w2 + l3 * w3, texture);
+                }
+            }
+            boolean occluded = false;
+            for ( int j = minX; j <= maxX; j++ ) {
+                if ( hiZ && isTileStart(j, minX) ) {
+                    occluded = depthPyramid.isTileOccluded(j, i, nearest);
+                }
+                if ( !occluded && (e1 | e2 | e3) >= 0 ) {
+                    // The barycentric coordinates of the pixel
+                    float l1 = (e1 - bias1) * invArea;
+                    float l2 = (e2 - bias2) * invArea;
+                    float l3 = 1.0f - l1 - l2;
+
+                    float tex_w = l1 * w1 + l2 * w2 + l3 * w3;
+                    if ( texture != null ) {
+                        float tex_u = l1 * u1 + l2 * u2 + l3 * u3;
+                        float tex_v = l1 * v1 + l2 * v2 + l3 * v3;
+                        setPixelForTexturedTriangle(i, j, tex_u, tex_v, tex_w, brightness, rowTexture);
+                    } else {
+                        setPixelForTriangle(i, j, tex_w, brightness, color);
+                    }
+                }
+
+                e1 += stepX1;
+                e2 += stepX2;
+                e3 += stepX3;
+            }
+
+            row1 += stepY1;
+            row2 += stepY2;
+            row3 += stepY3;
+        }
+    }
+
+    private void drawFlatTriangle(Triangle triangle, int color) {
+        drawFillTriangle(
+                (int)triangle.getP()[0].getX(), (int)triangle.getP()[0].getY(),
+                (int)triangle.getT()[0].getX(), (int)triangle.getT()[0].getY(), (int)triangle.getT()[0].getZ(),
+                (int)triangle.getP()[1].getX(), (int)triangle.getP()[1].getY(),
+                (int)triangle.getT()[1].getX(), (int)triangle.getT()[1].getY(), (int)triangle.getT()[1].getZ(),
+                (int)triangle.getP()[2].getX(), (int)triangle.getP()[2].getY(),
+                (int)triangle.getT()[2].getX(), (int)triangle.getT()[2].getY(), (int)triangle.getT()[2].getZ(),
+                triangle.getBrightness(),
+                color
+        );
+        drawTriangle(
+                (int)triangle.getP()[0].getX(), (int)triangle.getP()[0].getY(),
+                (int)triangle.getP()[1].getX(), (int)triangle.getP()[1].getY(),
+                (int)triangle.getP()[2].getX(), (int)triangle.getP()[2].getY(),
+                //0xff000000
+                0xffffffff
+        );
+    }
+
+    /**
+     * Este método dibuja en pantalla un triangulo relleno.
+     * @param triangle el objeto triangulo a dibujar.
+     */
+    private void drawFlatTriangle(Triangle triangle) {
+        drawFlatTriangle(triangle, triangle.getColor());
+    }
+
+    private void drawFlatSmoothTriangle(Triangle triangle, int color) {
+        drawFillTriangle(
+                (int)triangle.getP()[0].getX(), (int)triangle.getP()[0].getY(),
+                (int)triangle.getP()[1].getX(), (int)triangle.getP()[1].getY(),
+                (int)triangle.getP()[2].getX(), (int)triangle.getP()[2].getY(),
+                color
+        );
+    }
+
+    /**
+     * Este método dibuja un triangulo plano relleno, pero sin un borde negro.
+     * @param triangle el objeto triangulo a dibujar.
+     */
+    private void drawFlatSmoothTriangle(Triangle triangle) {
+        drawFlatSmoothTriangle(triangle, triangle.getColor());
+    }
+
+    private void drawWireTriangle(Triangle triangle, int color) {
+        drawTriangle(
+                (int)triangle.getP()[0].getX(), (int)triangle.getP()[0].getY(),
+                (int)triangle.getP()[1].getX(), (int)triangle.getP()[1].getY(),
+                (int)triangle.getP()[2].getX(), (int)triangle.getP()[2].getY(),
+                color
+        );
+    }
+
+    /**
+     * Este método dibuja en pantalla un triangulo, pero simplemente
+     * las lineas que lo delimitan.
+     * @param triangle el objeto triangulo a dibujar.
+     */
+    private void drawWireTriangle(Triangle triangle) {
+        drawWireTriangle(triangle, triangle.getColor());
+    }
+
+    /**
+     * This method is an overload of the drawTexturedTriangle, for this reason, it passes as a
+     * parameter a triangle, to clarify the code.
+     * @param triangle the triangle to draw
+     * @param texture the image texture
+     */
+    private void drawTexturedShadowTriangle(Triangle triangle, Texture texture) {
+        drawTexturedShadowTriangle(
+                (int) triangle.getP()[0].getX(),
+                (int) triangle.getP()[0].getY(),
+
+                triangle.getT()[0].getX(),
+                triangle.getT()[0].getY(),
+                triangle.getT()[0].getZ(),
+
+                (int) triangle.getP()[1].getX(),
+                (int) triangle.getP()[1].getY(),
+
+                triangle.getT()[1].getX(),
+                triangle.getT()[1].getY(),
+                triangle.getT()[1].getZ(),
+
+                (int) triangle.getP()[2].getX(),
+                (int) triangle.getP()[2].getY(),
+
+                triangle.getT()[2].getX(),
+                triangle.getT()[2].getY(),
+                triangle.getT()[2].getZ(),
+
+                triangle.getBrightness(),
+                texture
+        );
+    }
+
+    /**
+     * This method is an overload of the drawTexturedTriangle. It doesn't
+     * have in account the brightness of the triangle, show the
+     * triangle isn't shadowed
+     * @param triangle the triangle to draw
+     * @param texture the image texture
+     */
+    private void drawTexturedTriangle(Triangle triangle, Texture texture) {
+        drawTexturedShadowTriangle(
+                (int) triangle.getP()[0].getX(),
+                (int) triangle.getP()[0].getY(),
+
+                triangle.getT()[0].getX(),
+                triangle.getT()[0].getY(),
+                triangle.getT()[0].getZ(),
+
+                (int) triangle.getP()[1].getX(),
+                (int) triangle.getP()[1].getY(),
+
+                triangle.getT()[1].getX(),
+                triangle.getT()[1].getY(),
+                triangle.getT()[1].getZ(),
+
+                (int) triangle.getP()[2].getX(),
+                (int) triangle.getP()[2].getY(),
+
+                triangle.getT()[2].getX(),
+                triangle.getT()[2].getY(),
+                triangle.getT()[2].getZ(),
+
+                1.0f,
+                texture
+        );
+    }
+
+    /**
+     * This method draws a triangle into the visibility buffer. Only the depth, the identifier
+     * and the texture coordinates of its visible pixels are written
+     * @param triangle the triangle to draw
+     * @param texture the image texture
+     * @param id the identifier of the triangle in the visibility buffer
+     */
+    private void drawVisibilityTriangle(Triangle triangle, Texture texture, int id) {
+        visibilityId = id;
+        drawTexturedTriangle(triangle, texture);
+        visibilityId = -1;
+    }
+
+    /**
+     * This method says if the triangles are drawn into the visibility buffer
+     * @param texture the image texture
+     * @return true if the shading mode is the visibility buffer and the render flag
+     * only fills the triangles with the texture
+     */
+    private boolean isVisibilityBufferUsed(Texture texture) {
+        return shadingMode == ShadingMode.VISIBILITY_BUFFER && texture != null
+                && (renderFlag == RenderFlags.RENDER_FULL_TEXTURED || renderFlag == RenderFlags.RENDER_FULL_TEXTURED_SHADOW);
+    }
+
+    /**
+     * This method shades the pixels of the visibility buffer: each pixel is sampled from
+     * the texture of its nearest triangle and lit with its brightness only once, no matter
+     * how many triangles were drawn over it. Then the visibility buffer is emptied.
+     * It is called before anything else is drawn, and when the depth buffer is cleared,
+     * so it only has to be called to get the image before the next frame starts
+     */
+    public void resolveVisibilityBuffer() {
+        if ( visibilityBuffer == null || visibilityBuffer.isEmpty() ) {
+            return;
+        }
+        int[] ids = visibilityBuffer.ids;
+        float[] coordinates = visibilityBuffer.coordinates;
+        for ( int y = visibilityBuffer.getMinY(); y <= visibilityBuffer.getMaxY(); y++ ) {
+            int row = y * getW();
+            // The mip level is chosen at the first pixel of each run of pixels of the same triangle
+            int lastId = VisibilityBuffer.EMPTY;
+            Texture texture = null;
+            TextureFilter filter = TextureFilter.NEAREST;
+            TextureAddressMode addressMode = TextureAddressMode.CLAMP;
+            for ( int x = visibilityBuffer.getMinX(); x <= visibilityBuffer.getMaxX(); x++ ) {
+                int id = ids[row + x];
+                if ( id == VisibilityBuffer.EMPTY ) {
+                    lastId = id;
+                    continue;
+                }
+                float tex_w = depthBuffer[row + x];
+                float tex_u = coordinates[(row + x) * 2];
+                float tex_v = coordinates[(row + x) * 2 + 1];
+                if ( id != lastId ) {
+                    texture = visibilityBuffer.getTexture(id);
+                    filter = visibilityBuffer.getTextureFilter(id);
+                    addressMode = visibilityBuffer.getTextureAddressMode(id);
+                    if ( mipmapping ) {
+                        int level = MipLevelSelector.selectLevel(visibilityBuffer.gradients,
+                                id * MipLevelSelector.GRADIENT_SIZE, tex_u, tex_v, tex_w, texture);
+                        texture = texture.getMipLevel(level);
+                    }
+                    lastId = id;
+                }
+                int color = getSample(tex_u / tex_w, tex_v / tex_w, texture, filter, addressMode);
+                setPixel(x, y, calculateColor(color, visibilityBuffer.getBrightness(id)));
+            }
+        }
+        visibilityBuffer.clear();
+    }
+
+    /**
+     * This method changes the pixel array where the renderer draws. It must only be
+     * called between frames, after the visibility buffer has been resolved. The tiles
+     * draw on the new array from the next triangles drawn
+     * @param p the new pixel array, with the size of the screen
+     */
+    void setP(int[] p) {
+        if ( p.length < getW() * getH() ) {
+            throw new IllegalArgumentException("The pixel array is smaller than the screen");
+        }
+        this.p = p;
+    }
+
+    /**
+     * This method draws a triangle in any form what is would to draw
+     * @param triangle triangle to render.
+     */
+    private void renderTexturedTriangle(Triangle triangle, Texture texture) {
+        switch ( renderFlag ) {
+            case RENDER_FLAT:
+                drawFlatTriangle(triangle);
+                break;
+            case RENDER_SMOOTH_FLAT:
+                drawFlatSmoothTriangle(triangle);
+                break;
+            case RENDER_WIRE:
+                drawWireTriangle(triangle);
+                break;
+            case RENDER_TEXTURED:
+                drawTexturedTriangle(triangle, texture);
+                drawWireTriangle(triangle);
+                break;
+            case RENDER_FULL_TEXTURED:
+                drawTexturedTriangle(triangle, texture);
+                break;
+            case RENDER_TEXTURED_SHADOW:
+                drawTexturedShadowTriangle(triangle, texture);
+                drawWireTriangle(triangle);
+                break;
+            case RENDER_FULL_TEXTURED_SHADOW:
+                drawTexturedShadowTriangle(triangle, texture);
+                break;
+        }
+    }
+
+    private void renderNonTexturedTriangle(Triangle triangle, int color) {
+        switch ( renderFlag ) {
+            case RENDER_FLAT: case RENDER_TEXTURED: case RENDER_TEXTURED_SHADOW:
+                drawFlatTriangle(triangle, color);
+                break;
+            case RENDER_SMOOTH_FLAT: case RENDER_FULL_TEXTURED: case RENDER_FULL_TEXTURED_SHADOW:
+                drawFlatSmoothTriangle(triangle, color);
+                break;
+            case RENDER_WIRE:
+                drawWireTriangle(triangle, color);
+                break;
+        }
+    }
+
+    private void renderNonTexturedTriangle(Triangle triangle) {
+        switch ( renderFlag ) {
+            case RENDER_FLAT: case RENDER_TEXTURED: case RENDER_TEXTURED_SHADOW:
+                drawFlatTriangle(triangle);
+                break;
+            case RENDER_SMOOTH_FLAT: case RENDER_FULL_TEXTURED: case RENDER_FULL_TEXTURED_SHADOW:
+                drawFlatSmoothTriangle(triangle);
+                break;
+            case RENDER_WIRE:
+                drawWireTriangle(triangle);
+                break;
+        }
+    }
+
+    /**
+     * This method builds one renderer for each tile of the screen
+     */
+    private void buildTiles() {
+        numTilesX = (getW() + tileSize - 1) / tileSize;
+        numTilesY = (getH() + tileSize - 1) / tileSize;
+        tiles = new PixelRenderer3D[numTilesX * numTilesY];
+        bins = new int[tiles.length][16];
+        binSizes = new int[tiles.length];
+        for ( int ty = 0; ty < numTilesY; ty++ ) {
+            for ( int tx = 0; tx < numTilesX; tx++ ) {
+                tiles[ty * numTilesX + tx] = new PixelRenderer3D(
+                        this,
+                        tx * tileSize, ty * tileSize,
+                        (tx + 1) * tileSize, (ty + 1) * tileSize
+                );
+            }
+        }
+    }
+
+    /**
+     * This method adds every triangle to the bins of the tiles which
+     * its bounding box overlaps. The bounding box is calculated with the
+     * same integer coordinates the triangles are drawn with, so no pixel is lost
+     * @param triangles the triangles to bin, in the order they are drawn
+     */
+    private void binTriangles(ArrayList<Triangle> triangles) {
+        if ( tiles == null ) {
+            buildTiles();
+        }
+        Arrays.fill(binSizes, 0);
+
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            Triangle triangle = triangles.get(i);
+            int x0 = (int) triangle.getP()[0].getX();
+            int y0 = (int) triangle.getP()[0].getY();
+            int x1 = (int) triangle.getP()[1].getX();
+            int y1 = (int) triangle.getP()[1].getY();
+            int x2 = (int) triangle.getP()[2].getX();
+            int y2 = (int) triangle.getP()[2].getY();
+
+            int minX = Math.max(0, Math.min(x0, Math.min(x1, x2)));
+            int minY = Math.max(0, Math.min(y0, Math.min(y1, y2)));
+            int maxX = Math.min(getW() - 1, Math.max(x0, Math.max(x1, x2)));
+            int maxY = Math.min(getH() - 1, Math.max(y0, Math.max(y1, y2)));
+            if ( minX > maxX || minY > maxY ) {
+                continue;
+            }
+
+            for ( int ty = minY / tileSize; ty <= maxY / tileSize; ty++ ) {
+                for ( int tx = minX / tileSize; tx <= maxX / tileSize; tx++ ) {
+                    int bin = ty * numTilesX + tx;
+                    if ( binSizes[bin] == bins[bin].length ) {
+                        bins[bin] = Arrays.copyOf(bins[bin], bins[bin].length * 2);
+                    }
+                    bins[bin][binSizes[bin]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * The method which draws one triangle on one tile
+     */
+    private interface TriangleDrawer {
+
+        /**
+         * @param renderer the renderer of the tile
+         * @param triangle the triangle to draw
+         * @param index the position of the triangle in the list
+         */
+        void draw(PixelRenderer3D renderer, Triangle triangle, int index);
+
+    }
+
+    /**
+     * This task rasterizes a range of tiles. It splits the range until
+     * there is only one tile left, so the pool can balance the work
+     */
+    private class TileTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+
+        private final int to;
+
+        private final ArrayList<Triangle> triangles;
+
+        private final TriangleDrawer drawer;
+
+        private TileTask(int from, int to, ArrayList<Triangle> triangles, TriangleDrawer drawer) {
+            this.from = from;
+            this.to = to;
+            this.triangles = triangles;
+            this.drawer = drawer;
+        }
+
+        @Override
+        protected void compute() {
+            if ( to - from > 1 ) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(from, middle, triangles, drawer), new TileTask(middle, to, triangles, drawer));
+            } else {
+                PixelRenderer3D tile = tiles[from];
+                int[] bin = bins[from];
+                for ( int i = 0; i < binSizes[from]; i++ ) {
+                    drawer.draw(tile, triangles.get(bin[i]), bin[i]);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * This method bins the triangles into the screen tiles and rasterizes the tiles
+     * in parallel. Every tile only writes its own pixels and depth values,
+     * and it draws its triangles in the same order, so the image is the same
+     * as the one drawn by only one thread
+     * @param triangles the triangles to draw
+     * @param drawer the method which draws one triangle on one tile
+     */
+    private void renderTiles(ArrayList<Triangle> triangles, TriangleDrawer drawer) {
+        binTriangles(triangles);
+        for ( PixelRenderer3D tile : tiles ) {
+            tile.renderFlag = renderFlag;
+            tile.rasterizerType = rasterizerType;
+            tile.hierarchicalZ = hierarchicalZ;
+            tile.shadingMode = shadingMode;
+            tile.mipmapping = mipmapping;
+            tile.textureFilter = textureFilter;
+            tile.textureAddressMode = textureAddressMode;
+            tile.visibilityBuffer = visibilityBuffer;
+            tile.pixelCounting = pixelCounting;
+            tile.p = p;
+        }
+        pool.invoke(new TileTask(0, tiles.length, triangles, drawer));
+    }
+
+    /**
+     * This method goes over an ArrayList filled with triangles and draws them depending on the render
+     * flag which is active.
+     * @param triangles triangles to drawn. In this case, the projected and rasterized triangles.
+     */
+    public void renderTriangles(ArrayList<Triangle> triangles, Texture texture) {
+        renderTriangles(triangles, texture, TextureFilter.NEAREST);
+    }
+
+    /**
+     * This method draws the triangles as the previous one, sampling the texture with the filter
+     * @param triangles the projected and rasterized triangles
+     * @param texture the image texture
+     * @param filter how the texture is sampled
+     */
+    public void renderTriangles(ArrayList<Triangle> triangles, Texture texture, TextureFilter filter) {
+        renderTriangles(triangles, texture, filter, TextureAddressMode.CLAMP);
+    }
+
+    /**
+     * This method draws the triangles as the previous one, sampling the texture with the filter
+     * and the address mode
+     * @param triangles the projected and rasterized triangles
+     * @param texture the image texture
+     * @param filter how the texture is sampled
+     * @param addressMode how the positions outside of the texture are sampled
+     */
+    public void renderTriangles(ArrayList<Triangle> triangles, Texture texture, TextureFilter filter,
+                                TextureAddressMode addressMode) {
+        if ( isVisibilityBufferUsed(texture) ) {
+            renderVisibilityTriangles(triangles, texture, filter, addressMode);
+            return;
+        }
+        resolveVisibilityBuffer();
+        textureFilter = filter;
+        textureAddressMode = addressMode;
+        if ( tiledRendering ) {
+            renderTiles(triangles, (tile, triangle, index) -> tile.renderTexturedTriangle(triangle, texture));
+            return;
+        }
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            renderTexturedTriangle(triangles.get(i), texture);
+        }
+    }
+
+    public void renderTriangles(ArrayList<Triangle> triangles, int color) {
+        resolveVisibilityBuffer();
+        if ( tiledRendering ) {
+            renderTiles(triangles, (tile, triangle, index) -> tile.renderNonTexturedTriangle(triangle, color));
+            return;
+        }
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            renderNonTexturedTriangle(triangles.get(i), color);
+        }
+    }
+
+    public void renderTriangles(ArrayList<Triangle> triangles) {
+        resolveVisibilityBuffer();
+        if ( tiledRendering ) {
+            renderTiles(triangles, (tile, triangle, index) -> tile.renderNonTexturedTriangle(triangle));
+            return;
+        }
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            renderNonTexturedTriangle(triangles.get(i));
+        }
+    }
+
+    /**
+     * This method draws the textured triangles into the visibility buffer. The identifiers
+     * are given to the triangles before they are drawn, so the tiles can draw them in parallel
+     * @param triangles the triangles to draw
+     * @param texture the image texture
+     * @param filter how the texture is sampled when the pixels are shaded
+     * @param addressMode how the positions outside of the texture are sampled when the pixels are shaded
+     */
+    private void renderVisibilityTriangles(ArrayList<Triangle> triangles, Texture texture, TextureFilter filter,
+                                           TextureAddressMode addressMode) {
+        if ( visibilityBuffer == null ) {
+            visibilityBuffer = new VisibilityBuffer(getW(), getH());
+        }
+        int first = visibilityBuffer.addTriangles(triangles, texture, filter, addressMode,
+                renderFlag == RenderFlags.RENDER_FULL_TEXTURED_SHADOW);
+        if ( tiledRendering ) {
+            renderTiles(triangles, (tile, triangle, index) -> tile.drawVisibilityTriangle(triangle, texture, first + index));
+            return;
+        }
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            drawVisibilityTriangle(triangles.get(i), texture, first + i);
+        }
+    }
+
+    /**
+     * This method sets the pixel counters of this renderer and its tiles to 0
+     */
+    public void resetPixelCounters() {
+        numPixelsTested = 0;
+        numPixelsRejected = 0;
+        numPixelsWritten = 0;
+        if ( tiles != null ) {
+            for ( PixelRenderer3D tile : tiles ) {
+                tile.resetPixelCounters();
+            }
+        }
+    }
+
+    public RenderFlags getRenderFlag() {
+        return renderFlag;
+    }
+
+    public void setRenderFlag(RenderFlags renderFlag) {
+        this.renderFlag = renderFlag;
+    }
+
+    public RasterizerType getRasterizerType() {
+        return rasterizerType;
+    }
+
+    public void setRasterizerType(RasterizerType rasterizerType) {
+        this.rasterizerType = rasterizerType;
+    }
+
+    public boolean isHierarchicalZ() {
+        return hierarchicalZ;
+    }
+
+    public void setHierarchicalZ(boolean hierarchicalZ) {
+        this.hierarchicalZ = hierarchicalZ;
+    }
+
+    public ShadingMode getShadingMode() {
+        return shadingMode;
+    }
+
+    public void setShadingMode(ShadingMode shadingMode) {
+        if ( shadingMode == null ) {
+            throw new IllegalArgumentException("The shading mode can't be null");
+        }
+        resolveVisibilityBuffer();
+        this.shadingMode = shadingMode;
+    }
+
+    public boolean isMipmapping() {
+        return mipmapping;
+    }
+
+    public void setMipmapping(boolean mipmapping) {
+        this.mipmapping = mipmapping;
+    }
+
+    public boolean isPixelCounting() {
+        return pixelCounting;
+    }
+
+    public void setPixelCounting(boolean pixelCounting) {
+        this.pixelCounting = pixelCounting;
+    }
+
+    public long getNumPixelsTested() {
+        long count = numPixelsTested;
+        if ( tiles != null ) {
+            for ( PixelRenderer3D tile : tiles ) {
+                count += tile.numPixelsTested;
+            }
+        }
+        return count;
+    }
+
+    public long getNumPixelsRejected() {
+        long count = numPixelsRejected;
+        if ( tiles != null ) {
+            for ( PixelRenderer3D tile : tiles ) {
+                count += tile.numPixelsRejected;
+            }
+        }
+        return count;
+    }
+
+    public long getNumPixelsWritten() {
+        long count = numPixelsWritten;
+        if ( tiles != null ) {
+            for ( PixelRenderer3D tile : tiles ) {
+                count += tile.numPixelsWritten;
+            }
+        }
+        return count;
+    }
+
+    public boolean isTiledRendering() {
+        return tiledRendering;
+    }
+
+    public void setTiledRendering(boolean tiledRendering) {
+        this.tiledRendering = tiledRendering;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public void setTileSize(int tileSize) {
+        if ( tileSize <= 0 ) {
+            throw new IllegalArgumentException("The tile size must be positive");
+        }
+        this.tileSize = tileSize;
+        // The counters of the old tiles are kept
+        numPixelsTested = getNumPixelsTested();
+        numPixelsRejected = getNumPixelsRejected();
+        numPixelsWritten = getNumPixelsWritten();
+        tiles = null;
+        bins = null;
+        binSizes = null;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+}
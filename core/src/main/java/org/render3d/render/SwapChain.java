@@ -0,0 +1,304 @@
+package org.render3d.render;
+
+import org.render3d.PresentMode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class gives a renderer two or three pixel arrays, so a frame can be rendered while
+ * the previous ones are shown or saved by other thread. The array where the renderer is
+ * drawing is the back buffer. When a frame is finished, present reserves an array for the
+ * next frame, and then hands the back buffer to the consumers. A consumer takes
+ * the presented frames in order with acquire, and gives the array back with release when
+ * it doesn't need it anymore.
+ *
+ * With PresentMode.FIFO every presented frame is acquired, and present waits when all the
+ * arrays are presented or acquired. With PresentMode.MAILBOX, which needs three arrays,
+ * a presented frame which hasn't been acquired yet is replaced by the new one, so the
+ * consumers always get the latest frame. Present only waits in this mode when the consumers
+ * hold two acquired frames at the same time.
+ *
+ * All the pixels written before a frame is presented are visible to the thread which
+ * acquires it, and the pixels read before a frame is released are read before the renderer
+ * draws on it again. The arrays are allocated when the swap chain is created, and they keep
+ * the pixels of old frames, so each frame should start clearing the screen.
+ */
+public class SwapChain {
+
+    private static final int FREE = 0;
+
+    private static final int RENDERING = 1;
+
+    private static final int PRESENTED = 2;
+
+    private static final int ACQUIRED = 3;
+
+    private final PixelRenderer3D renderer;
+
+    private final PresentMode presentMode;
+
+    private final int[][] buffers;
+
+    /**
+     * The state of each buffer: free, rendering, presented or acquired
+     */
+    private final int[] states;
+
+    /**
+     * The indices of the presented buffers, in the order they were presented.
+     * It is a circular queue
+     */
+    private final int[] queue;
+
+    private int queueStart = 0;
+
+    private int queueSize = 0;
+
+    /**
+     * The index of the back buffer
+     */
+    private int backBuffer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * It is signalled when a frame is presented
+     */
+    private final Condition framePresented = lock.newCondition();
+
+    /**
+     * It is signalled when a buffer is free
+     */
+    private final Condition bufferFreed = lock.newCondition();
+
+    private long numFramesPresented = 0;
+
+    private long numFramesDropped = 0;
+
+    /**
+     * The constructor. The pixel array of the renderer is the first back buffer
+     * @param renderer the renderer
+     * @param numBuffers the number of pixel arrays: two or three
+     * @param presentMode the way the frames are handed to the consumers
+     */
+    public SwapChain(PixelRenderer3D renderer, int numBuffers, PresentMode presentMode) {
+        if ( numBuffers != 2 && numBuffers != 3 ) {
+            throw new IllegalArgumentException("A swap chain has two or three buffers");
+        }
+        if ( presentMode == PresentMode.MAILBOX && numBuffers != 3 ) {
+            throw new IllegalArgumentException("The mailbox mode needs three buffers");
+        }
+        this.renderer = renderer;
+        this.presentMode = presentMode;
+        buffers = new int[numBuffers][];
+        buffers[0] = renderer.getP();
+        for ( int i = 1; i < numBuffers; i++ ) {
+            buffers[i] = new int[renderer.getW() * renderer.getH()];
+        }
+        states = new int[numBuffers];
+        states[0] = RENDERING;
+        queue = new int[numBuffers];
+        backBuffer = 0;
+    }
+
+    public SwapChain(PixelRenderer3D renderer, int numBuffers) {
+        this(renderer, numBuffers, PresentMode.FIFO);
+    }
+
+    /**
+     * This method presents the frame drawn on the back buffer, and makes the renderer
+     * draw the next frame on a free buffer. It waits until a buffer is released if there
+     * isn't any free buffer, or, with PresentMode.MAILBOX, any presented frame to replace.
+     * The buffer for the next frame is reserved before the frame is presented, so if the
+     * thread is interrupted while it waits, nothing is presented and the renderer keeps
+     * the same back buffer. It must be called from the thread which renders, after the
+     * frame is finished
+     * @throws InterruptedException if the thread is interrupted while it waits
+     */
+    public void present() throws InterruptedException {
+        renderer.resolveVisibilityBuffer();
+        lock.lock();
+        try {
+            int next = findFreeBuffer();
+            while ( next < 0 ) {
+                if ( presentMode == PresentMode.MAILBOX && queueSize > 0 ) {
+                    // The frame which hasn't been acquired is replaced by this one
+                    next = dequeue();
+                    numFramesDropped++;
+                } else {
+                    bufferFreed.await();
+                    next = findFreeBuffer();
+                }
+            }
+            states[next] = RENDERING;
+
+            states[backBuffer] = PRESENTED;
+            enqueue(backBuffer);
+            numFramesPresented++;
+            if ( presentMode == PresentMode.MAILBOX ) {
+                while ( queueSize > 1 ) {
+                    states[dequeue()] = FREE;
+                    numFramesDropped++;
+                }
+            }
+            framePresented.signalAll();
+
+            backBuffer = next;
+            renderer.setP(buffers[next]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method takes the oldest presented frame, waiting until a frame is presented
+     * @return the pixels of the frame. They must be given back with release
+     * @throws InterruptedException if the thread is interrupted while it waits
+     */
+    public int[] acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while ( queueSize == 0 ) {
+                framePresented.await();
+            }
+            return acquireFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method takes the oldest presented frame, waiting until a frame is presented
+     * or the time runs out
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the time
+     * @return the pixels of the frame, or null if no frame was presented in time
+     * @throws InterruptedException if the thread is interrupted while it waits
+     */
+    public int[] acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while ( queueSize == 0 ) {
+                if ( nanos <= 0 ) {
+                    return null;
+                }
+                nanos = framePresented.awaitNanos(nanos);
+            }
+            return acquireFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method takes the oldest presented frame without waiting. It can be called
+     * from a loop which shows the frames, like an animation timer
+     * @return the pixels of the frame, or null if there isn't any presented frame
+     */
+    public int[] tryAcquire() {
+        lock.lock();
+        try {
+            return queueSize == 0 ? null : acquireFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method gives back the pixels of an acquired frame, so the renderer can draw on them
+     * @param buffer the pixels returned by acquire
+     */
+    public void release(int[] buffer) {
+        lock.lock();
+        try {
+            int index = indexOf(buffer);
+            if ( index < 0 || states[index] != ACQUIRED ) {
+                throw new IllegalArgumentException("The buffer wasn't acquired from this swap chain");
+            }
+            states[index] = FREE;
+            bufferFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int[] acquireFirst() {
+        int index = dequeue();
+        states[index] = ACQUIRED;
+        return buffers[index];
+    }
+
+    private void enqueue(int index) {
+        queue[(queueStart + queueSize) % queue.length] = index;
+        queueSize++;
+    }
+
+    private int dequeue() {
+        int index = queue[queueStart];
+        queueStart = (queueStart + 1) % queue.length;
+        queueSize--;
+        return index;
+    }
+
+    private int findFreeBuffer() {
+        for ( int i = 0; i < buffers.length; i++ ) {
+            if ( states[i] == FREE ) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(int[] buffer) {
+        for ( int i = 0; i < buffers.length; i++ ) {
+            if ( buffers[i] == buffer ) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // --------------
+
+    public PixelRenderer3D getRenderer() {
+        return renderer;
+    }
+
+    public PresentMode getPresentMode() {
+        return presentMode;
+    }
+
+    public int getNumBuffers() {
+        return buffers.length;
+    }
+
+    public int getW() {
+        return renderer.getW();
+    }
+
+    public int getH() {
+        return renderer.getH();
+    }
+
+    public long getNumFramesPresented() {
+        lock.lock();
+        try {
+            return numFramesPresented;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getNumFramesDropped() {
+        lock.lock();
+        try {
+            return numFramesDropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+package org.render3d.render;
+
+import org.render3d.material.Texture;
+import org.render3d.material.TextureAddressMode;
+import org.render3d.material.TextureFilter;
+import org.render3d.mesh.Triangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class is the visibility buffer of the deferred texturing. The first pass writes,
+ * for each pixel, only the identifier of the nearest triangle and its perspective texture
+ * coordinates (u / w and v / w, the barycentric combination of the ones of its points).
+ * The depth 1 / w is in the depth buffer. The second pass reads the texture and applies
+ * the brightness only once for each pixel, with the texture and the brightness of the
+ * triangle, which are kept in a table by identifier.
+ *
+ * The identifiers are given before the triangles are drawn, so several tiles can
+ * write on the buffer at the same time.
+ */
+final class VisibilityBuffer {
+
+    /**
+     * The identifier of the pixels without triangle
+     */
+    static final int EMPTY = -1;
+
+    /**
+     * The size of the buffer
+     */
+    private final int width;
+
+    private final int height;
+
+    /**
+     * The identifier of the triangle of each pixel
+     */
+    final int[] ids;
+
+    /**
+     * The u / w and v / w texture coordinates of each pixel, one after the other
+     */
+    final float[] coordinates;
+
+    /**
+     * The brightness of each triangle
+     */
+    private float[] brightness = new float[256];
+
+    /**
+     * The texture of each triangle
+     */
+    private Texture[] textures = new Texture[256];
+
+    /**
+     * How the texture of each triangle is sampled
+     */
+    private TextureFilter[] textureFilters = new TextureFilter[256];
+
+    /**
+     * How the positions outside of the texture of each triangle are sampled
+     */
+    private TextureAddressMode[] textureAddressModes = new TextureAddressMode[256];
+
+    /**
+     * The derivatives of the texture coordinates of each triangle on the
+     * screen, used to choose the mip level of each pixel
+     */
+    float[] gradients = new float[256 * MipLevelSelector.GRADIENT_SIZE];
+
+    /**
+     * The number of triangles in the table
+     */
+    private int numTriangles = 0;
+
+    /**
+     * The rectangle which contains all the triangles of the table
+     */
+    private int minX;
+
+    private int minY;
+
+    private int maxX;
+
+    private int maxY;
+
+    /**
+     * Constructor
+     * @param width the width of the screen
+     * @param height the height of the screen
+     */
+    VisibilityBuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        ids = new int[width * height];
+        coordinates = new float[width * height * 2];
+        Arrays.fill(ids, EMPTY);
+        resetRectangle();
+    }
+
+    /**
+     * This method adds the triangles to the table
+     * @param triangles the triangles
+     * @param texture the texture of all of them
+     * @param filter how the texture is sampled
+     * @param addressMode how the positions outside of the texture are sampled
+     * @param shadow if false, the brightness of the triangles is not applied
+     * @return the identifier of the first triangle, the next ones are consecutive
+     */
+    int addTriangles(ArrayList<Triangle> triangles, Texture texture, TextureFilter filter,
+                     TextureAddressMode addressMode, boolean shadow) {
+        int first = numTriangles;
+        int n = triangles.size();
+        if ( numTriangles + n > brightness.length ) {
+            int capacity = Math.max(numTriangles + n, brightness.length * 2);
+            brightness = Arrays.copyOf(brightness, capacity);
+            textures = Arrays.copyOf(textures, capacity);
+            textureFilters = Arrays.copyOf(textureFilters, capacity);
+            textureAddressModes = Arrays.copyOf(textureAddressModes, capacity);
+            gradients = Arrays.copyOf(gradients, capacity * MipLevelSelector.GRADIENT_SIZE);
+        }
+        for ( int i = 0; i < n; i++ ) {
+            Triangle triangle = triangles.get(i);
+            brightness[numTriangles] = shadow ? triangle.getBrightness() : 1.0f;
+            textures[numTriangles] = texture;
+            textureFilters[numTriangles] = filter;
+            textureAddressModes[numTriangles] = addressMode;
+            if ( texture.getNumMipLevels() > 1 ) {
+                MipLevelSelector.computeGradients(
+                        (int) triangle.getP()[0].getX(), (int) triangle.getP()[0].getY(),
+                        triangle.getT()[0].getX(), triangle.getT()[0].getY(), triangle.getT()[0].getZ(),
+                        (int) triangle.getP()[1].getX(), (int) triangle.getP()[1].getY(),
+                        triangle.getT()[1].getX(), triangle.getT()[1].getY(), triangle.getT()[1].getZ(),
+                        (int) triangle.getP()[2].getX(), (int) triangle.getP()[2].getY(),
+                        triangle.getT()[2].getX(), triangle.getT()[2].getY(), triangle.getT()[2].getZ(),
+                        gradients, numTriangles * MipLevelSelector.GRADIENT_SIZE);
+            }
+            numTriangles++;
+            for ( int k = 0; k < 3; k++ ) {
+                int x = (int) triangle.getP()[k].getX();
+                int y = (int) triangle.getP()[k].getY();
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+        }
+        return first;
+    }
+
+    /**
+     * This method writes the nearest triangle of a pixel
+     * @param index the index of the pixel
+     * @param id the identifier of the triangle
+     * @param texU the u / w texture coordinate
+     * @param texV the v / w texture coordinate
+     */
+    void set(int index, int id, float texU, float texV) {
+        ids[index] = id;
+        coordinates[index * 2] = texU;
+        coordinates[index * 2 + 1] = texV;
+    }
+
+    /**
+     * This method empties the buffer and the table
+     */
+    void clear() {
+        if ( numTriangles == 0 ) {
+            return;
+        }
+        for ( int y = getMinY(); y <= getMaxY(); y++ ) {
+            Arrays.fill(ids, y * width + getMinX(), y * width + getMaxX() + 1, EMPTY);
+        }
+        Arrays.fill(textures, 0, numTriangles, null);
+        numTriangles = 0;
+        resetRectangle();
+    }
+
+    private void resetRectangle() {
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxX = Integer.MIN_VALUE;
+        maxY = Integer.MIN_VALUE;
+    }
+
+    // --------------
+
+    boolean isEmpty() {
+        return numTriangles == 0;
+    }
+
+    float getBrightness(int id) {
+        return brightness[id];
+    }
+
+    Texture getTexture(int id) {
+        return textures[id];
+    }
+
+    TextureFilter getTextureFilter(int id) {
+        return textureFilters[id];
+    }
+
+    TextureAddressMode getTextureAddressMode(int id) {
+        return textureAddressModes[id];
+    }
+
+    /**
+     * The limits of the rectangle with triangles, inside the screen
+     */
+    int getMinX() {
+        return Math.max(0, minX);
+    }
+
+    int getMinY() {
+        return Math.max(0, minY);
+    }
+
+    int getMaxX() {
+        return Math.min(width - 1, maxX);
+    }
+
+    int getMaxY() {
+        return Math.min(height - 1, maxY);
+    }
+
+}
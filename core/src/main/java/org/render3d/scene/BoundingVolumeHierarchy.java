@@ -0,0 +1,345 @@
+package org.render3d.scene;
+
+import org.render3d.matrix.Frustum;
+import org.render3d.matrix.Mat4x4;
+import org.render3d.mesh.BoundingVolume;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class is a bounding volume hierarchy over the world space boxes of the
+ * objects of a scene. It is a binary tree: each node has the box which contains
+ * its two children, and the leaves have a few objects.
+ *
+ * The tree is stored in flat arrays. The nodes are numbered in depth first order,
+ * so the left child of a node is always the next node, and the objects of every
+ * subtree are consecutive in the order array. A subtree completely inside the
+ * frustum is added at once, without visiting it.
+ *
+ * When an object moves, its box and the boxes of the nodes above it are
+ * calculated again (refit), but the tree keeps its shape. After many changes the
+ * tree can be built again to recover its quality.
+ */
+final class BoundingVolumeHierarchy {
+
+    /**
+     * The maximum number of objects of a leaf
+     */
+    static final int MAX_LEAF_SIZE = 4;
+
+    /**
+     * The number of floats of each box: min x, y, z and max x, y, z
+     */
+    private static final int BOX = 6;
+
+    /**
+     * The world space box of each object, by scene index
+     */
+    private float[] objectBounds = new float[0];
+
+    /**
+     * The leaf of each object, by scene index
+     */
+    private int[] objectLeaf = new int[0];
+
+    /**
+     * The scene indices of the objects, ordered by leaves
+     */
+    private int[] order = new int[0];
+
+    /**
+     * The center of the box of each object, used while building
+     */
+    private float[] centroids = new float[0];
+
+    /**
+     * The box of each node
+     */
+    private float[] nodeBounds = new float[0];
+
+    /**
+     * The first position in the order array of the objects of each node
+     */
+    private int[] nodeFirst = new int[0];
+
+    /**
+     * The number of objects of each node, in all its subtree
+     */
+    private int[] nodeCount = new int[0];
+
+    /**
+     * The right child of each node, -1 for the leaves. The left child is the next node
+     */
+    private int[] nodeRight = new int[0];
+
+    /**
+     * The parent of each node, -1 for the root
+     */
+    private int[] nodeParent = new int[0];
+
+    /**
+     * The number of nodes in use
+     */
+    private int numNodes = 0;
+
+    /**
+     * The number of objects of the tree
+     */
+    private int numObjects = 0;
+
+    /**
+     * The nodes waiting to be visited while culling
+     */
+    private int[] stack = new int[64];
+
+    /**
+     * This method builds the tree for all the objects of the scene
+     * @param objects the objects of the scene
+     */
+    void build(ArrayList<SceneObject> objects) {
+        numObjects = objects.size();
+        numNodes = 0;
+        if ( objectBounds.length < numObjects * BOX ) {
+            int capacity = Math.max(numObjects, objectLeaf.length * 2);
+            objectBounds = new float[capacity * BOX];
+            objectLeaf = new int[capacity];
+            order = new int[capacity];
+            centroids = new float[capacity * 3];
+            nodeBounds = new float[capacity * 2 * BOX];
+            nodeFirst = new int[capacity * 2];
+            nodeCount = new int[capacity * 2];
+            nodeRight = new int[capacity * 2];
+            nodeParent = new int[capacity * 2];
+        }
+
+        for ( int i = 0; i < numObjects; i++ ) {
+            updateObjectBounds(i, objects.get(i));
+            order[i] = i;
+            int b = i * BOX;
+            boolean empty = objectBounds[b] > objectBounds[b + 3];
+            centroids[i * 3] = empty ? 0.0f : (objectBounds[b] + objectBounds[b + 3]) * 0.5f;
+            centroids[i * 3 + 1] = empty ? 0.0f : (objectBounds[b + 1] + objectBounds[b + 4]) * 0.5f;
+            centroids[i * 3 + 2] = empty ? 0.0f : (objectBounds[b + 2] + objectBounds[b + 5]) * 0.5f;
+        }
+
+        if ( numObjects > 0 ) {
+            buildNode(0, numObjects, -1);
+        }
+    }
+
+    /**
+     * This method builds a node and all its subtree. The objects are split
+     * by the middle of the longest axis of the box of their centers
+     * @param first the first position of the objects in the order array
+     * @param count the number of objects
+     * @param parent the parent node
+     * @return the number of the node
+     */
+    private int buildNode(int first, int count, int parent) {
+        int node = numNodes++;
+        nodeFirst[node] = first;
+        nodeCount[node] = count;
+        nodeParent[node] = parent;
+        nodeRight[node] = -1;
+
+        if ( count <= MAX_LEAF_SIZE ) {
+            for ( int i = first; i < first + count; i++ ) {
+                objectLeaf[order[i]] = node;
+            }
+            updateLeafBounds(node);
+            return node;
+        }
+
+        float[] min = { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY };
+        float[] max = { Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
+        for ( int i = first; i < first + count; i++ ) {
+            for ( int axis = 0; axis < 3; axis++ ) {
+                float c = centroids[order[i] * 3 + axis];
+                min[axis] = Math.min(min[axis], c);
+                max[axis] = Math.max(max[axis], c);
+            }
+        }
+        int axis = 0;
+        for ( int a = 1; a < 3; a++ ) {
+            if ( max[a] - min[a] > max[axis] - min[axis] ) {
+                axis = a;
+            }
+        }
+
+        int split = count / 2;
+        if ( max[axis] > min[axis] ) {
+            float middle = (min[axis] + max[axis]) * 0.5f;
+            int left = first;
+            for ( int i = first; i < first + count; i++ ) {
+                if ( centroids[order[i] * 3 + axis] < middle ) {
+                    int swap = order[left];
+                    order[left++] = order[i];
+                    order[i] = swap;
+                }
+            }
+            // All the centers on one side: the objects are split by the count
+            if ( left != first && left != first + count ) {
+                split = left - first;
+            }
+        }
+
+        buildNode(first, split, node);
+        nodeRight[node] = buildNode(first + split, count - split, node);
+        updateInnerBounds(node);
+        return node;
+    }
+
+    /**
+     * This method calculates the world space box of an object. Each axis of the
+     * transformed box is the sum of the contributions of the three axes of the
+     * box in the space of the object, so the eight corners are not transformed
+     * @param index the scene index of the object
+     * @param object the object
+     */
+    void updateObjectBounds(int index, SceneObject object) {
+        BoundingVolume bounds = object.getObject().getBounds();
+        int b = index * BOX;
+        if ( bounds.isEmpty() ) {
+            for ( int axis = 0; axis < 3; axis++ ) {
+                objectBounds[b + axis] = Float.POSITIVE_INFINITY;
+                objectBounds[b + 3 + axis] = Float.NEGATIVE_INFINITY;
+            }
+            return;
+        }
+        float[] localMin = { bounds.getMinX(), bounds.getMinY(), bounds.getMinZ() };
+        float[] localMax = { bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ() };
+        Mat4x4 matrix = object.getTransform().getMat();
+        float[][] m = matrix.getM();
+        for ( int axis = 0; axis < 3; axis++ ) {
+            float min = m[3][axis];
+            float max = m[3][axis];
+            for ( int i = 0; i < 3; i++ ) {
+                float a = m[i][axis] * localMin[i];
+                float c = m[i][axis] * localMax[i];
+                min += Math.min(a, c);
+                max += Math.max(a, c);
+            }
+            objectBounds[b + axis] = min;
+            objectBounds[b + 3 + axis] = max;
+        }
+    }
+
+    /**
+     * This method calculates again the box of the leaf of an object,
+     * and the boxes of all the nodes above it
+     * @param index the scene index of the object
+     */
+    void refit(int index) {
+        int node = objectLeaf[index];
+        updateLeafBounds(node);
+        node = nodeParent[node];
+        while ( node >= 0 ) {
+            updateInnerBounds(node);
+            node = nodeParent[node];
+        }
+    }
+
+    /**
+     * This method calculates again the boxes of all the nodes. The children
+     * always have bigger numbers than their parents, so the nodes are
+     * visited from the last to the first
+     */
+    void refitAll() {
+        for ( int node = numNodes - 1; node >= 0; node-- ) {
+            if ( nodeRight[node] < 0 ) {
+                updateLeafBounds(node);
+            } else {
+                updateInnerBounds(node);
+            }
+        }
+    }
+
+    /**
+     * This method calculates the box of a leaf from the boxes of its objects
+     * @param node the leaf
+     */
+    private void updateLeafBounds(int node) {
+        int n = node * BOX;
+        for ( int axis = 0; axis < 3; axis++ ) {
+            nodeBounds[n + axis] = Float.POSITIVE_INFINITY;
+            nodeBounds[n + 3 + axis] = Float.NEGATIVE_INFINITY;
+        }
+        for ( int i = nodeFirst[node]; i < nodeFirst[node] + nodeCount[node]; i++ ) {
+            int b = order[i] * BOX;
+            for ( int axis = 0; axis < 3; axis++ ) {
+                nodeBounds[n + axis] = Math.min(nodeBounds[n + axis], objectBounds[b + axis]);
+                nodeBounds[n + 3 + axis] = Math.max(nodeBounds[n + 3 + axis], objectBounds[b + 3 + axis]);
+            }
+        }
+    }
+
+    /**
+     * This method calculates the box of a node from the boxes of its children
+     * @param node the node
+     */
+    private void updateInnerBounds(int node) {
+        int n = node * BOX;
+        int l = (node + 1) * BOX;
+        int r = nodeRight[node] * BOX;
+        for ( int axis = 0; axis < 3; axis++ ) {
+            nodeBounds[n + axis] = Math.min(nodeBounds[l + axis], nodeBounds[r + axis]);
+            nodeBounds[n + 3 + axis] = Math.max(nodeBounds[l + 3 + axis], nodeBounds[r + 3 + axis]);
+        }
+    }
+
+    /**
+     * This method finds the objects which are, at least partly, inside the frustum.
+     * The subtrees outside are discarded and the subtrees inside are added without
+     * testing their objects, so only the nodes crossing the frustum are visited
+     * @param frustum the view frustum, in world space
+     * @param objects the objects of the scene
+     * @param visible the list where the visible objects are added
+     */
+    void cull(Frustum frustum, ArrayList<SceneObject> objects, ArrayList<SceneObject> visible) {
+        if ( numNodes == 0 ) {
+            return;
+        }
+        int top = 0;
+        stack[top++] = 0;
+        while ( top > 0 ) {
+            int node = stack[--top];
+            int n = node * BOX;
+            // The nodes with only empty objects have an empty box
+            if ( nodeBounds[n] > nodeBounds[n + 3] ) {
+                continue;
+            }
+            int result = frustum.classifyBox(nodeBounds[n], nodeBounds[n + 1], nodeBounds[n + 2],
+                    nodeBounds[n + 3], nodeBounds[n + 4], nodeBounds[n + 5]);
+            if ( result == Frustum.OUTSIDE ) {
+                continue;
+            }
+            int first = nodeFirst[node];
+            int last = first + nodeCount[node];
+            if ( result == Frustum.INSIDE ) {
+                for ( int i = first; i < last; i++ ) {
+                    visible.add(objects.get(order[i]));
+                }
+            } else if ( nodeRight[node] < 0 ) {
+                for ( int i = first; i < last; i++ ) {
+                    int b = order[i] * BOX;
+                    if ( objectBounds[b] <= objectBounds[b + 3] && frustum.isBoxVisible(objectBounds[b], objectBounds[b + 1], objectBounds[b + 2],
+                            objectBounds[b + 3], objectBounds[b + 4], objectBounds[b + 5]) ) {
+                        visible.add(objects.get(order[i]));
+                    }
+                }
+            } else {
+                if ( top + 2 > stack.length ) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = nodeRight[node];
+                stack[top++] = node + 1;
+            }
+        }
+    }
+
+    int getNumNodes() {
+        return numNodes;
+    }
+
+}
@@ -0,0 +1,210 @@
+package org.render3d.scene;
+
+import org.render3d.matrix.Frustum;
+import org.render3d.mesh.MeshObject;
+import org.render3d.mesh.Model;
+import org.render3d.transforms.Transform;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a world with many objects placed on it. The objects
+ * are kept in a bounding volume hierarchy, so the objects inside the view
+ * frustum are found visiting only the part of the tree which crosses it,
+ * instead of testing every object.
+ *
+ * The tree is built again, the next time it is needed, when objects are added
+ * or removed. When an object moves only its branch of the tree is refitted.
+ * A scene must only be used by one thread.
+ */
+public class Scene {
+
+    /**
+     * The objects of the scene
+     */
+    private final ArrayList<SceneObject> objects = new ArrayList<>();
+
+    /**
+     * The objects whose bounds have to be refitted
+     */
+    private final ArrayList<SceneObject> dirtyObjects = new ArrayList<>();
+
+    /**
+     * The bounding volume hierarchy of the objects
+     */
+    private final BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy();
+
+    /**
+     * If true, the tree has to be built again
+     */
+    private boolean rebuild = false;
+
+    /**
+     * This method places a mesh object in the scene
+     * @param object the mesh object
+     * @param transform the world transform of the object
+     * @return the placed object
+     */
+    public SceneObject add(MeshObject object, Transform transform) {
+        SceneObject sceneObject = new SceneObject(object, transform);
+        add(sceneObject);
+        return sceneObject;
+    }
+
+    /**
+     * This method places all the objects of a model in the scene with the same
+     * transform. If the transform is modified, invalidateBounds must be called
+     * on all of them
+     * @param model the model
+     * @param transform the world transform of the model
+     * @return the placed objects
+     */
+    public ArrayList<SceneObject> add(Model model, Transform transform) {
+        ArrayList<SceneObject> placed = new ArrayList<>();
+        for ( MeshObject object : model.getObjects() ) {
+            placed.add(add(object, transform));
+        }
+        return placed;
+    }
+
+    /**
+     * This method adds an object to the scene
+     * @param object the object, which can't be in other scene
+     */
+    public void add(SceneObject object) {
+        if ( object.scene != null ) {
+            throw new IllegalArgumentException("The object is already in a scene");
+        }
+        object.scene = this;
+        object.index = objects.size();
+        object.dirty = false;
+        objects.add(object);
+        rebuild = true;
+    }
+
+    /**
+     * This method removes an object from the scene. The last object takes its place
+     * @param object the object to remove
+     * @return true if the object was in the scene
+     */
+    public boolean remove(SceneObject object) {
+        if ( object.scene != this ) {
+            return false;
+        }
+        SceneObject last = objects.remove(objects.size() - 1);
+        if ( last != object ) {
+            objects.set(object.index, last);
+            last.index = object.index;
+        }
+        object.scene = null;
+        object.index = -1;
+        object.dirty = false;
+        rebuild = true;
+        return true;
+    }
+
+    /**
+     * This method removes all the objects
+     */
+    public void clear() {
+        for ( SceneObject object : objects ) {
+            object.scene = null;
+            object.index = -1;
+            object.dirty = false;
+        }
+        objects.clear();
+        dirtyObjects.clear();
+        rebuild = true;
+    }
+
+    /**
+     * This method builds the tree again the next time it is needed. The refits keep
+     * the shape of the tree, so after the objects have moved a lot the tree is
+     * worse and it is worth building it again
+     */
+    public void rebuild() {
+        rebuild = true;
+    }
+
+    /**
+     * This method marks an object to be refitted
+     * @param object the object which has moved
+     */
+    void markDirty(SceneObject object) {
+        if ( !object.dirty && !rebuild ) {
+            object.dirty = true;
+            dirtyObjects.add(object);
+        }
+    }
+
+    /**
+     * This method brings the tree up to date: it is built again if the objects have
+     * changed, or the branches of the objects which have moved are refitted.
+     * When many objects have moved, all the nodes are refitted at once
+     */
+    public void update() {
+        if ( rebuild ) {
+            for ( SceneObject object : dirtyObjects ) {
+                object.dirty = false;
+            }
+            dirtyObjects.clear();
+            bvh.build(objects);
+            rebuild = false;
+            return;
+        }
+        if ( dirtyObjects.isEmpty() ) {
+            return;
+        }
+        for ( SceneObject object : dirtyObjects ) {
+            bvh.updateObjectBounds(object.index, object);
+        }
+        if ( dirtyObjects.size() > bvh.getNumNodes() / Math.max(1, log2(bvh.getNumNodes())) ) {
+            bvh.refitAll();
+        } else {
+            for ( SceneObject object : dirtyObjects ) {
+                bvh.refit(object.index);
+            }
+        }
+        for ( SceneObject object : dirtyObjects ) {
+            object.dirty = false;
+        }
+        dirtyObjects.clear();
+    }
+
+    /**
+     * This method finds the objects which are, at least partly, inside the frustum
+     * @param frustum the view frustum, in world space
+     * @param visible the list where the visible objects are added
+     */
+    public void cull(Frustum frustum, ArrayList<SceneObject> visible) {
+        update();
+        bvh.cull(frustum, objects, visible);
+    }
+
+    /**
+     * This method calculates the integer base 2 logarithm
+     * @param n a positive number
+     * @return the logarithm, rounded down
+     */
+    private static int log2(int n) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(1, n));
+    }
+
+    // --------------
+
+    public List<SceneObject> getObjects() {
+        return Collections.unmodifiableList(objects);
+    }
+
+    public int getNumObjects() {
+        return objects.size();
+    }
+
+    public int getNumNodes() {
+        update();
+        return bvh.getNumNodes();
+    }
+
+}
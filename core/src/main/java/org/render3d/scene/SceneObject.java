@@ -0,0 +1,95 @@
+package org.render3d.scene;
+
+import org.render3d.mesh.MeshObject;
+import org.render3d.transforms.Transform;
+
+/**
+ * This class represents an object placed in a scene: a mesh object
+ * and the transform which takes it from its own space to the world.
+ *
+ * The same mesh object can be placed several times with different transforms.
+ * When the transform is modified without calling setTransform (for example,
+ * calling update on it), invalidateBounds must be called so the scene
+ * refits its bounding volume hierarchy.
+ */
+public class SceneObject {
+
+    /**
+     * The mesh object to render
+     */
+    private final MeshObject object;
+
+    /**
+     * The world transform of the object
+     */
+    private Transform transform;
+
+    /**
+     * The scene which contains the object, or null
+     */
+    Scene scene;
+
+    /**
+     * The position of the object in the scene
+     */
+    int index = -1;
+
+    /**
+     * If true, the world bounds of the object are waiting to be refitted
+     */
+    boolean dirty = false;
+
+    /**
+     * Constructor. The object is placed with the identity transform
+     * @param object the mesh object
+     */
+    public SceneObject(MeshObject object) {
+        this(object, new Transform());
+    }
+
+    /**
+     * Constructor
+     * @param object the mesh object
+     * @param transform the world transform of the object
+     */
+    public SceneObject(MeshObject object, Transform transform) {
+        if ( object == null || transform == null ) {
+            throw new IllegalArgumentException("The object and the transform can't be null");
+        }
+        this.object = object;
+        this.transform = transform;
+    }
+
+    /**
+     * This method tells the scene that the object has moved, or that its
+     * mesh has changed, so its world bounds are calculated again
+     */
+    public void invalidateBounds() {
+        if ( scene != null ) {
+            scene.markDirty(this);
+        }
+    }
+
+    // --------------
+
+    public MeshObject getObject() {
+        return object;
+    }
+
+    public Transform getTransform() {
+        return transform;
+    }
+
+    public void setTransform(Transform transform) {
+        if ( transform == null ) {
+            throw new IllegalArgumentException("The transform can't be null");
+        }
+        this.transform = transform;
+        invalidateBounds();
+    }
+
+    public Scene getScene() {
+        return scene;
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.render3d;
+
+import org.junit.jupiter.api.Test;
+import org.render3d.mesh.MeshFactory;
+import org.render3d.mesh.MeshObject;
+import org.render3d.mesh.PackedMesh;
+import org.render3d.scene.Scene;
+import org.render3d.transforms.Translation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipeLineCullingTest {
+
+    private static MeshObject cube() {
+        return new MeshObject("cube", new PackedMesh(MeshFactory.getUnitCube()));
+    }
+
+    @Test
+    void meshesOutsideTheFrustumAreCulledByDefault() {
+        PipeLine pipeLine = new PipeLine(64, 64);
+        assertTrue(pipeLine.isFrustumCulling());
+
+        pipeLine.clearDepthBuffer();
+        pipeLine.setTransform(new Translation(0.0f, 0.0f, -100.0f).update());
+        pipeLine.renderMesh(cube().getPackedMesh(), 0xffffffff);
+        assertEquals(1, pipeLine.getNumMeshesCulled());
+        assertEquals(0, pipeLine.getNumTrianglesDrawn());
+    }
+
+    @Test
+    void objectsOfASceneAreCulledOnce() {
+        PipeLine pipeLine = new PipeLine(64, 64);
+        pipeLine.setFrameStatsEnabled(true);
+        Scene scene = new Scene();
+        scene.add(cube(), new Translation(-0.5f, -0.5f, 4.0f).update());
+        scene.add(cube(), new Translation(0.0f, 0.0f, -100.0f).update());
+        scene.add(cube(), new Translation(500.0f, 0.0f, 4.0f).update());
+
+        pipeLine.clearDepthBuffer();
+        pipeLine.renderScene(scene, 0xffffffff);
+        assertTrue(pipeLine.getNumTrianglesDrawn() > 0);
+        pipeLine.clearDepthBuffer();
+        assertEquals(2, pipeLine.getNumMeshesCulled());
+        assertEquals(2, pipeLine.getFrameStats().getNumMeshesCulled());
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.render3d;
+
+import org.junit.jupiter.api.Test;
+import org.render3d.material.Texture;
+import org.render3d.material.TextureAddressMode;
+import org.render3d.material.TextureFilter;
+import org.render3d.mesh.Mesh;
+import org.render3d.mesh.MeshFactory;
+import org.render3d.mesh.PackedMesh;
+import org.render3d.transforms.Rotation;
+import org.render3d.transforms.Translation;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipeLineParallelGeometryTest {
+
+    private static final int WIDTH = 96;
+
+    private static final int HEIGHT = 64;
+
+    private static Texture checkerTexture() {
+        int[] pixels = new int[8 * 8];
+        for ( int i = 0; i < pixels.length; i++ ) {
+            pixels[i] = ((i % 8 + i / 8) & 1) == 0 ? 0xff20c040 : 0xffc02040;
+        }
+        return new Texture(pixels, 8, 8);
+    }
+
+    /**
+     * This method draws some rotated cubes. The nearest ones cross the near plane
+     * and the sides of the screen, so their triangles are clipped
+     */
+    private static int[] render(PipeLine pipeLine, Mesh mesh, PackedMesh packedMesh, Texture texture) {
+        pipeLine.getRenderer3D().clear(0xff000000);
+        pipeLine.clearDepthBuffer();
+        int numTrianglesDrawn = 0;
+        for ( int i = 0; i < 8; i++ ) {
+            pipeLine.setTransform(new Rotation(0.5f * i, 0.3f + i, 0.1f * i).update()
+                    .combine(new Translation(-1.4f + 0.4f * i, -0.7f + 0.2f * i, -1.3f + 0.5f * i).update()));
+            if ( i % 2 == 0 ) {
+                pipeLine.renderMesh(mesh, texture, TextureFilter.BILINEAR, TextureAddressMode.WRAP);
+            } else {
+                pipeLine.renderMesh(packedMesh, texture, TextureFilter.BILINEAR, TextureAddressMode.WRAP);
+            }
+            numTrianglesDrawn += pipeLine.getNumTrianglesDrawn();
+        }
+        int[] image = new int[WIDTH * HEIGHT + 1];
+        System.arraycopy(pipeLine.getRenderer3D().getP(), 0, image, 0, WIDTH * HEIGHT);
+        image[WIDTH * HEIGHT] = numTrianglesDrawn;
+        return image;
+    }
+
+    @Test
+    void parallelGeometryDrawsTheSameImageAsOneThread() {
+        Mesh mesh = MeshFactory.getUnitCube();
+        PackedMesh packedMesh = new PackedMesh(MeshFactory.getUnitCube());
+        Texture texture = checkerTexture();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for ( ClipMode clipMode : ClipMode.values() ) {
+                for ( RenderFlags flag : new RenderFlags[] { RenderFlags.RENDER_FLAT, RenderFlags.RENDER_TEXTURED } ) {
+                    String message = clipMode + " " + flag;
+                    PipeLine serial = new PipeLine(WIDTH, HEIGHT);
+                    serial.setClipMode(clipMode);
+                    serial.setRenderFlag(flag);
+
+                    PipeLine parallel = new PipeLine(WIDTH, HEIGHT);
+                    parallel.setClipMode(clipMode);
+                    parallel.setRenderFlag(flag);
+                    parallel.setPool(pool);
+                    // Less triangles than the cube has, so each cube is split in chunks
+                    parallel.setGeometryChunkSize(5);
+                    parallel.setParallelGeometry(true);
+
+                    int[] expected = render(serial, mesh, packedMesh, texture);
+                    assertTrue(expected[WIDTH * HEIGHT] > 0, message);
+                    assertArrayEquals(expected, render(parallel, mesh, packedMesh, texture), message);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package org.render3d.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageWriterTest {
+
+    /**
+     * An image with smooth gradients and noise, so the PNG rows use different filters,
+     * and with transparent pixels
+     */
+    private static int[] image(int w, int h, long seed) {
+        Random random = new Random(seed);
+        int[] p = new int[w * h];
+        for ( int y = 0; y < h; y++ ) {
+            for ( int x = 0; x < w; x++ ) {
+                int alpha = (x + y) % 3 == 0 ? random.nextInt(256) : 0xff;
+                int color = y % 4 < 2 ? (x * 5) << 16 | (y * 3) << 8 | (x + y) : random.nextInt();
+                p[y * w + x] = alpha << 24 | (color & 0xffffff);
+            }
+        }
+        return p;
+    }
+
+    private static byte[] write(ImageWriter writer, int[] p, int w, int h) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(p, w, h, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static int[] readPng(byte[] bytes) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertNotNull(image);
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static int[] opaque(int[] p) {
+        int[] opaque = new int[p.length];
+        for ( int i = 0; i < p.length; i++ ) {
+            opaque[i] = p[i] | 0xff000000;
+        }
+        return opaque;
+    }
+
+    @Test
+    void pngImagesAreReadBackWithTheSamePixels() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int[][] sizes = { { 1, 1 }, { 37, 29 }, { 301, 211 } };
+            for ( int[] size : sizes ) {
+                int[] p = image(size[0], size[1], size[0]);
+                for ( int rowsPerStrip : new int[] { 0, 1, 7 } ) {
+                    for ( int level : new int[] { 0, 4, 9 } ) {
+                        PngWriter writer = new PngWriter();
+                        writer.setPool(pool);
+                        writer.setRowsPerStrip(rowsPerStrip);
+                        writer.setCompressionLevel(level);
+
+                        assertArrayEquals(opaque(p), readPng(write(writer, p, size[0], size[1])));
+                        writer.setAlpha(true);
+                        assertArrayEquals(p, readPng(write(writer, p, size[0], size[1])));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void pngWritersCanBeReused() throws IOException {
+        PngWriter writer = new PngWriter();
+        int[] big = image(120, 90, 1);
+        int[] small = image(20, 10, 2);
+        assertArrayEquals(opaque(big), readPng(write(writer, big, 120, 90)));
+        assertArrayEquals(opaque(small), readPng(write(writer, small, 20, 10)));
+        assertArrayEquals(opaque(big), readPng(write(writer, big, 120, 90)));
+    }
+
+    @Test
+    void ppmImagesHaveTheRgbBytesAfterTheHeader() throws IOException {
+        int w = 150;
+        int h = 170;
+        int[] p = image(w, h, 3);
+        byte[] bytes = write(new PpmWriter(), p, w, h);
+
+        byte[] header = ("P6\n" + w + " " + h + "\n255\n").getBytes(StandardCharsets.US_ASCII);
+        assertEquals(header.length + 3 * w * h, bytes.length);
+        for ( int i = 0; i < header.length; i++ ) {
+            assertEquals(header[i], bytes[i]);
+        }
+        for ( int i = 0; i < w * h; i++ ) {
+            int offset = header.length + 3 * i;
+            int rgb = (bytes[offset] & 0xff) << 16 | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff);
+            assertEquals(p[i] & 0xffffff, rgb);
+        }
+    }
+
+    @Test
+    void pamImagesHaveTheRgbaBytesAfterTheHeader() throws IOException {
+        int w = 130;
+        int h = 140;
+        int[] p = image(w, h, 4);
+        byte[] bytes = write(new PamWriter(), p, w, h);
+
+        byte[] header = ("P7\nWIDTH " + w + "\nHEIGHT " + h + "\nDEPTH 4\nMAXVAL 255\nTUPLTYPE RGB_ALPHA\nENDHDR\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        assertEquals(header.length + 4 * w * h, bytes.length);
+        for ( int i = 0; i < w * h; i++ ) {
+            int offset = header.length + 4 * i;
+            int argb = (bytes[offset + 3] & 0xff) << 24 | (bytes[offset] & 0xff) << 16
+                    | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff);
+            assertEquals(p[i], argb);
+        }
+    }
+
+    @Test
+    void rawImagesKeepThePixelsInTheByteOrder() throws IOException {
+        int w = 140;
+        int h = 130;
+        int[] p = image(w, h, 5);
+        RawWriter writer = new RawWriter();
+        for ( ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN } ) {
+            writer.setByteOrder(order);
+            ByteBuffer bytes = ByteBuffer.wrap(write(writer, p, w, h)).order(order);
+            assertEquals(4 * w * h, bytes.remaining());
+            for ( int i = 0; i < w * h; i++ ) {
+                assertEquals(p[i], bytes.getInt());
+            }
+        }
+    }
+
+    @Test
+    void imagesBiggerThanTheirPixelsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> write(new PpmWriter(), new int[10], 4, 3));
+        assertThrows(IllegalArgumentException.class, () -> write(new PngWriter(), new int[10], 0, 3));
+    }
+
+}
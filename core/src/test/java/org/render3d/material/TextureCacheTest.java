@@ -0,0 +1,127 @@
+package org.render3d.material;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextureCacheTest {
+
+    private static Texture texture(int seed) {
+        int[] pixels = new int[16 * 16];
+        for ( int i = 0; i < pixels.length; i++ ) {
+            pixels[i] = 0xff000000 | (seed * 7919 + i * 31);
+        }
+        return new Texture(pixels, 16, 16);
+    }
+
+    @Test
+    void leastRecentlyUsedTexturesAreEvicted() {
+        long size = texture(0).getSizeInBytes();
+        TextureCache cache = new TextureCache(2 * size);
+        Texture a = cache.put("a", texture(1));
+        cache.put("b", texture(2));
+        // "a" is used again, so "b" is the least recently used one
+        assertSame(a, cache.get("a"));
+
+        cache.put("c", texture(3));
+        assertEquals(1, cache.getNumEvictions());
+        assertEquals(2, cache.getNumPaths());
+        assertEquals(2 * size, cache.getSizeInBytes());
+        assertFalse(cache.remove("b"));
+        assertTrue(cache.remove("a"));
+        assertTrue(cache.remove("c"));
+        assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    void shrinkingTheBudgetEvictsTextures() {
+        long size = texture(0).getSizeInBytes();
+        TextureCache cache = new TextureCache(3 * size);
+        cache.put("a", texture(1));
+        cache.put("b", texture(2));
+        cache.put("c", texture(3));
+        cache.setBudget(size);
+        assertEquals(1, cache.getNumPaths());
+        assertTrue(cache.remove("c"));
+    }
+
+    @Test
+    void pathsWithTheSamePixelsShareTheTexture() {
+        long size = texture(0).getSizeInBytes();
+        TextureCache cache = new TextureCache(10 * size);
+        Texture first = cache.put("first", texture(1));
+        assertSame(first, cache.put("second", texture(1)));
+        assertNotSame(first, cache.put("other", texture(2)));
+        assertEquals(3, cache.getNumPaths());
+        assertEquals(2 * size, cache.getSizeInBytes());
+
+        // The texture is counted until its last path is removed
+        assertTrue(cache.remove("first"));
+        assertEquals(2 * size, cache.getSizeInBytes());
+        assertTrue(cache.remove("second"));
+        assertEquals(size, cache.getSizeInBytes());
+    }
+
+    @Test
+    void anImageAskedByManyThreadsIsDecodedOnce() throws Exception {
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+        for ( int y = 0; y < 256; y++ ) {
+            for ( int x = 0; x < 256; x++ ) {
+                image.setRGB(x, y, 0xff000000 | (x << 16) | (y << 8) | ((x * y) & 0xff));
+            }
+        }
+        Path file = Files.createTempFile("texture", ".png");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            ImageIO.write(image, "png", file.toFile());
+            TextureCache cache = new TextureCache(TextureCache.DEFAULT_BUDGET);
+            CountDownLatch start = new CountDownLatch(1);
+            Callable<Texture> load = () -> {
+                start.await();
+                return cache.get(file.toString());
+            };
+            List<Future<Texture>> futures = new ArrayList<>();
+            for ( int i = 0; i < 16; i++ ) {
+                futures.add(executor.submit(load));
+            }
+            start.countDown();
+
+            Texture texture = futures.get(0).get();
+            for ( Future<Texture> future : futures ) {
+                assertSame(texture, future.get());
+            }
+            assertEquals(1, cache.getNumMisses());
+            assertEquals(15, cache.getNumHits());
+            assertEquals(0xff000000 | (3 << 16) | (5 << 8) | 15, texture.getPixel(3, 5));
+        } finally {
+            executor.shutdownNow();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void imagesWhichCantBeReadAreNotCached() throws IOException {
+        Path file = Files.createTempFile("missing", ".png");
+        Files.delete(file);
+        TextureCache cache = new TextureCache(TextureCache.DEFAULT_BUDGET);
+        assertThrows(IllegalArgumentException.class, () -> cache.get(file.toString()));
+        assertEquals(0, cache.getNumPaths());
+        // The next request tries to read the image again
+        assertThrows(IllegalArgumentException.class, () -> cache.get(file.toString()));
+        assertEquals(2, cache.getNumMisses());
+    }
+
+}
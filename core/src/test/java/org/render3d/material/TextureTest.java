@@ -0,0 +1,198 @@
+package org.render3d.material;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextureTest {
+
+    @Test
+    void emptyTextureSamplesTheMissingTexelInEveryMode() {
+        Texture texture = new Texture();
+        for ( TextureAddressMode mode : TextureAddressMode.values() ) {
+            assertEquals(Texture.MISSING_TEXEL, texture.getPixel(0, 0, mode));
+            assertEquals(Texture.MISSING_TEXEL, texture.getPixel(-3, 7, mode));
+            assertEquals(Texture.MISSING_TEXEL, texture.getSample(0.5f, 0.5f, mode));
+            assertEquals(Texture.MISSING_TEXEL, texture.getSample(-1.5f, 2.5f, mode));
+            assertEquals(Texture.MISSING_TEXEL, texture.getBilinearSample(0.5f, 0.5f, mode));
+            assertEquals(Texture.MISSING_TEXEL, texture.getBilinearSample(1 << 16, 1 << 16, mode));
+        }
+    }
+
+    @Test
+    void textureWithoutPixelsSamplesTheMissingTexel() {
+        // A size which isn't a power of two, so WRAP and MIRROR don't use the masks
+        Texture texture = new Texture(3, 5);
+        for ( TextureAddressMode mode : TextureAddressMode.values() ) {
+            assertEquals(Texture.MISSING_TEXEL, texture.getPixel(4, 6, mode));
+            assertEquals(Texture.MISSING_TEXEL, texture.getSample(0.25f, 0.75f, mode));
+            assertEquals(Texture.MISSING_TEXEL, texture.getBilinearSample(0.25f, 0.75f, mode));
+        }
+    }
+
+    @Test
+    void settingThePixelsMakesTheTextureSampleable() {
+        Texture texture = new Texture();
+        texture.setW(2);
+        texture.setH(1);
+        assertEquals(Texture.MISSING_TEXEL, texture.getPixel(0, 0));
+        texture.setP(new int[] { 0xff000001, 0xff000002 });
+        assertEquals(0xff000001, texture.getPixel(0, 0));
+        assertEquals(0xff000002, texture.getPixel(1, 0));
+    }
+
+    @Test
+    void resizingATiledTextureUsesTheTilesOfTheNewWidth() {
+        int[] pixels = new int[16 * 4];
+        for ( int i = 0; i < pixels.length; i++ ) {
+            pixels[i] = i;
+        }
+        Texture texture = new Texture(pixels, 16, 4);
+        texture.setLayout(TextureLayout.TILED);
+
+        // The same 64 texels, but the rows of tiles are one tile wide now
+        texture.setW(4);
+        texture.setH(16);
+        for ( int y = 0; y < 16; y++ ) {
+            for ( int x = 0; x < 4; x++ ) {
+                // The tile k of the old row of tiles is the row of tiles k of the new image
+                assertEquals(x + 4 * (y / 4) + 16 * (y % 4), texture.getPixel(x, y));
+            }
+        }
+
+        int[] resized = new int[4 * 16];
+        for ( int i = 0; i < resized.length; i++ ) {
+            resized[i] = 1000 + i;
+        }
+        texture.setP(resized);
+        for ( int y = 0; y < 16; y++ ) {
+            for ( int x = 0; x < 4; x++ ) {
+                assertEquals(1000 + x + 4 * y, texture.getPixel(x, y));
+            }
+        }
+        assertArrayEquals(resized, texture.getRowMajorPixels());
+    }
+
+    private static Texture randomTexture(int w, int h, Random random) {
+        int[] pixels = new int[w * h];
+        for ( int i = 0; i < pixels.length; i++ ) {
+            pixels[i] = random.nextInt();
+        }
+        return new Texture(pixels, w, h);
+    }
+
+    /**
+     * This method maps a pixel position to the image as the address mode says
+     */
+    private static int address(int x, int size, TextureAddressMode mode) {
+        switch ( mode ) {
+            case CLAMP:
+                return Math.max(0, Math.min(x, size - 1));
+            case WRAP:
+                return Math.floorMod(x, size);
+            default:
+                int m = Math.floorMod(x, 2 * size);
+                return m < size ? m : 2 * size - 1 - m;
+        }
+    }
+
+    /**
+     * The bilinear filter computed with doubles
+     */
+    private static double[] referenceBilinearSample(Texture texture, double x, double y, TextureAddressMode mode) {
+        double u = x * texture.getW() - 0.5;
+        double v = y * texture.getH() - 0.5;
+        int x0 = (int) Math.floor(u);
+        int y0 = (int) Math.floor(v);
+        double fx = u - x0;
+        double fy = v - y0;
+        int[] rowMajor = texture.getRowMajorPixels();
+        double[] channels = new double[4];
+        for ( int k = 0; k < 4; k++ ) {
+            int px = address(x0 + (k & 1), texture.getW(), mode);
+            int py = address(y0 + (k >> 1), texture.getH(), mode);
+            double weight = ((k & 1) == 0 ? 1 - fx : fx) * ((k >> 1) == 0 ? 1 - fy : fy);
+            int color = rowMajor[py * texture.getW() + px];
+            for ( int c = 0; c < 4; c++ ) {
+                channels[c] += weight * ((color >>> (c * 8)) & 0xff);
+            }
+        }
+        return channels;
+    }
+
+    private static void assertBilinearSample(Texture texture, float x, float y, TextureAddressMode mode) {
+        int sample = texture.getBilinearSample(x, y, mode);
+        double[] expected = referenceBilinearSample(texture, x, y, mode);
+        for ( int c = 0; c < 4; c++ ) {
+            // The weights have 8 bits, and each of the two blends rounds
+            assertEquals(expected[c], (sample >>> (c * 8)) & 0xff, 2.0,
+                    mode + " (" + x + ", " + y + ") channel " + c);
+        }
+    }
+
+    @Test
+    void fixedPointBilinearSamplesMatchAFloatFilter() {
+        Random random = new Random(3);
+        int[][] sizes = { { 16, 8 }, { 5, 7 }, { 1, 3 } };
+        for ( int[] size : sizes ) {
+            for ( TextureLayout layout : TextureLayout.values() ) {
+                Texture texture = randomTexture(size[0], size[1], random);
+                texture.setLayout(layout);
+                for ( TextureAddressMode mode : TextureAddressMode.values() ) {
+                    for ( int i = 0; i < 500; i++ ) {
+                        assertBilinearSample(texture, random.nextFloat() * 6 - 3, random.nextFloat() * 6 - 3, mode);
+                    }
+                    // So far away that the position doesn't fit in 16.16 fixed point
+                    assertBilinearSample(texture, 4100.3f, -3000.6f, mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    void bilinearSamplesAtThePixelCentersAreThePixels() {
+        Texture texture = randomTexture(8, 4, new Random(5));
+        for ( int y = 0; y < 4; y++ ) {
+            for ( int x = 0; x < 8; x++ ) {
+                assertEquals(texture.getPixel(x, y), texture.getBilinearSample((x + 0.5f) / 8, (y + 0.5f) / 4));
+                assertEquals(texture.getPixel(x, y), texture.getBilinearSample(x << 16, y << 16));
+            }
+        }
+    }
+
+    @Test
+    void powerOfTwoSizesAddressThePixelsAsAnyOtherSize() {
+        Random random = new Random(11);
+        // Both sizes powers of two, only one of them, and none
+        int[][] sizes = { { 8, 4 }, { 1, 1 }, { 8, 5 }, { 6, 5 } };
+        int[] far = { Integer.MIN_VALUE, -(1 << 30) - 3, (1 << 30) + 5, Integer.MAX_VALUE };
+        for ( int[] size : sizes ) {
+            int w = size[0];
+            int h = size[1];
+            for ( TextureLayout layout : TextureLayout.values() ) {
+                Texture texture = randomTexture(w, h, random);
+                texture.setLayout(layout);
+                int[] rowMajor = texture.getRowMajorPixels();
+                for ( TextureAddressMode mode : TextureAddressMode.values() ) {
+                    for ( int y = -3 * h; y < 3 * h; y++ ) {
+                        for ( int x = -3 * w; x < 3 * w; x++ ) {
+                            int expected = rowMajor[address(y, h, mode) * w + address(x, w, mode)];
+                            assertEquals(expected, texture.getPixel(x, y, mode), mode + " (" + x + ", " + y + ")");
+                            // The nearest sample of the center of the pixel
+                            assertEquals(expected, texture.getSample((x + 0.5f) / w, (y + 0.5f) / h, mode));
+                        }
+                    }
+                    for ( int x : far ) {
+                        for ( int y : far ) {
+                            int expected = rowMajor[address(y, h, mode) * w + address(x, w, mode)];
+                            assertEquals(expected, texture.getPixel(x, y, mode), mode + " (" + x + ", " + y + ")");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
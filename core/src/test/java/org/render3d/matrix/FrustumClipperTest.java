@@ -0,0 +1,157 @@
+package org.render3d.matrix;
+
+import org.junit.jupiter.api.Test;
+import org.render3d.mesh.Triangle;
+import org.render3d.mesh.TriangleArena;
+import org.render3d.vectors.vec3d.Vec3df;
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrustumClipperTest {
+
+    private static final float EPSILON = 1e-4f;
+
+    /**
+     * The texture coordinates of a point are a linear function of its position,
+     * so they can be checked after the point has been interpolated
+     */
+    private static Vec3df attributes(Vec4df p) {
+        return new Vec3df(
+                p.getX() + 2 * p.getY() - p.getZ(),
+                3 * p.getX() - p.getY() + 0.5f * p.getW(),
+                p.getZ() + p.getW());
+    }
+
+    private static Triangle triangle(Vec4df p1, Vec4df p2, Vec4df p3) {
+        Triangle triangle = new Triangle(
+                new Vec4df[] { p1, p2, p3 },
+                new Vec3df[] { attributes(p1), attributes(p2), attributes(p3) });
+        triangle.setColor(0xff123456);
+        triangle.setBrightness(0.5f);
+        return triangle;
+    }
+
+    private static boolean isInside(Vec4df p) {
+        float w = p.getW() + EPSILON;
+        return Math.abs(p.getX()) <= w && Math.abs(p.getY()) <= w && p.getZ() >= -EPSILON && p.getZ() <= w;
+    }
+
+    private static float area(ArrayList<Triangle> triangles) {
+        float area = 0;
+        for ( Triangle triangle : triangles ) {
+            Vec4df[] p = triangle.getP();
+            area += Math.abs((p[1].getX() - p[0].getX()) * (p[2].getY() - p[0].getY())
+                    - (p[1].getY() - p[0].getY()) * (p[2].getX() - p[0].getX())) * 0.5f;
+        }
+        return area;
+    }
+
+    /**
+     * This method checks that the clipped triangles are inside the frustum, and that
+     * their attributes and their color are the ones of the original triangle
+     */
+    private static void assertClipped(ArrayList<Triangle> triangles) {
+        for ( Triangle triangle : triangles ) {
+            assertEquals(0xff123456, triangle.getColor());
+            assertEquals(0.5f, triangle.getBrightness());
+            for ( int k = 0; k < 3; k++ ) {
+                Vec4df p = triangle.getP()[k];
+                Vec3df expected = attributes(p);
+                assertTrue(isInside(p));
+                assertEquals(expected.getX(), triangle.getT()[k].getX(), EPSILON);
+                assertEquals(expected.getY(), triangle.getT()[k].getY(), EPSILON);
+                assertEquals(expected.getZ(), triangle.getT()[k].getZ(), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    void outcodesTellTheSidesOfTheFrustum() {
+        assertEquals(0, FrustumClipper.outcode(new Vec4df(0.5f, -0.5f, 0.5f, 1)));
+        assertEquals(0, FrustumClipper.outcode(new Vec4df(1, -1, 1, 1)));
+        assertEquals(FrustumClipper.OUTSIDE_LEFT, FrustumClipper.outcode(new Vec4df(-2, 0, 1, 1.5f)));
+        assertEquals(FrustumClipper.OUTSIDE_RIGHT | FrustumClipper.OUTSIDE_TOP,
+                FrustumClipper.outcode(new Vec4df(3, 3, 1, 2)));
+        assertEquals(FrustumClipper.OUTSIDE_BOTTOM | FrustumClipper.OUTSIDE_NEAR,
+                FrustumClipper.outcode(new Vec4df(0, -2, -0.1f, 1)));
+        assertEquals(FrustumClipper.OUTSIDE_FAR, FrustumClipper.outcode(new Vec4df(0, 0, 1.5f, 1)));
+    }
+
+    @Test
+    void trianglesInsideAreAcceptedAsTheyAre() {
+        Triangle inside = triangle(new Vec4df(-0.5f, -0.5f, 0.5f, 1), new Vec4df(0.5f, -0.5f, 0.5f, 1), new Vec4df(0, 0.5f, 0.5f, 1));
+        ArrayList<Triangle> output = new ArrayList<>();
+        TriangleArena arena = new TriangleArena();
+        assertEquals(1, new FrustumClipper().clip(inside, arena, output));
+        assertEquals(1, output.size());
+        assertSame(inside, output.get(0));
+        assertEquals(0, arena.getNumTriangles());
+    }
+
+    @Test
+    void trianglesOutsideOnePlaneAreRejected() {
+        float[][] offsets = { { -3, 0, 0 }, { 3, 0, 0 }, { 0, -3, 0 }, { 0, 3, 0 }, { 0, 0, -2 }, { 0, 0, 2 } };
+        FrustumClipper clipper = new FrustumClipper();
+        ArrayList<Triangle> output = new ArrayList<>();
+        for ( float[] offset : offsets ) {
+            Triangle outside = triangle(
+                    new Vec4df(-0.5f + offset[0], -0.5f + offset[1], 0.5f + offset[2], 1),
+                    new Vec4df(0.5f + offset[0], -0.5f + offset[1], 0.5f + offset[2], 1),
+                    new Vec4df(offset[0], 0.5f + offset[1], 0.5f + offset[2], 1));
+            assertEquals(0, clipper.clip(outside, new TriangleArena(), output));
+        }
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void trianglesOutsideACornerAreRejectedByClipping() {
+        // Each point is outside a different plane, but the triangle doesn't touch the frustum
+        Triangle corner = triangle(new Vec4df(2, 0.6f, 0.5f, 1), new Vec4df(0.6f, 2, 0.5f, 1), new Vec4df(2, 2, 0.5f, 1));
+        ArrayList<Triangle> output = new ArrayList<>();
+        assertEquals(0, new FrustumClipper().clip(corner, new TriangleArena(), output));
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void trianglesAreClippedByTheSidePlanes() {
+        // The triangle covers the whole square x, y in [-1, 1]
+        Triangle big = triangle(new Vec4df(-4, -2, 0.5f, 1), new Vec4df(4, -2, 0.5f, 1), new Vec4df(0, 6, 0.5f, 1));
+        ArrayList<Triangle> output = new ArrayList<>();
+        TriangleArena arena = new TriangleArena();
+        int count = new FrustumClipper().clip(big, arena, output);
+        assertEquals(count, output.size());
+        assertEquals(2, count);
+        assertEquals(2, arena.getNumTriangles());
+        assertEquals(4.0f, area(output), EPSILON);
+        assertClipped(output);
+    }
+
+    @Test
+    void trianglesAreClippedBySixPlanes() {
+        // A triangle which crosses the six planes: every plane adds a point to the polygon
+        Triangle crossing = triangle(new Vec4df(-3, -0.2f, -1, 1), new Vec4df(3, -3, 0.5f, 1), new Vec4df(0.4f, 3, 2, 1));
+        ArrayList<Triangle> output = new ArrayList<>();
+        int count = new FrustumClipper().clip(crossing, new TriangleArena(), output);
+        assertEquals(count, output.size());
+        assertTrue(count > 0);
+        assertClipped(output);
+    }
+
+    @Test
+    void clippingTheNearPlaneKeepsTheAttributesLinear() {
+        // One point behind the camera: the triangle becomes a quad, two triangles
+        Triangle near = triangle(new Vec4df(0, 0.5f, -0.5f, 0.5f), new Vec4df(-0.5f, -0.5f, 0.5f, 1), new Vec4df(0.5f, -0.5f, 0.5f, 1));
+        ArrayList<Triangle> output = new ArrayList<>();
+        assertEquals(2, new FrustumClipper().clip(near, new TriangleArena(), output));
+        assertClipped(output);
+        for ( Triangle triangle : output ) {
+            for ( int k = 0; k < 3; k++ ) {
+                assertTrue(triangle.getP()[k].getZ() >= 0.0f);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.render3d.mesh;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjReaderTest {
+
+    /**
+     * A cube with one texture coordinate per corner and one normal per face,
+     * so every corner is used with three different normals
+     */
+    private static final String CUBE =
+            "o Cube\n" +
+            "v -1 -1 -1\n" +
+            "v 1 -1 -1\n" +
+            "v 1 1 -1\n" +
+            "v -1 1 -1\n" +
+            "v -1 -1 1\n" +
+            "v 1 -1 1\n" +
+            "v 1 1 1\n" +
+            "v -1 1 1\n" +
+            "vt 0 0\n" +
+            "vt 1 0\n" +
+            "vt 1 1\n" +
+            "vt 0 1\n" +
+            "vt 0.25 0.25\n" +
+            "vt 0.75 0.25\n" +
+            "vt 0.75 0.75\n" +
+            "vt 0.25 0.75\n" +
+            "vn 0 0 -1\n" +
+            "vn 0 0 1\n" +
+            "vn 0 -1 0\n" +
+            "vn 0 1 0\n" +
+            "vn -1 0 0\n" +
+            "vn 1 0 0\n" +
+            "f 1/1/1 3/3/1 2/2/1\n" +
+            "f 1/1/1 4/4/1 3/3/1\n" +
+            "f 5/5/2 6/6/2 7/7/2\n" +
+            "f 5/5/2 7/7/2 8/8/2\n" +
+            "f 1/1/3 2/2/3 6/6/3\n" +
+            "f 1/1/3 6/6/3 5/5/3\n" +
+            "f 4/4/4 8/8/4 7/7/4\n" +
+            "f 4/4/4 7/7/4 3/3/4\n" +
+            "f 1/1/5 5/5/5 8/8/5\n" +
+            "f 1/1/5 8/8/5 4/4/5\n" +
+            "f 2/2/6 3/3/6 7/7/6\n" +
+            "f 2/2/6 7/7/6 6/6/6\n";
+
+    /**
+     * Two faces which meet at a hard edge: the corners on the edge share the
+     * position and the texture coordinates, but each face has its own normal
+     */
+    private static final String HARD_EDGE =
+            "o Edge\n" +
+            "v 0 0 0\n" +
+            "v 1 0 0\n" +
+            "v 0 1 0\n" +
+            "v 0 0 1\n" +
+            "vt 0 0\n" +
+            "vt 1 0\n" +
+            "vt 0 1\n" +
+            "vt 1 1\n" +
+            "vn 0 0 -1\n" +
+            "vn -1 0 0\n" +
+            "f 1/1/1 2/2/1 3/3/1\n" +
+            "f 1/1/2 3/3/2 4/4/2\n";
+
+    private static ObjReader read(String obj) throws IOException {
+        Path file = Files.createTempFile("model", ".obj");
+        try {
+            Files.write(file, obj.getBytes(StandardCharsets.UTF_8));
+            ObjReader reader = new ObjReader();
+            assertTrue(reader.readObjFile(file.toString(), true));
+            return reader;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void cornersWithDifferentNormalsShareTheVertexAndKeepTheirNormals() throws IOException {
+        MeshObject object = read(HARD_EDGE).getObjects().get(0);
+        PackedMesh packedMesh = object.getPackedMesh();
+        assertEquals(2, packedMesh.getNumTriangles());
+        assertEquals(4, packedMesh.getNumVertices());
+
+        Mesh mesh = object.getMesh();
+        float[][] faceNormals = { { 0, 0, -1 }, { -1, 0, 0 } };
+        for ( int i = 0; i < 2; i++ ) {
+            Triangle triangle = mesh.getTris().get(i);
+            for ( int k = 0; k < 3; k++ ) {
+                assertEquals(faceNormals[i][0], triangle.getN()[k].getX());
+                assertEquals(faceNormals[i][1], triangle.getN()[k].getY());
+                assertEquals(faceNormals[i][2], triangle.getN()[k].getZ());
+            }
+        }
+    }
+
+    @Test
+    void faceNormalsDontSplitSharedVertices() throws IOException {
+        ObjReader reader = read(CUBE);
+        assertEquals(1, reader.getObjects().size());
+        PackedMesh mesh = reader.getObjects().get(0).getPackedMesh();
+        assertNotNull(mesh);
+        assertEquals(12, mesh.getNumTriangles());
+        assertEquals(8, mesh.getNumVertices());
+    }
+
+}
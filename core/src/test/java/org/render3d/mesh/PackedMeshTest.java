@@ -0,0 +1,70 @@
+package org.render3d.mesh;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedMeshTest {
+
+    @Test
+    void packingKeepsTheTrianglesOfTheMesh() {
+        Mesh mesh = MeshFactory.getUnitCube();
+        ArrayList<Triangle> tris = mesh.getTris();
+        tris.get(0).setColor(0xffff0000);
+        tris.get(5).setColor(0xff00ff00);
+        tris.get(5).setBrightness(0.25f);
+
+        PackedMesh packedMesh = new PackedMesh(mesh);
+        assertEquals(tris.size(), packedMesh.getNumTriangles());
+
+        Mesh unpacked = packedMesh.toMesh();
+        for ( int i = 0; i < tris.size(); i++ ) {
+            Triangle expected = tris.get(i);
+            Triangle actual = unpacked.getTris().get(i);
+            for ( int k = 0; k < 3; k++ ) {
+                assertEquals(expected.getP()[k].getX(), actual.getP()[k].getX());
+                assertEquals(expected.getP()[k].getY(), actual.getP()[k].getY());
+                assertEquals(expected.getP()[k].getZ(), actual.getP()[k].getZ());
+                assertEquals(expected.getT()[k].getX(), actual.getT()[k].getX());
+                assertEquals(expected.getT()[k].getY(), actual.getT()[k].getY());
+            }
+            assertEquals(expected.getColor(), actual.getColor());
+            assertEquals(expected.getBrightness(), actual.getBrightness());
+        }
+    }
+
+    @Test
+    void defaultColorsAreNotStored() {
+        PackedMesh packedMesh = new PackedMesh(MeshFactory.getUnitCube());
+        assertNull(packedMesh.getColors());
+        assertNull(packedMesh.getBrightness());
+        for ( Triangle triangle : packedMesh.toMesh().getTris() ) {
+            assertEquals(PackedMesh.DEFAULT_COLOR, triangle.getColor());
+            assertEquals(PackedMesh.DEFAULT_BRIGHTNESS, triangle.getBrightness());
+        }
+    }
+
+    @Test
+    void colorsGrowWithTheTriangles() {
+        PackedMeshBuilder builder = new PackedMeshBuilder();
+        for ( int i = 0; i < 200; i++ ) {
+            builder.addVertex(i, 0, 0, 0, 0, 0, 0, 1);
+            builder.addVertex(i, 1, 0, 0, 0, 0, 0, 1);
+            builder.addVertex(i, 0, 1, 0, 0, 0, 0, 1);
+            if ( i == 3 || i == 150 ) {
+                builder.setTriangleColor(0xff000000 | i, 0.5f);
+            }
+        }
+        PackedMesh packedMesh = builder.build();
+        assertEquals(200, packedMesh.getColors().length);
+        for ( int i = 0; i < 200; i++ ) {
+            Triangle triangle = packedMesh.getTriangle(i);
+            boolean colored = i == 3 || i == 150;
+            assertEquals(colored ? 0xff000000 | i : PackedMesh.DEFAULT_COLOR, triangle.getColor());
+            assertEquals(colored ? 0.5f : PackedMesh.DEFAULT_BRIGHTNESS, triangle.getBrightness());
+        }
+    }
+
+}
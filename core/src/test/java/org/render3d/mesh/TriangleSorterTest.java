@@ -0,0 +1,97 @@
+package org.render3d.mesh;
+
+import org.junit.jupiter.api.Test;
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriangleSorterTest {
+
+    private static final float[] SPECIAL_DEPTHS = {
+            0.0f, -0.0f, Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+            Float.MIN_VALUE, -Float.MIN_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, 1.0f, -1.0f
+    };
+
+    private static Triangle triangle(float z0, float z1, float z2) {
+        return new Triangle(new Vec4df[] {
+                new Vec4df(0, 0, z0),
+                new Vec4df(1, 0, z1),
+                new Vec4df(0, 1, z2)
+        });
+    }
+
+    private static float medZ(Triangle triangle) {
+        return (triangle.getP()[0].getZ() + triangle.getP()[1].getZ() + triangle.getP()[2].getZ()) / 3.0f;
+    }
+
+    /**
+     * The order of the comparator sort: from the farthest to the nearest, and
+     * the triangles with the same depth in the order they had
+     */
+    private static int[] referenceOrder(ArrayList<Triangle> triangles) {
+        List<Integer> order = new ArrayList<>();
+        for ( int i = 0; i < triangles.size(); i++ ) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing((Integer i) -> medZ(triangles.get(i)), (a, b) -> Float.compare(b, a)));
+        int[] result = new int[order.size()];
+        for ( int i = 0; i < result.length; i++ ) {
+            result[i] = order.get(i);
+        }
+        return result;
+    }
+
+    private static int[] radixOrder(TriangleSorter sorter, ArrayList<Triangle> triangles) {
+        int[] order = sorter.sort(triangles);
+        int[] result = new int[triangles.size()];
+        System.arraycopy(order, 0, result, 0, result.length);
+        return result;
+    }
+
+    @Test
+    void specialDepthsAreOrderedAsFloatCompare() {
+        ArrayList<Triangle> triangles = new ArrayList<>();
+        // Each depth twice, so the ties have to keep their order
+        for ( int repeat = 0; repeat < 2; repeat++ ) {
+            for ( float z : SPECIAL_DEPTHS ) {
+                triangles.add(triangle(z, z, z));
+            }
+        }
+        assertArrayEquals(referenceOrder(triangles), radixOrder(new TriangleSorter(), triangles));
+    }
+
+    @Test
+    void randomDepthsAreOrderedAsAStableComparatorSort() {
+        Random random = new Random(42);
+        TriangleSorter sorter = new TriangleSorter();
+        // The same sorter with growing and shrinking lists, its arrays are reused
+        for ( int n : new int[] { 0, 1, 17, 1000, 5, 3000 } ) {
+            ArrayList<Triangle> triangles = new ArrayList<>();
+            for ( int i = 0; i < n; i++ ) {
+                if ( random.nextInt(8) == 0 ) {
+                    float z = SPECIAL_DEPTHS[random.nextInt(SPECIAL_DEPTHS.length)];
+                    triangles.add(triangle(z, z, z));
+                } else {
+                    // Few distinct values, so there are many ties
+                    float z = (random.nextInt(64) - 32) / 8.0f;
+                    triangles.add(triangle(z, z * 0.5f, -z));
+                }
+            }
+            assertArrayEquals(referenceOrder(triangles), radixOrder(sorter, triangles));
+        }
+    }
+
+    @Test
+    void depthKeyKeepsTheSignOfZero() {
+        int negativeZero = TriangleSorter.depthKey(triangle(-0.0f, -0.0f, -0.0f));
+        int positiveZero = TriangleSorter.depthKey(triangle(0.0f, 0.0f, 0.0f));
+        // The positive zero is farther, its key is smaller as an unsigned integer
+        assertTrue(Integer.compareUnsigned(positiveZero, negativeZero) < 0);
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.render3d.render;
+
+import org.junit.jupiter.api.Test;
+import org.render3d.PipeLine;
+import org.render3d.RasterizerType;
+import org.render3d.RenderFlags;
+import org.render3d.ShadingMode;
+import org.render3d.material.Texture;
+import org.render3d.material.TextureAddressMode;
+import org.render3d.material.TextureFilter;
+import org.render3d.mesh.MeshFactory;
+import org.render3d.mesh.PackedMesh;
+import org.render3d.transforms.Rotation;
+import org.render3d.mesh.Triangle;
+import org.render3d.transforms.Translation;
+import org.render3d.vectors.vec3d.Vec3df;
+import org.render3d.vectors.vec4d.Vec4df;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PixelRenderer3DTest {
+
+    /**
+     * A size which isn't a multiple of the tile size, so the last tiles are cut
+     */
+    private static final int WIDTH = 100;
+
+    private static final int HEIGHT = 75;
+
+    private static final PackedMesh CUBE = new PackedMesh(MeshFactory.getUnitCube());
+
+    private static Texture checkerTexture() {
+        int[] pixels = new int[8 * 8];
+        for ( int i = 0; i < pixels.length; i++ ) {
+            pixels[i] = ((i % 8 + i / 8) & 1) == 0 ? 0xffff8000 : 0xff0080ff;
+        }
+        return new Texture(pixels, 8, 8);
+    }
+
+    /**
+     * This method draws some rotated cubes which overlap each other and the sides of the screen
+     */
+    private static int[] render(PipeLine pipeLine, Texture texture) {
+        pipeLine.getRenderer3D().clear(0xff000000);
+        pipeLine.clearDepthBuffer();
+        for ( int i = 0; i < 6; i++ ) {
+            pipeLine.setTransform(new Rotation(0.3f + i, 0.7f * i, 0.2f).update()
+                    .combine(new Translation(-1.2f + 0.4f * i, -0.9f + 0.3f * i, 1.5f + 0.2f * i).update()));
+            pipeLine.renderMesh(CUBE, texture, TextureFilter.BILINEAR, TextureAddressMode.WRAP);
+        }
+        pipeLine.getRenderer3D().resolveVisibilityBuffer();
+        return pipeLine.getRenderer3D().getP().clone();
+    }
+
+    private static int countDrawnPixels(int[] pixels) {
+        int count = 0;
+        for ( int pixel : pixels ) {
+            if ( pixel != 0xff000000 ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void tiledRenderingDrawsTheSameImageAsOneThread() {
+        Texture texture = checkerTexture();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for ( ShadingMode shadingMode : ShadingMode.values() ) {
+                for ( RasterizerType rasterizerType : RasterizerType.values() ) {
+                    for ( RenderFlags flag : RenderFlags.values() ) {
+                        String message = shadingMode + " " + rasterizerType + " " + flag;
+                        PipeLine serial = new PipeLine(WIDTH, HEIGHT);
+                        serial.setShadingMode(shadingMode);
+                        serial.setRasterizerType(rasterizerType);
+                        serial.setRenderFlag(flag);
+
+                        PipeLine tiled = new PipeLine(WIDTH, HEIGHT);
+                        tiled.setShadingMode(shadingMode);
+                        tiled.setRasterizerType(rasterizerType);
+                        tiled.setRenderFlag(flag);
+                        tiled.getRenderer3D().setPool(pool);
+                        tiled.getRenderer3D().setTileSize(16);
+                        tiled.getRenderer3D().setTiledRendering(true);
+
+                        int[] expected = render(serial, texture);
+                        assertTrue(countDrawnPixels(expected) > WIDTH * HEIGHT / 20, message);
+                        assertArrayEquals(expected, render(tiled, texture), message);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Triangle screenTriangle(int x1, int y1, int x2, int y2, int x3, int y3) {
+        return new Triangle(
+                new Vec4df[] { new Vec4df(x1, y1, 0), new Vec4df(x2, y2, 0), new Vec4df(x3, y3, 0) },
+                new Vec3df[] { new Vec3df(0, 0, 1), new Vec3df(0, 0, 1), new Vec3df(0, 0, 1) });
+    }
+
+    @Test
+    void trianglesSharingEdgesDrawEveryPixelOnce() {
+        // A grid of vertices over the rectangle (4, 3) - (64, 43), with the inner vertices
+        // moved at random, so the shared edges have all kinds of slopes
+        int columns = 7;
+        int rows = 5;
+        int[][] xs = new int[rows][columns];
+        int[][] ys = new int[rows][columns];
+        Random random = new Random(7);
+        for ( int r = 0; r < rows; r++ ) {
+            for ( int c = 0; c < columns; c++ ) {
+                boolean inner = r > 0 && r < rows - 1 && c > 0 && c < columns - 1;
+                xs[r][c] = 4 + c * 10 + (inner ? random.nextInt(5) - 2 : 0);
+                ys[r][c] = 3 + r * 10 + (inner ? random.nextInt(5) - 2 : 0);
+            }
+        }
+
+        ArrayList<Triangle> triangles = new ArrayList<>();
+        for ( int r = 0; r < rows - 1; r++ ) {
+            for ( int c = 0; c < columns - 1; c++ ) {
+                // Both windings, and both diagonals of the cells
+                if ( (r + c) % 2 == 0 ) {
+                    triangles.add(screenTriangle(xs[r][c], ys[r][c], xs[r][c + 1], ys[r][c + 1], xs[r + 1][c + 1], ys[r + 1][c + 1]));
+                    triangles.add(screenTriangle(xs[r][c], ys[r][c], xs[r + 1][c], ys[r + 1][c], xs[r + 1][c + 1], ys[r + 1][c + 1]));
+                } else {
+                    triangles.add(screenTriangle(xs[r][c + 1], ys[r][c + 1], xs[r + 1][c], ys[r + 1][c], xs[r][c], ys[r][c]));
+                    triangles.add(screenTriangle(xs[r][c + 1], ys[r][c + 1], xs[r + 1][c + 1], ys[r + 1][c + 1], xs[r + 1][c], ys[r + 1][c]));
+                }
+            }
+        }
+
+        PixelRenderer3D renderer = new PixelRenderer3D(WIDTH, HEIGHT);
+        renderer.setRasterizerType(RasterizerType.EDGE_FUNCTION);
+        renderer.setRenderFlag(RenderFlags.RENDER_FULL_TEXTURED);
+        renderer.setPixelCounting(true);
+        renderer.clear(0xff000000);
+        renderer.renderTriangles(triangles, new Texture(new int[] { 0xffffffff }, 1, 1));
+
+        // The pixels on the top and left sides are inside, the ones on the bottom and right sides are not
+        int area = (columns - 1) * 10 * (rows - 1) * 10;
+        assertEquals(area, renderer.getNumPixelsTested());
+        assertEquals(0, renderer.getNumPixelsRejected());
+        for ( int y = 0; y < HEIGHT; y++ ) {
+            for ( int x = 0; x < WIDTH; x++ ) {
+                boolean inside = x >= 4 && x < 64 && y >= 3 && y < 43;
+                assertEquals(inside ? 0xffffffff : 0xff000000, renderer.getP()[y * WIDTH + x], x + ", " + y);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package org.render3d.render;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.render3d.PresentMode;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwapChainTest {
+
+    private static final int WIDTH = 32;
+
+    private static final int HEIGHT = 16;
+
+    private static void draw(SwapChain swapChain, int frame) {
+        Arrays.fill(swapChain.getRenderer().getP(), frame);
+    }
+
+    /**
+     * This method presents a frame in a new thread, so the test can check if present waits
+     */
+    private static Thread presentInBackground(SwapChain swapChain, AtomicReference<Throwable> error) {
+        Thread thread = new Thread(() -> {
+            try {
+                swapChain.present();
+            } catch ( Throwable e ) {
+                error.set(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void assertWaiting(Thread thread) throws InterruptedException {
+        thread.join(200);
+        assertTrue(thread.isAlive());
+    }
+
+    @Test
+    void fifoFramesAreAcquiredInOrder() throws InterruptedException {
+        SwapChain swapChain = new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 3, PresentMode.FIFO);
+        draw(swapChain, 1);
+        swapChain.present();
+        draw(swapChain, 2);
+        swapChain.present();
+
+        int[] first = swapChain.acquire();
+        int[] second = swapChain.acquire();
+        assertEquals(1, first[0]);
+        assertEquals(2, second[0]);
+        assertNull(swapChain.tryAcquire());
+        assertNotSame(first, swapChain.getRenderer().getP());
+        assertNotSame(second, swapChain.getRenderer().getP());
+        swapChain.release(first);
+        swapChain.release(second);
+        assertEquals(2, swapChain.getNumFramesPresented());
+        assertEquals(0, swapChain.getNumFramesDropped());
+    }
+
+    @Test
+    @Timeout(10)
+    void fifoPresentWaitsForAFreeBuffer() throws InterruptedException {
+        SwapChain swapChain = new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 2, PresentMode.FIFO);
+        draw(swapChain, 1);
+        swapChain.present();
+
+        // The other buffer is presented and not released, there is nowhere to draw the next frame
+        draw(swapChain, 2);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = presentInBackground(swapChain, error);
+        assertWaiting(thread);
+
+        int[] frame = swapChain.acquire();
+        assertEquals(1, frame[0]);
+        swapChain.release(frame);
+        thread.join();
+        assertNull(error.get());
+        assertEquals(2, swapChain.acquire()[0]);
+    }
+
+    @Test
+    @Timeout(10)
+    void interruptedPresentKeepsTheBackBuffer() throws InterruptedException {
+        SwapChain swapChain = new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 2, PresentMode.FIFO);
+        swapChain.present();
+        int[] backBuffer = swapChain.getRenderer().getP();
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = presentInBackground(swapChain, error);
+        assertWaiting(thread);
+        thread.interrupt();
+        thread.join();
+
+        assertTrue(error.get() instanceof InterruptedException);
+        assertSame(backBuffer, swapChain.getRenderer().getP());
+        assertEquals(1, swapChain.getNumFramesPresented());
+        assertNotNull(swapChain.tryAcquire());
+        assertNull(swapChain.tryAcquire());
+    }
+
+    @Test
+    @Timeout(20)
+    void fifoConsumersSeeEveryFrameWhole() throws Exception {
+        int numFrames = 300;
+        SwapChain swapChain = new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 3, PresentMode.FIFO);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                for ( int frame = 1; frame <= numFrames; frame++ ) {
+                    int[] pixels = swapChain.acquire();
+                    for ( int pixel : pixels ) {
+                        assertEquals(frame, pixel);
+                    }
+                    swapChain.release(pixels);
+                }
+            } catch ( Throwable e ) {
+                error.set(e);
+            }
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+
+        for ( int frame = 1; frame <= numFrames; frame++ ) {
+            draw(swapChain, frame);
+            swapChain.present();
+        }
+        consumer.join();
+        assertNull(error.get());
+        assertEquals(numFrames, swapChain.getNumFramesPresented());
+        assertEquals(0, swapChain.getNumFramesDropped());
+    }
+
+    @Test
+    void mailboxReplacesTheFramesWhichWereNotAcquired() throws InterruptedException {
+        SwapChain swapChain = new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 3, PresentMode.MAILBOX);
+        // Present never waits while nobody acquires the frames
+        for ( int frame = 1; frame <= 5; frame++ ) {
+            draw(swapChain, frame);
+            swapChain.present();
+        }
+        int[] latest = swapChain.tryAcquire();
+        assertEquals(5, latest[0]);
+        assertNull(swapChain.tryAcquire());
+        assertEquals(5, swapChain.getNumFramesPresented());
+        assertEquals(4, swapChain.getNumFramesDropped());
+
+        // The acquired frame is kept while the renderer goes on
+        for ( int frame = 6; frame <= 8; frame++ ) {
+            draw(swapChain, frame);
+            swapChain.present();
+        }
+        assertEquals(5, latest[0]);
+        swapChain.release(latest);
+        assertEquals(8, swapChain.acquire()[0]);
+    }
+
+    @Test
+    @Timeout(10)
+    void mailboxPresentWaitsWhenTwoFramesAreAcquired() throws InterruptedException {
+        SwapChain swapChain = new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 3, PresentMode.MAILBOX);
+        draw(swapChain, 1);
+        swapChain.present();
+        int[] first = swapChain.acquire();
+        draw(swapChain, 2);
+        swapChain.present();
+        int[] second = swapChain.acquire();
+
+        draw(swapChain, 3);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = presentInBackground(swapChain, error);
+        assertWaiting(thread);
+
+        swapChain.release(first);
+        thread.join();
+        assertNull(error.get());
+        assertEquals(3, swapChain.acquire()[0]);
+        assertEquals(2, second[0]);
+    }
+
+    @Test
+    void buffersWhichWereNotAcquiredCantBeReleased() throws InterruptedException {
+        SwapChain swapChain = new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 2);
+        assertThrows(IllegalArgumentException.class, () -> swapChain.release(new int[WIDTH * HEIGHT]));
+        assertThrows(IllegalArgumentException.class, () -> swapChain.release(swapChain.getRenderer().getP()));
+        swapChain.present();
+        int[] frame = swapChain.acquire();
+        swapChain.release(frame);
+        assertThrows(IllegalArgumentException.class, () -> swapChain.release(frame));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SwapChain(new PixelRenderer3D(WIDTH, HEIGHT), 2, PresentMode.MAILBOX));
+    }
+
+}
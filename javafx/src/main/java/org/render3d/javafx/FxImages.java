@@ -0,0 +1,116 @@
+package org.render3d.javafx;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+import org.render3d.material.Texture;
+import org.render3d.render.PixelRenderer;
+
+import java.nio.IntBuffer;
+
+/**
+ * This class converts between the JavaFX images and the pixel arrays of the core:
+ * the image drawn by a renderer is written into a JavaFX image, and a JavaFX image
+ * is read into a texture. The core doesn't depend on JavaFX, so the applications
+ * which don't show the images don't need its toolkit.
+ */
+public final class FxImages {
+
+    private FxImages() {
+    }
+
+    // Method to make a Writable Image from the pixel array
+
+    public static Image makeImage(PixelRenderer renderer) {
+        WritableImage img = new WritableImage(renderer.getW(), renderer.getH());
+        writeImage(renderer, img);
+        return img;
+    }
+
+    public static void writeImage(PixelRenderer renderer, PixelWriter pw) {
+        writeImage(renderer.getP(), renderer.getW(), renderer.getH(), pw);
+    }
+
+    /**
+     * This method writes a pixel array, like a frame acquired from a swap chain, into an image
+     * @param p the pixels, ARGB
+     * @param w the width of the image
+     * @param h the height of the image
+     * @param pw the writer of the image
+     * @throws IllegalArgumentException if the array has less than w * h pixels
+     */
+    public static void writeImage(int[] p, int w, int h, PixelWriter pw) {
+        checkSize(p.length, w, h);
+        pw.setPixels(
+                0, 0,
+                w, h,
+                PixelFormat.getIntArgbInstance(),
+                p,
+                0, w);
+    }
+
+    public static void writeImage(PixelRenderer renderer, WritableImage img) {
+        writeImage(renderer, img.getPixelWriter());
+    }
+
+    // Read pixels
+
+    public static Texture makeTexture(PixelReader pr, double width, double height) {
+        Texture texture = new Texture();
+        setTexture(texture, pr, width, height);
+        return texture;
+    }
+
+    public static Texture makeTexture(Image img) {
+        return makeTexture(img.getPixelReader(), img.getWidth(), img.getHeight());
+    }
+
+    public static void setTexture(Texture texture, PixelReader pr, double width, double height) {
+        int[] pixels = readPixels(pr, 0, 0, (int) width, (int) height);
+        texture.setW((int) width);
+        texture.setH((int) height);
+        texture.setP(pixels);
+        texture.generateMipmaps();
+    }
+
+    public static void setTexture(Texture texture, Image img) {
+        setTexture(texture, img.getPixelReader(), img.getWidth(), img.getHeight());
+    }
+
+    /**
+     * This method checks that an array of pixels is large enough for an image
+     * @param length the length of the array
+     * @param w the width of the image
+     * @param h the height of the image
+     * @throws IllegalArgumentException if the size is negative or the array is too short
+     */
+    private static void checkSize(int length, int w, int h) {
+        if ( w < 0 || h < 0 ) {
+            throw new IllegalArgumentException("The size of the image can't be negative: " + w + "x" + h);
+        }
+        if ( (long) w * h > length ) {
+            throw new IllegalArgumentException("An image of " + w + "x" + h
+                    + " doesn't fit in an array of " + length + " pixels");
+        }
+    }
+
+    private static int[] readPixels(PixelReader reader, int x, int y, int w, int h) {
+        checkSize(Integer.MAX_VALUE, w, h);
+        int[] pixels = new int[w * h];
+        PixelFormat.Type type = reader.getPixelFormat().getType();
+        WritablePixelFormat<IntBuffer> format;
+
+        if (type == PixelFormat.Type.INT_ARGB_PRE) {
+            format = PixelFormat.getIntArgbPreInstance();
+        } else {
+            format = PixelFormat.getIntArgbInstance();
+        }
+
+        reader.getPixels(x, y, w, h, format, pixels, 0, w);
+        return pixels;
+    }
+
+}